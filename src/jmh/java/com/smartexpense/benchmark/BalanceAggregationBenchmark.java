@@ -0,0 +1,102 @@
+package com.smartexpense.benchmark;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseShare;
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.MemberBalance;
+import com.smartexpense.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group balance aggregation: a full recomputation over the expense history
+ * against the running ledger, which pays a small delta per write and reads
+ * one entry per member.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BalanceAggregationBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public BenchmarkData.GroupSize size;
+
+    private List<Expense> expenses;
+    private GroupLedger ledger;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        expenses = BenchmarkData.expenses(size, 5L);
+        ledger = new GroupLedger(BenchmarkData.GROUP_ID);
+        for (int i = 0; i < size.members; i++) {
+            ledger.getBalances().put(BenchmarkData.memberId(i), 0L);
+        }
+        for (Expense expense : expenses) {
+            apply(ledger, expense);
+        }
+    }
+
+    /**
+     * What every balance read would cost without the running ledger.
+     */
+    @Benchmark
+    public Map<Long, Long> recomputeFromHistory() {
+        Map<Long, Long> balances = new HashMap<>(size.members * 2);
+        for (Expense expense : expenses) {
+            balances.merge(expense.getPaidByUserId(), expense.getBaseAmountMinor(), Long::sum);
+            for (ExpenseShare share : expense.getShares()) {
+                balances.merge(share.getUserId(), -share.getOwedMinor(), Long::sum);
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * The ledger update made for one expense write.
+     */
+    @Benchmark
+    public GroupLedger applyExpenseDelta() {
+        apply(ledger, expenses.get(next++ % expenses.size()));
+        return ledger;
+    }
+
+    /**
+     * The balance report built from the ledger, in member order.
+     */
+    @Benchmark
+    public List<MemberBalance> readLedger() {
+        Map<Long, Long> balances = new TreeMap<>(ledger.getBalances());
+        List<MemberBalance> result = new ArrayList<>(balances.size());
+        balances.forEach((userId, balance) ->
+                result.add(new MemberBalance(BenchmarkData.GROUP_ID, userId, null, Money.toMajor(balance))));
+        return result;
+    }
+
+    private static void apply(GroupLedger ledger, Expense expense) {
+        ledger.adjust(expense.getPaidByUserId(), expense.getBaseAmountMinor());
+        for (ExpenseShare share : expense.getShares()) {
+            ledger.adjust(share.getUserId(), -share.getOwedMinor());
+        }
+    }
+}
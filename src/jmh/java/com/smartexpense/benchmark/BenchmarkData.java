@@ -0,0 +1,176 @@
+package com.smartexpense.benchmark;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseShare;
+import com.smartexpense.model.MemberBalance;
+import com.smartexpense.model.SettlementPlan;
+import com.smartexpense.model.SettlementSuggestion;
+import com.smartexpense.model.SplitType;
+import com.smartexpense.money.Money;
+import com.smartexpense.money.SplitEngine;
+import com.smartexpense.settlement.GreedySettlementSolver;
+import com.smartexpense.settlement.Transfers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic groups shared by the benchmarks. The same seed
+ * always produces the same data, so runs before and after a change compare
+ * like with like.
+ */
+public final class BenchmarkData {
+
+    /**
+     * Group shapes from a flat share to a large organisation. Expenses are
+     * split between two and eight members, the way most real expenses are.
+     */
+    public enum GroupSize {
+        SMALL(6, 200),
+        MEDIUM(60, 20_000),
+        HUGE(5_000, 100_000);
+
+        final int members;
+        final int expenses;
+
+        GroupSize(int members, int expenses) {
+            this.members = members;
+            this.expenses = expenses;
+        }
+    }
+
+    static final long GROUP_ID = 1L;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final SplitType[] SPLIT_TYPES = SplitType.values();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Member ids of a generated group are {@code 1..members}.
+     */
+    static long memberId(int index) {
+        return index + 1L;
+    }
+
+    /**
+     * Expenses with resolved shares, cycling through the split types.
+     */
+    static List<Expense> expenses(GroupSize size, long seed) {
+        Random random = new Random(seed);
+        List<Expense> expenses = new ArrayList<>(size.expenses);
+        for (int i = 0; i < size.expenses; i++) {
+            int participants = Math.min(size.members, 2 + random.nextInt(7));
+            expenses.add(expense(i + 1L, SPLIT_TYPES[i % SPLIT_TYPES.length], size.members, participants, random));
+        }
+        return expenses;
+    }
+
+    /**
+     * One expense of the given split type between {@code participants}
+     * distinct members, with owed amounts computed by the split engine.
+     */
+    static Expense expense(long id, SplitType type, int members, int participants, Random random) {
+        long amount = 1_00 + random.nextInt(500_00);
+        long[] inputs = switch (type) {
+            case EQUAL -> new long[participants];
+            case EXACT -> partition(amount, participants, random);
+            case PERCENT -> partition(Money.FULL_PERCENT, participants, random);
+        };
+        long[] owed = new long[participants];
+        SplitEngine.split(type, amount, inputs, owed);
+
+        Expense expense = new Expense();
+        expense.setId(id);
+        expense.setGroupId(GROUP_ID);
+        expense.setDescription("Expense " + id);
+        expense.setAmount(Money.toMajor(amount));
+        expense.setDate(FIRST_DAY.plusDays(id % 365));
+        expense.setSplitType(type.name());
+        int first = random.nextInt(members);
+        expense.setPaidByUserId(memberId(first));
+        for (int p = 0; p < participants; p++) {
+            long userId = memberId((first + p) % members);
+            ExpenseShare share = new ExpenseShare(userId,
+                    type == SplitType.PERCENT ? inputs[p] / 100.0 : Money.toMajor(owed[p]));
+            share.setOwedMinor(owed[p]);
+            expense.getShares().add(share);
+        }
+        return expense;
+    }
+
+    /**
+     * Splits {@code total} into {@code parts} random positive values.
+     */
+    static long[] partition(long total, int parts, Random random) {
+        long[] values = new long[parts];
+        long remaining = total - parts;
+        for (int i = 0; i < parts - 1; i++) {
+            long extra = remaining == 0 ? 0 : (long) (random.nextDouble() * remaining / (parts - i) * 2);
+            extra = Math.min(extra, remaining);
+            values[i] = 1 + extra;
+            remaining -= extra;
+        }
+        values[parts - 1] = 1 + remaining;
+        return values;
+    }
+
+    /**
+     * Builds balances out of shuffled zero-sum clusters of two to four members,
+     * the shape a real group takes when sub-groups share expenses, which gives
+     * the exact solver something to find that greedy matching can miss.
+     */
+    static long[] clusteredBalances(int members, long seed) {
+        Random random = new Random(seed);
+        long[] balances = new long[members];
+        int i = 0;
+        while (i < members) {
+            int size = Math.min(members - i, 2 + random.nextInt(3));
+            long sum = 0;
+            for (int j = 0; j < size - 1; j++) {
+                balances[i + j] = random.nextInt(200_00) - 100_00;
+                sum += balances[i + j];
+            }
+            balances[i + size - 1] = -sum;
+            i += size;
+        }
+        for (int j = members - 1; j > 0; j--) {
+            int k = random.nextInt(j + 1);
+            long tmp = balances[j];
+            balances[j] = balances[k];
+            balances[k] = tmp;
+        }
+        return balances;
+    }
+
+    /**
+     * The balance report of a group with clustered balances, as the report
+     * endpoint would return it.
+     */
+    static List<MemberBalance> balanceReport(int members, long seed) {
+        long[] balances = clusteredBalances(members, seed);
+        List<MemberBalance> report = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            report.add(new MemberBalance(GROUP_ID, memberId(i), "Member " + memberId(i), Money.toMajor(balances[i])));
+        }
+        return report;
+    }
+
+    /**
+     * The settlement plan of a group with clustered balances, as the report
+     * endpoint would return it.
+     */
+    static SettlementPlan settlementPlan(int members, long seed) {
+        Transfers transfers = GreedySettlementSolver.solve(clusteredBalances(members, seed));
+        List<SettlementSuggestion> suggestions = new ArrayList<>(transfers.size());
+        for (int t = 0; t < transfers.size(); t++) {
+            long from = memberId(transfers.from(t));
+            long to = memberId(transfers.to(t));
+            suggestions.add(new SettlementSuggestion(from, "Member " + from, to, "Member " + to,
+                    Money.toMajor(transfers.amount(t))));
+        }
+        return new SettlementPlan(GROUP_ID, suggestions);
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartexpense.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.SettlementPlan;
+import com.smartexpense.model.SplitType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the two largest response bodies: an expense
+ * split between every member of the group and the group's settlement plan.
+ * The mapper is configured the way Spring Boot configures the one used by
+ * the controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public BenchmarkData.GroupSize size;
+
+    private ObjectWriter expenseWriter;
+    private ObjectReader expenseReader;
+    private ObjectWriter planWriter;
+    private ObjectReader planReader;
+    private Expense expense;
+    private SettlementPlan plan;
+    private byte[] expenseJson;
+    private byte[] planJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        expenseWriter = mapper.writerFor(Expense.class);
+        expenseReader = mapper.readerFor(Expense.class);
+        planWriter = mapper.writerFor(SettlementPlan.class);
+        planReader = mapper.readerFor(SettlementPlan.class);
+        expense = BenchmarkData.expense(1L, SplitType.EXACT, size.members, size.members, new Random(9L));
+        plan = BenchmarkData.settlementPlan(size.members, 9L);
+        expenseJson = expenseWriter.writeValueAsBytes(expense);
+        planJson = planWriter.writeValueAsBytes(plan);
+        System.out.printf("%n[payload] size=%s expense=%d bytes plan=%d bytes (%d transfers)%n",
+                size, expenseJson.length, planJson.length, plan.getTransactionCount());
+    }
+
+    @Benchmark
+    public byte[] serializeExpense() throws IOException {
+        return expenseWriter.writeValueAsBytes(expense);
+    }
+
+    @Benchmark
+    public Expense deserializeExpense() throws IOException {
+        return expenseReader.readValue(expenseJson);
+    }
+
+    @Benchmark
+    public byte[] serializeSettlementPlan() throws IOException {
+        return planWriter.writeValueAsBytes(plan);
+    }
+
+    @Benchmark
+    public SettlementPlan deserializeSettlementPlan() throws IOException {
+        return planReader.readValue(planJson);
+    }
+}
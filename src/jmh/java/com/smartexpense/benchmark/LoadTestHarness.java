@@ -0,0 +1,256 @@
+package com.smartexpense.benchmark;
+
+import com.smartexpense.DemoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load test comparing request execution modes.
+ * <p>
+ * By default the application is booted in-process twice, once on the Tomcat
+ * platform thread pool and once with {@code spring.threads.virtual.enabled},
+ * each on a fresh database seeded with one group. {@code --concurrency}
+ * clients then issue a mix of balance reads and expense writes for
+ * {@code --seconds}, and throughput plus p50/p99/p99.9 latency are printed per
+ * mode. With {@code --url} an already running server is measured instead,
+ * which is the way to test against a real database.
+ * <p>
+ * Options: {@code --concurrency N} (400), {@code --seconds N} (20),
+ * {@code --warmup N} (5), {@code --members N} (20), {@code --write-percent N}
+ * (20), {@code --url http://host:port}.
+ */
+public final class LoadTestHarness {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final int concurrency;
+    private final int seconds;
+    private final int warmup;
+    private final int members;
+    private final int writePercent;
+    private final HttpClient client;
+
+    private LoadTestHarness(int concurrency, int seconds, int warmup, int members, int writePercent) {
+        this.concurrency = concurrency;
+        this.seconds = seconds;
+        this.warmup = warmup;
+        this.members = members;
+        this.writePercent = writePercent;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = intOption(args, "--concurrency", 400);
+        int seconds = intOption(args, "--seconds", 20);
+        int warmup = intOption(args, "--warmup", 5);
+        int members = intOption(args, "--members", 20);
+        int writePercent = intOption(args, "--write-percent", 20);
+        String url = option(args, "--url");
+        LoadTestHarness harness = new LoadTestHarness(concurrency, seconds, warmup, members, writePercent);
+
+        if (url != null) {
+            harness.run("external", url);
+            return;
+        }
+        harness.runInProcess("platform", false);
+        if (Runtime.version().feature() >= 21) {
+            harness.runInProcess("virtual", true);
+        } else {
+            System.out.println("Skipping virtual-thread run: Java " + Runtime.version().feature()
+                    + " (build and run with -Pjava21 on Java 21+)");
+        }
+    }
+
+    private void runInProcess(String mode, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run()) {
+            run(mode, "http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+        }
+    }
+
+    private void run(String mode, String baseUrl) throws Exception {
+        long groupId = seed(baseUrl);
+        List<Long> userIds = memberIds(baseUrl, groupId);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        AtomicBoolean recording = new AtomicBoolean(false);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<Recorder>> results = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            results.add(clients.submit(() -> drive(baseUrl, groupId, userIds, recording, running)));
+        }
+        Thread.sleep(warmup * 1000L);
+        recording.set(true);
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        clients.shutdown();
+
+        Recorder total = new Recorder();
+        for (Future<Recorder> result : results) {
+            total.merge(result.get());
+        }
+        total.report(mode, concurrency, elapsed);
+    }
+
+    private Recorder drive(String baseUrl, long groupId, List<Long> userIds,
+                           AtomicBoolean recording, AtomicBoolean running) {
+        Recorder recorder = new Recorder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest read = HttpRequest.newBuilder(URI.create(baseUrl + "/reports/groups/" + groupId + "/balances"))
+                .GET().build();
+        while (running.get()) {
+            HttpRequest request = read;
+            if (random.nextInt(100) < writePercent) {
+                long payer = userIds.get(random.nextInt(userIds.size()));
+                request = post(baseUrl + "/expenses", expenseJson(groupId, payer, 1 + random.nextInt(10_000) / 100.0));
+            }
+            long begin = System.nanoTime();
+            boolean ok;
+            try {
+                ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 300;
+            } catch (Exception ex) {
+                ok = false;
+            }
+            if (recording.get() && running.get()) {
+                recorder.record(System.nanoTime() - begin, ok);
+            }
+        }
+        return recorder;
+    }
+
+    private long seed(String baseUrl) throws Exception {
+        StringBuilder memberIds = new StringBuilder();
+        for (int i = 0; i < members; i++) {
+            String body = send(post(baseUrl + "/users",
+                    "{\"name\":\"Load " + i + "\",\"email\":\"load" + i + "@example.com\"}"));
+            memberIds.append(i == 0 ? "" : ",").append(parseId(body));
+        }
+        String group = send(post(baseUrl + "/groups",
+                "{\"name\":\"Load test\",\"memberIds\":[" + memberIds + "]}"));
+        return parseId(group);
+    }
+
+    private List<Long> memberIds(String baseUrl, long groupId) throws Exception {
+        String body = send(HttpRequest.newBuilder(URI.create(baseUrl + "/groups/" + groupId)).GET().build());
+        String list = body.substring(body.indexOf("\"memberIds\":[") + 13);
+        List<Long> ids = new ArrayList<>();
+        for (String id : list.substring(0, list.indexOf(']')).split(",")) {
+            ids.add(Long.parseLong(id.trim()));
+        }
+        return ids;
+    }
+
+    private String send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String expenseJson(long groupId, long payer, double amount) {
+        return "{\"groupId\":" + groupId + ",\"description\":\"load\",\"amount\":" + amount
+                + ",\"paidByUserId\":" + payer + ",\"date\":\"" + LocalDate.now() + "\",\"splitType\":\"EQUAL\"}";
+    }
+
+    private static long parseId(String json) {
+        Matcher matcher = ID.matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No id in " + json);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static String option(String[] args, String name) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private static int intOption(String[] args, String name, int defaultValue) {
+        String value = option(args, name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    /**
+     * Per-client latency samples, merged once the run is over.
+     */
+    private static final class Recorder {
+
+        private long[] samples = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+            }
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+
+        void merge(Recorder other) {
+            if (count + other.count > samples.length) {
+                samples = Arrays.copyOf(samples, count + other.count);
+            }
+            System.arraycopy(other.samples, 0, samples, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        void report(String mode, int concurrency, double seconds) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            System.out.printf("%n[%s] concurrency=%d requests=%d errors=%d throughput=%.0f req/s "
+                            + "p50=%.2fms p99=%.2fms p99.9=%.2fms%n",
+                    mode, concurrency, count, errors, count / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.smartexpense.benchmark;
+
+import com.smartexpense.settlement.ExactSettlementSolver;
+import com.smartexpense.settlement.GreedySettlementSolver;
+import com.smartexpense.settlement.SettlementPlanner;
+import com.smartexpense.settlement.Transfers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the exact and greedy settlement solvers on latency and plan size.
+ * <p>
+ * Small groups run both strategies; the plan sizes are printed at the end of
+ * each trial. Large groups run the greedy solver only, since the exact solver
+ * is exponential in the number of members. The planner benchmark measures
+ * the production strategy selection on the shared small, medium and huge
+ * groups.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementPlanBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SmallGroup {
+
+        @Param({"6", "12", "18"})
+        public int members;
+
+        public long[] balances;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            balances = BenchmarkData.clusteredBalances(members, 7L);
+        }
+
+        @TearDown(Level.Trial)
+        public void reportPlanSize() {
+            System.out.printf("%n[plan size] members=%d exact=%d greedy=%d%n", members,
+                    ExactSettlementSolver.solve(balances).size(), GreedySettlementSolver.solve(balances).size());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LargeGroup {
+
+        @Param({"500", "5000", "50000"})
+        public int members;
+
+        public long[] balances;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            balances = BenchmarkData.clusteredBalances(members, 11L);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class GeneratedGroup {
+
+        @Param({"SMALL", "MEDIUM", "HUGE"})
+        public BenchmarkData.GroupSize size;
+
+        public long[] balances;
+        public SettlementPlanner planner;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            balances = BenchmarkData.clusteredBalances(size.members, 13L);
+            planner = new SettlementPlanner(12);
+        }
+    }
+
+    @Benchmark
+    public Transfers exactSmallGroup(SmallGroup group) {
+        return ExactSettlementSolver.solve(group.balances);
+    }
+
+    @Benchmark
+    public Transfers greedySmallGroup(SmallGroup group) {
+        return GreedySettlementSolver.solve(group.balances);
+    }
+
+    @Benchmark
+    public Transfers greedyLargeGroup(LargeGroup group) {
+        return GreedySettlementSolver.solve(group.balances);
+    }
+
+    @Benchmark
+    public Transfers planner(GeneratedGroup group) {
+        return group.planner.plan(group.balances);
+    }
+}
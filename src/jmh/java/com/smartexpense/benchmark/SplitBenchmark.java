@@ -0,0 +1,67 @@
+package com.smartexpense.benchmark;
+
+import com.smartexpense.money.Money;
+import com.smartexpense.money.SplitEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Share computation for each split type, from a dinner bill to an expense
+ * split across a whole organisation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SplitBenchmark {
+
+    @Param({"3", "30", "1000"})
+    public int participants;
+
+    private long amount;
+    private long[] exactInputs;
+    private long[] percentInputs;
+    private long[] owed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(3L);
+        amount = 12_345_67;
+        exactInputs = BenchmarkData.partition(amount, participants, random);
+        percentInputs = BenchmarkData.partition(Money.FULL_PERCENT, participants, random);
+        owed = new long[participants];
+    }
+
+    @Benchmark
+    public long[] equal() {
+        SplitEngine.splitEqual(amount, owed);
+        return owed;
+    }
+
+    @Benchmark
+    public long[] exact() {
+        SplitEngine.splitExact(amount, exactInputs, owed);
+        return owed;
+    }
+
+    @Benchmark
+    public long[] percent() {
+        SplitEngine.splitPercent(amount, percentInputs, owed);
+        return owed;
+    }
+}
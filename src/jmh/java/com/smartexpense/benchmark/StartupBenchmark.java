@@ -0,0 +1,142 @@
+package com.smartexpense.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from launching the application to its first successful
+ * {@code GET /users}, which covers JVM startup, context refresh and the first
+ * request through the web stack.
+ * <p>
+ * Each run starts a fresh JVM on a free port and polls {@code /users} until it
+ * answers 200, then stops it. Three launches are compared, each skipped when
+ * its files are missing: the fat jar, the jar extracted by the fast-startup
+ * profile, and the extracted jar with AOT initialization and the class data
+ * sharing archive. Build with {@code mvn -Pfast-startup package -DskipTests}
+ * first; min, median and max are printed per launch.
+ * <p>
+ * Options: {@code --runs N} (5), {@code --timeout N} seconds per run (120),
+ * {@code --jar path} (target/demo-0.0.1-SNAPSHOT.jar), {@code --app dir}
+ * (target/app).
+ */
+public final class StartupBenchmark {
+
+    private static final String JAR_NAME = "demo-0.0.1-SNAPSHOT.jar";
+
+    private final int runs;
+    private final Duration timeout;
+    private final HttpClient client;
+
+    private StartupBenchmark(int runs, Duration timeout) {
+        this.runs = runs;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = intOption(args, "--runs", 5);
+        int timeout = intOption(args, "--timeout", 120);
+        Path jar = Path.of(optionOrDefault(args, "--jar", "target/" + JAR_NAME));
+        Path app = Path.of(optionOrDefault(args, "--app", "target/app"));
+        Path extractedJar = app.resolve(JAR_NAME);
+        Path archive = app.resolve("application.jsa");
+        StartupBenchmark benchmark = new StartupBenchmark(runs, Duration.ofSeconds(timeout));
+
+        benchmark.measure("fat-jar", jar, List.of("-jar", jar.toString()));
+        benchmark.measure("extracted", extractedJar, List.of("-jar", extractedJar.toString()));
+        benchmark.measure("aot+cds", archive, List.of(
+                "-XX:SharedArchiveFile=" + archive, "-Xlog:cds=off", "-Xlog:cds+dynamic=off",
+                "-Dspring.aot.enabled=true", "-jar", extractedJar.toString()));
+    }
+
+    private void measure(String mode, Path required, List<String> launch) throws Exception {
+        if (!Files.exists(required)) {
+            System.out.println("Skipping " + mode + ": " + required + " not found"
+                    + " (build with mvn -Pfast-startup package -DskipTests)");
+            return;
+        }
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = timeToFirstUsers(launch);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%n[%s] runs=%d time to first GET /users: min=%dms median=%dms max=%dms%n",
+                mode, runs, millis[0], millis[runs / 2], millis[runs - 1]);
+    }
+
+    private long timeToFirstUsers(List<String> launch) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(launch);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1");
+        command.add("--logging.level.root=WARN");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users"))
+                .timeout(Duration.ofSeconds(5))
+                .GET().build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue()
+                            + ": " + String.join(" ", command));
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException notListening) {
+                    // not accepting connections yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No successful GET /users within " + timeout.toSeconds() + "s");
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String optionOrDefault(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+
+    private static int intOption(String[] args, String name, int defaultValue) {
+        String value = optionOrDefault(args, name, null);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+}
@@ -0,0 +1,114 @@
+package com.smartexpense.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.MemberBalance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against the negotiable binary formats on the two bulk responses: a
+ * group's expense list and its balance report. Mappers are built the way
+ * {@code WireFormatConfig} builds the converters' ones. Payload sizes are
+ * printed once per trial, since JMH only measures time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    /**
+     * Wire formats offered through content negotiation.
+     */
+    public enum Format {
+        JSON,
+        CBOR,
+        SMILE;
+
+        ObjectMapper mapper() {
+            Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+            return switch (this) {
+                case JSON -> builder.build();
+                case CBOR -> builder.factory(new CBORFactory()).build();
+                case SMILE -> builder.factory(new SmileFactory()).build();
+            };
+        }
+    }
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public BenchmarkData.GroupSize size;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public Format format;
+
+    private ObjectWriter expensesWriter;
+    private ObjectReader expensesReader;
+    private ObjectWriter balancesWriter;
+    private ObjectReader balancesReader;
+    private List<Expense> expenses;
+    private List<MemberBalance> balances;
+    private byte[] expensesPayload;
+    private byte[] balancesPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper mapper = format.mapper();
+        TypeReference<List<Expense>> expenseList = new TypeReference<>() {
+        };
+        TypeReference<List<MemberBalance>> balanceList = new TypeReference<>() {
+        };
+        expensesWriter = mapper.writerFor(expenseList);
+        expensesReader = mapper.readerFor(expenseList);
+        balancesWriter = mapper.writerFor(balanceList);
+        balancesReader = mapper.readerFor(balanceList);
+        expenses = BenchmarkData.expenses(size, 13L);
+        balances = BenchmarkData.balanceReport(size.members, 13L);
+        expensesPayload = expensesWriter.writeValueAsBytes(expenses);
+        balancesPayload = balancesWriter.writeValueAsBytes(balances);
+        System.out.printf("%n[payload] size=%s format=%s expenses=%d bytes (%d rows) balances=%d bytes (%d rows)%n",
+                size, format, expensesPayload.length, expenses.size(), balancesPayload.length, balances.size());
+    }
+
+    @Benchmark
+    public byte[] serializeExpenses() throws IOException {
+        return expensesWriter.writeValueAsBytes(expenses);
+    }
+
+    @Benchmark
+    public List<Expense> deserializeExpenses() throws IOException {
+        return expensesReader.readValue(expensesPayload);
+    }
+
+    @Benchmark
+    public byte[] serializeBalances() throws IOException {
+        return balancesWriter.writeValueAsBytes(balances);
+    }
+
+    @Benchmark
+    public List<MemberBalance> deserializeBalances() throws IOException {
+        return balancesReader.readValue(balancesPayload);
+    }
+}
@@ -0,0 +1,168 @@
+package com.smartexpense.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.User;
+import com.smartexpense.repository.GroupRepository;
+import com.smartexpense.repository.UserRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of users and groups, backed by the Caffeine caches that
+ * Spring Boot registers as {@code users} and {@code groups}.
+ * <p>
+ * Values are loaded with Caffeine's atomic {@code get(key, loader)} and
+ * evictions are deferred until the writing transaction commits. An eviction
+ * that races with a load therefore waits for the load and removes its result,
+ * and a load that starts after the eviction sees the committed row, so a stale
+ * entry can never outlive the write that made it stale. Bulk name lookups
+ * read their misses with one query outside the cache and then store each row
+ * through {@code get(key, loader)}; if any eviction ran since the query
+ * started, the rows are reloaded one by one instead, so the bulk path keeps
+ * the same guarantee.
+ * <p>
+ * Cached instances are shared between requests and must be treated as
+ * read-only; write paths load their own copy from the repository.
+ */
+@Component
+public class EntityCache {
+
+    public static final String USERS = "users";
+    public static final String GROUPS = "groups";
+
+    private final Cache<Object, Object> users;
+    private final Cache<Object, Object> groups;
+    private final AtomicLong userEvictions = new AtomicLong();
+    private final AtomicLong groupEvictions = new AtomicLong();
+    private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
+
+    public EntityCache(CacheManager cacheManager, UserRepository userRepository, GroupRepository groupRepository) {
+        this.users = nativeCache(cacheManager, USERS);
+        this.groups = nativeCache(cacheManager, GROUPS);
+        this.userRepository = userRepository;
+        this.groupRepository = groupRepository;
+    }
+
+    public Optional<User> getUser(Long id) {
+        return Optional.ofNullable((User) users.get(id, key -> userRepository.findById(id).orElse(null)));
+    }
+
+    public Optional<Group> getGroup(Long id) {
+        return Optional.ofNullable((Group) groups.get(id, key -> groupRepository.findById(id).orElse(null)));
+    }
+
+    /**
+     * Resolves the names of many users at once, loading all misses with a
+     * single query. Unknown ids are left out of the result.
+     */
+    public Map<Long, String> getUserNames(Collection<Long> ids) {
+        return names(users, userEvictions, ids, this::loadUsers,
+                id -> userRepository.findById(id).orElse(null), user -> ((User) user).getName());
+    }
+
+    /**
+     * Resolves the names of many groups at once, loading all misses with a
+     * single query. Unknown ids are left out of the result.
+     */
+    public Map<Long, String> getGroupNames(Collection<Long> ids) {
+        return names(groups, groupEvictions, ids, this::loadGroups,
+                id -> groupRepository.findById(id).orElse(null), group -> ((Group) group).getName());
+    }
+
+    public void evictUser(Long id) {
+        afterCommit(() -> {
+            userEvictions.incrementAndGet();
+            users.invalidate(id);
+        });
+    }
+
+    public void evictGroup(Long id) {
+        afterCommit(() -> {
+            groupEvictions.incrementAndGet();
+            groups.invalidate(id);
+        });
+    }
+
+    /**
+     * The eviction counter is read before the bulk query and checked again
+     * inside each per-key load. An eviction bumps the counter before it
+     * invalidates, so either the check sees it and the row is reread, or the
+     * invalidation waits for the load and removes what it stored.
+     */
+    private static Map<Long, String> names(Cache<Object, Object> cache, AtomicLong evictions, Collection<Long> ids,
+                                           Function<Set<Long>, Map<Long, Object>> bulkLoader,
+                                           Function<Long, Object> loader, Function<Object, String> name) {
+        Map<Long, String> names = new HashMap<>(ids.size() * 2);
+        Set<Long> missing = new HashSet<>();
+        for (Long id : ids) {
+            Object value = cache.getIfPresent(id);
+            if (value != null) {
+                names.put(id, name.apply(value));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return names;
+        }
+        long seen = evictions.get();
+        Map<Long, Object> loaded = bulkLoader.apply(missing);
+        for (Long id : missing) {
+            Object value = cache.get(id, key -> evictions.get() == seen ? loaded.get(id) : loader.apply(id));
+            if (value != null) {
+                names.put(id, name.apply(value));
+            }
+        }
+        return names;
+    }
+
+    private Map<Long, Object> loadUsers(Set<Long> missing) {
+        Map<Long, Object> loaded = new HashMap<>(missing.size() * 2);
+        for (User user : userRepository.findAllById(missing)) {
+            loaded.put(user.getId(), user);
+        }
+        return loaded;
+    }
+
+    private Map<Long, Object> loadGroups(Set<Long> missing) {
+        Map<Long, Object> loaded = new HashMap<>(missing.size() * 2);
+        for (Group group : groupRepository.findAllById(missing)) {
+            loaded.put(group.getId(), group);
+        }
+        return loaded;
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) {
+            throw new IllegalStateException("Cache '" + name + "' must be a Caffeine cache; check spring.cache.*");
+        }
+        return cache.getNativeCache();
+    }
+}
@@ -0,0 +1,94 @@
+package com.smartexpense.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries {@link RetryOnConflict} methods a bounded number of times with a
+ * short randomized backoff. Ordered ahead of the transaction interceptor so
+ * every attempt runs in a fresh transaction. When the attempts run out the
+ * last failure propagates and is answered with 409 Conflict.
+ * <p>
+ * Code that cannot be annotated, such as one chunk of a bulk write, gets the
+ * same retries through {@link #retry(Supplier)}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConflictRetryAspect {
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final Counter retried;
+    private final Counter exhausted;
+
+    public ConflictRetryAspect(MeterRegistry meterRegistry,
+                               @Value("${smartexpense.conflict.max-attempts:5}") int maxAttempts,
+                               @Value("${smartexpense.conflict.backoff-ms:5}") long backoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.retried = conflictCounter(meterRegistry, "retried");
+        this.exhausted = conflictCounter(meterRegistry, "exhausted");
+    }
+
+    @Around("@annotation(com.smartexpense.concurrency.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint call) throws Throwable {
+        return withRetries(call::proceed);
+    }
+
+    /**
+     * Runs {@code attempt}, which must start its own transaction, and re-runs
+     * it on a conflict like a {@link RetryOnConflict} method.
+     */
+    public <T> T retry(Supplier<T> attempt) {
+        try {
+            return withRetries(attempt::get);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private <T> T withRetries(Attempt<T> attempt) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return attempt.run();
+        }
+        for (int count = 1; ; count++) {
+            try {
+                return attempt.run();
+            } catch (ConcurrencyFailureException ex) {
+                if (count >= maxAttempts) {
+                    exhausted.increment();
+                    throw ex;
+                }
+                retried.increment();
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * count + 1));
+            }
+        }
+    }
+
+    private static Counter conflictCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("smartexpense.write.conflicts")
+                .description("Writes that failed on a concurrent update of the same rows")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface Attempt<T> {
+        T run() throws Throwable;
+    }
+}
@@ -0,0 +1,27 @@
+package com.smartexpense.concurrency;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Serializes ledger updates within a group while letting writes to different
+ * groups proceed in parallel.
+ * <p>
+ * Locks are taken inside a transaction and held until it completes, so the
+ * next writer of the group reads the ledger as committed by the previous one.
+ */
+public interface GroupLocks {
+
+    /**
+     * Locks the given groups for the rest of the current transaction. Groups
+     * already locked by the transaction are skipped.
+     *
+     * @throws org.springframework.dao.CannotAcquireLockException if a lock
+     *         cannot be taken without risking a deadlock
+     */
+    void lock(Collection<Long> groupIds);
+
+    default void lock(Long groupId) {
+        lock(List.of(groupId));
+    }
+}
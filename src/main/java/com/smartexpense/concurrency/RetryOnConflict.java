@@ -0,0 +1,21 @@
+package com.smartexpense.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional service method when it fails on a concurrent update,
+ * such as a stale version or a lock that could not be taken. Only the
+ * outermost call is retried; inside an existing transaction the failure is
+ * left to the caller.
+ *
+ * @see ConflictRetryAspect
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
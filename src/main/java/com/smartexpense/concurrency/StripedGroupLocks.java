@@ -0,0 +1,122 @@
+package com.smartexpense.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link GroupLocks} over a fixed array of locks, each group hashing to one
+ * stripe. Memory stays constant however many groups exist, and two groups
+ * only contend when they share a stripe.
+ * <p>
+ * Stripes are taken in ascending order. A transaction that already holds a
+ * higher stripe waits a bounded time for a lower one and then fails with a
+ * {@link CannotAcquireLockException}, so two transactions can never deadlock;
+ * the failed one is retried from scratch.
+ * <p>
+ * These locks only order writers within this process. Writers in other
+ * processes are caught by the version columns on the ledger, expense and
+ * settlement rows.
+ */
+@Component
+@ConditionalOnProperty(name = "smartexpense.storage", havingValue = "jpa", matchIfMissing = true)
+public class StripedGroupLocks implements GroupLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long outOfOrderTimeoutNanos;
+
+    public StripedGroupLocks(@Value("${smartexpense.ledger.lock-stripes:256}") int stripes,
+                             @Value("${smartexpense.ledger.lock-timeout-ms:200}") long outOfOrderTimeoutMillis) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.outOfOrderTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(outOfOrderTimeoutMillis);
+    }
+
+    @Override
+    public void lock(Collection<Long> groupIds) {
+        HeldStripes held = heldStripes();
+        BitSet wanted = new BitSet(stripes.length);
+        for (Long groupId : groupIds) {
+            int stripe = stripeOf(groupId);
+            if (!held.stripes.get(stripe)) {
+                wanted.set(stripe);
+            }
+        }
+        for (int stripe = wanted.nextSetBit(0); stripe >= 0; stripe = wanted.nextSetBit(stripe + 1)) {
+            if (stripe > held.stripes.length() - 1) {
+                stripes[stripe].lock();
+            } else {
+                tryLock(stripe);
+            }
+            held.stripes.set(stripe);
+        }
+    }
+
+    int stripeOf(Long groupId) {
+        int hash = Long.hashCode(groupId);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void tryLock(int stripe) {
+        try {
+            if (stripes[stripe].tryLock(outOfOrderTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        throw new CannotAcquireLockException("Timed out waiting for the ledger lock of a group");
+    }
+
+    private HeldStripes heldStripes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Group locks can only be taken inside a transaction");
+        }
+        HeldStripes held = (HeldStripes) TransactionSynchronizationManager.getResource(this);
+        if (held == null) {
+            held = new HeldStripes();
+            TransactionSynchronizationManager.bindResource(this, held);
+            TransactionSynchronizationManager.registerSynchronization(held);
+        }
+        return held;
+    }
+
+    /**
+     * Stripes held by one transaction, released when it completes.
+     */
+    private final class HeldStripes implements TransactionSynchronization {
+
+        private final BitSet stripes = new BitSet();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(StripedGroupLocks.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(StripedGroupLocks.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StripedGroupLocks.this);
+            for (int stripe = stripes.nextSetBit(0); stripe >= 0; stripe = stripes.nextSetBit(stripe + 1)) {
+                StripedGroupLocks.this.stripes[stripe].unlock();
+            }
+        }
+    }
+}
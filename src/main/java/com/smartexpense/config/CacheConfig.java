@@ -0,0 +1,13 @@
+package com.smartexpense.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on Spring Boot's cache auto-configuration, which builds the Caffeine
+ * caches named in {@code spring.cache.cache-names} and binds their metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
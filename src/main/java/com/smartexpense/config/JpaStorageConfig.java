@@ -0,0 +1,18 @@
+package com.smartexpense.config;
+
+import com.smartexpense.repository.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Backs the repositories with Spring Data JPA unless another storage backend
+ * is selected with {@code smartexpense.storage}. Boot's own repository
+ * scanning is switched off so the {@link StoreStorageConfig} repositories can
+ * take their place.
+ */
+@Configuration
+@ConditionalOnProperty(name = "smartexpense.storage", havingValue = "jpa", matchIfMissing = true)
+@EnableJpaRepositories(basePackageClasses = UserRepository.class)
+public class JpaStorageConfig {
+}
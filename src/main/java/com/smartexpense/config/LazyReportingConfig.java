@@ -0,0 +1,38 @@
+package com.smartexpense.config;
+
+import com.smartexpense.controller.ReportController;
+import com.smartexpense.service.ReportService;
+import com.smartexpense.service.SettlementPlanPipeline;
+import com.smartexpense.settlement.SettlementPlanner;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Creates the reporting beans on first use rather than at startup, so a fresh
+ * instance serves its first user and expense requests sooner. Only these beans
+ * are deferred: the write path and the scheduled ledger audit stay eager, so
+ * misconfiguration there still fails at startup. The settlement plan pipeline
+ * is created by the first report or ledger change, whichever comes first.
+ */
+@Configuration
+@ConditionalOnProperty(name = "smartexpense.startup.lazy-reporting", havingValue = "true")
+public class LazyReportingConfig {
+
+    private static final List<Class<?>> LAZY_TYPES = List.of(
+            ReportController.class, ReportService.class, SettlementPlanPipeline.class, SettlementPlanner.class);
+
+    @Bean
+    static BeanFactoryPostProcessor lazyReportingBeans() {
+        return beanFactory -> {
+            for (Class<?> type : LAZY_TYPES) {
+                for (String name : beanFactory.getBeanNamesForType(type, true, false)) {
+                    beanFactory.getBeanDefinition(name).setLazyInit(true);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.smartexpense.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs {@code @Scheduled} jobs, such as the nightly ledger audit. A job whose
+ * cron expression is set to {@code -} is not scheduled.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,79 @@
+package com.smartexpense.config;
+
+import com.smartexpense.concurrency.GroupLocks;
+import com.smartexpense.repository.ExpenseRepository;
+import com.smartexpense.repository.GroupLedgerRepository;
+import com.smartexpense.repository.GroupRepository;
+import com.smartexpense.repository.RecurringExpenseRepository;
+import com.smartexpense.repository.SettlementRepository;
+import com.smartexpense.repository.SpendingRollupRepository;
+import com.smartexpense.repository.TombstoneRepository;
+import com.smartexpense.repository.UserRepository;
+import com.smartexpense.store.Store;
+import com.smartexpense.store.StoreExpenseRepository;
+import com.smartexpense.store.StoreGroupLedgerRepository;
+import com.smartexpense.store.StoreGroupLocks;
+import com.smartexpense.store.StoreGroupRepository;
+import com.smartexpense.store.StoreRecurringExpenseRepository;
+import com.smartexpense.store.StoreSettlementRepository;
+import com.smartexpense.store.StoreSpendingRollupRepository;
+import com.smartexpense.store.StoreTombstoneRepository;
+import com.smartexpense.store.StoreUserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Backs the repositories with the {@link Store} of the selected backend when
+ * {@code smartexpense.storage} is {@code eventlog} or {@code memory}. Both
+ * stores serialize write transactions themselves, so group locks are no-ops.
+ */
+@Configuration
+@ConditionalOnExpression("'${smartexpense.storage:jpa}' == 'eventlog' or '${smartexpense.storage:jpa}' == 'memory'")
+public class StoreStorageConfig {
+
+    @Bean
+    public UserRepository userRepository(Store store) {
+        return new StoreUserRepository(store);
+    }
+
+    @Bean
+    public GroupRepository groupRepository(Store store) {
+        return new StoreGroupRepository(store);
+    }
+
+    @Bean
+    public ExpenseRepository expenseRepository(Store store) {
+        return new StoreExpenseRepository(store);
+    }
+
+    @Bean
+    public SettlementRepository settlementRepository(Store store) {
+        return new StoreSettlementRepository(store);
+    }
+
+    @Bean
+    public GroupLedgerRepository groupLedgerRepository(Store store) {
+        return new StoreGroupLedgerRepository(store);
+    }
+
+    @Bean
+    public TombstoneRepository tombstoneRepository(Store store) {
+        return new StoreTombstoneRepository(store);
+    }
+
+    @Bean
+    public SpendingRollupRepository spendingRollupRepository(Store store) {
+        return new StoreSpendingRollupRepository(store);
+    }
+
+    @Bean
+    public RecurringExpenseRepository recurringExpenseRepository(Store store) {
+        return new StoreRecurringExpenseRepository(store);
+    }
+
+    @Bean
+    public GroupLocks groupLocks() {
+        return new StoreGroupLocks();
+    }
+}
@@ -0,0 +1,42 @@
+package com.smartexpense.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs which request execution mode is active. Spring Boot silently falls
+ * back to platform threads when {@code spring.threads.virtual.enabled} is set
+ * on a JVM older than 21, which is easy to miss in a deployment.
+ */
+@Component
+public class ThreadingModeReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeReporter.class);
+
+    private final Environment environment;
+
+    public ThreadingModeReporter(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode() {
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        int javaVersion = Runtime.version().feature();
+        String poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", "default");
+        if (requested && javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled is set but the JVM is Java {}; "
+                    + "requests run on the Tomcat platform thread pool. Build and run with -Pjava21 on Java 21+.",
+                    javaVersion);
+        } else if (requested) {
+            log.info("Requests run on virtual threads; database concurrency is bounded by the "
+                    + "connection pool (maximum-pool-size={})", poolSize);
+        } else {
+            log.info("Requests run on the Tomcat platform thread pool");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.smartexpense.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of every resource, negotiated per request: clients that
+ * send {@code Accept: application/cbor} or {@code application/x-jackson-smile},
+ * and the matching Content-Type on bodies, get the same documents as in JSON
+ * in a more compact form that is cheaper to parse. JSON stays the default.
+ * <p>
+ * Spring MVC would register both converters on its own, but with a mapper
+ * that misses Boot's Jackson settings; building them from Boot's
+ * {@link Jackson2ObjectMapperBuilder} keeps field names, dates and modules
+ * identical across formats.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,197 @@
+package com.smartexpense.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.smartexpense.config.MetricsConfig;
+import com.smartexpense.exception.BadRequestException;
+import com.smartexpense.model.BatchResult;
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseCursor;
+import com.smartexpense.model.ExpenseFilter;
+import com.smartexpense.model.ExpensePage;
+import com.smartexpense.model.ExpenseSummary;
+import com.smartexpense.model.ExpenseSummaryPage;
+import com.smartexpense.service.ExpenseService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+
+@RestController
+@Timed(MetricsConfig.CONTROLLER_TIMER)
+@RequestMapping("/expenses")
+public class ExpenseController {
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final ExpenseService expenseService;
+    private final ObjectMapper objectMapper;
+
+    public ExpenseController(ExpenseService expenseService, ObjectMapper objectMapper) {
+        this.expenseService = expenseService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping
+    public ResponseEntity<Expense> addExpense(@Valid @RequestBody Expense expense) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(expenseService.addExpense(expense));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchResult> addExpensesBatch(@RequestBody List<Expense> expenses) {
+        return ResponseEntity.ok(expenseService.addExpenses(expenses.iterator()));
+    }
+
+    /**
+     * NDJSON variant of the batch endpoint: one expense per line, parsed lazily
+     * while the batch is being persisted.
+     */
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON)
+    public ResponseEntity<BatchResult> addExpensesBatchStream(InputStream body) throws IOException {
+        try (MappingIterator<Expense> lines = objectMapper.readerFor(Expense.class).readValues(body)) {
+            return ResponseEntity.ok(expenseService.addExpenses(new NdjsonIterator(lines)));
+        }
+    }
+
+    /**
+     * Lists a group's expenses in {@code (date, id)} order, each with its
+     * shares. Without {@code limit} the full history is returned; with it, one
+     * keyset page is returned and the cursor for the next page, if any, is sent
+     * in the {@code X-Next-Cursor} header.
+     */
+    @GetMapping("/group/{groupId}")
+    public ResponseEntity<List<Expense>> listExpensesByGroup(@PathVariable Long groupId,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) String cursor) {
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(expenseService.listExpensesByGroup(groupId));
+        }
+        ExpensePage page = expenseService.listExpensesByGroup(groupId, limit != null ? limit : 100, cursor);
+        return withNextCursor(page.nextCursor()).body(page.items());
+    }
+
+    /**
+     * Lists a group's expenses as {@link ExpenseSummary} rows without their
+     * shares, in {@code (date, id)} order and paged like
+     * {@link #listExpensesByGroup}. Any of {@code from}, {@code to},
+     * {@code paidBy}, {@code minAmount} and {@code maxAmount} narrows the list to
+     * matching expenses; amount bounds are in the group's base currency.
+     */
+    @GetMapping("/group/{groupId}/summaries")
+    public ResponseEntity<List<ExpenseSummary>> listExpenseSummariesByGroup(@PathVariable Long groupId,
+                                                                            @RequestParam(required = false) Integer limit,
+                                                                            @RequestParam(required = false) String cursor,
+                                                                            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+                                                                            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+                                                                            @RequestParam(required = false) Long paidBy,
+                                                                            @RequestParam(required = false) Double minAmount,
+                                                                            @RequestParam(required = false) Double maxAmount) {
+        ExpenseFilter filter = new ExpenseFilter(from, to, paidBy, minAmount, maxAmount);
+        ExpenseSummaryPage page = expenseService.listExpenseSummaries(groupId, filter, limit, cursor);
+        return withNextCursor(page.nextCursor()).body(page.items());
+    }
+
+    /**
+     * Streams a group's expenses as NDJSON, one line per expense, optionally
+     * resuming after {@code cursor}. Rows are written as they are read, so the
+     * server holds at most one expense in memory regardless of group size.
+     */
+    @GetMapping(value = "/group/{groupId}", produces = APPLICATION_NDJSON)
+    public void streamExpensesByGroup(@PathVariable Long groupId, @RequestParam(required = false) String cursor,
+                                      HttpServletResponse response) throws IOException {
+        ExpenseCursor after = cursor != null ? ExpenseCursor.decode(cursor) : null;
+        response.setContentType(APPLICATION_NDJSON);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            expenseService.streamExpensesByGroup(groupId, after, expense -> {
+                try {
+                    writer.writeValue(generator, expense);
+                    generator.writeRaw('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Expense> getExpenseById(@PathVariable Long id) {
+        return ResponseEntity.ok(expenseService.getExpenseById(id));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Expense> updateExpense(@PathVariable Long id, @Valid @RequestBody Expense expense) {
+        return ResponseEntity.ok(expenseService.updateExpense(id, expense));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteExpense(@PathVariable Long id) {
+        expenseService.deleteExpense(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity.BodyBuilder withNextCursor(String nextCursor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response;
+    }
+
+    /**
+     * Surfaces a malformed NDJSON line as a bad request for the whole batch.
+     */
+    private static final class NdjsonIterator implements Iterator<Expense> {
+
+        private final MappingIterator<Expense> lines;
+        private int line;
+
+        private NdjsonIterator(MappingIterator<Expense> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return lines.hasNextValue();
+            } catch (IOException ex) {
+                throw new BadRequestException("Malformed NDJSON after line " + line);
+            }
+        }
+
+        @Override
+        public Expense next() {
+            try {
+                line++;
+                return lines.nextValue();
+            } catch (IOException ex) {
+                throw new BadRequestException("Malformed NDJSON at line " + line);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.smartexpense.controller;
+
+import com.smartexpense.config.MetricsConfig;
+import com.smartexpense.model.FxRateStatus;
+import com.smartexpense.service.FxRateService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Timed(MetricsConfig.CONTROLLER_TIMER)
+@RequestMapping("/admin/fx-rates")
+public class FxRateController {
+
+    private final FxRateService fxRateService;
+
+    public FxRateController(FxRateService fxRateService) {
+        this.fxRateService = fxRateService;
+    }
+
+    @GetMapping
+    public ResponseEntity<FxRateStatus> getStatus() {
+        return ResponseEntity.ok(fxRateService.getStatus());
+    }
+
+    /**
+     * Loads the rates file again. Expenses and settlements already written
+     * keep the rate they were converted at.
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<FxRateStatus> reload() {
+        return ResponseEntity.ok(fxRateService.reload());
+    }
+}
@@ -0,0 +1,112 @@
+package com.smartexpense.controller;
+
+import com.smartexpense.config.MetricsConfig;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.GroupChanges;
+import com.smartexpense.model.MessageResponse;
+import com.smartexpense.service.BalanceStreamService;
+import com.smartexpense.service.GroupService;
+import com.smartexpense.service.GroupSyncService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@Timed(MetricsConfig.CONTROLLER_TIMER)
+@RequestMapping("/groups")
+public class GroupController {
+
+    private final GroupService groupService;
+    private final GroupSyncService groupSyncService;
+    private final BalanceStreamService balanceStreamService;
+
+    public GroupController(GroupService groupService, GroupSyncService groupSyncService,
+                           BalanceStreamService balanceStreamService) {
+        this.groupService = groupService;
+        this.groupSyncService = groupSyncService;
+        this.balanceStreamService = balanceStreamService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Group> createGroup(@Valid @RequestBody Group group) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(groupService.createGroup(group));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Group>> listGroups() {
+        return ResponseEntity.ok(groupService.listGroups());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Group> getGroupById(@PathVariable Long id) {
+        return ResponseEntity.ok(groupService.getGroupById(id));
+    }
+
+    /**
+     * Changes to the group after version {@code since}; pass the returned
+     * version on the next call. Omitting it returns the whole group.
+     */
+    @GetMapping("/{groupId}/changes")
+    public ResponseEntity<GroupChanges> getChanges(@PathVariable Long groupId,
+                                                   @RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(groupSyncService.getChanges(groupId, since));
+    }
+
+    /**
+     * Server-sent events with the group's balances: a {@code snapshot} of
+     * every member, then the rows changed by each committed write, in place
+     * of polling the balance report.
+     */
+    @GetMapping(path = "/{groupId}/balances/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBalances(@PathVariable Long groupId) {
+        return balanceStreamService.subscribe(groupId);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteGroup(@PathVariable Long id) {
+        groupService.deleteGroup(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{groupId}/members/{userId}")
+    public ResponseEntity<MessageResponse> addMember(@PathVariable Long groupId, @PathVariable Long userId) {
+        groupService.addMember(groupId, userId);
+        return ResponseEntity.ok(new MessageResponse("Member added successfully"));
+    }
+
+    /**
+     * Adds a JSON array of user ids to the group in one transaction. Users who
+     * are already members are left as they are.
+     */
+    @PostMapping("/{groupId}/members")
+    public ResponseEntity<MessageResponse> addMembers(@PathVariable Long groupId, @RequestBody List<Long> userIds) {
+        groupService.addMembers(groupId, userIds);
+        return ResponseEntity.ok(new MessageResponse("Members added successfully"));
+    }
+
+    @DeleteMapping("/{groupId}/members")
+    public ResponseEntity<MessageResponse> removeMembers(@PathVariable Long groupId,
+                                                         @RequestBody List<Long> userIds) {
+        groupService.removeMembers(groupId, userIds);
+        return ResponseEntity.ok(new MessageResponse("Members removed successfully"));
+    }
+
+    @DeleteMapping("/{groupId}/members/{userId}")
+    public ResponseEntity<MessageResponse> removeMember(@PathVariable Long groupId, @PathVariable Long userId) {
+        groupService.removeMember(groupId, userId);
+        return ResponseEntity.ok(new MessageResponse("Member removed successfully"));
+    }
+}
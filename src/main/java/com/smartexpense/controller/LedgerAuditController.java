@@ -0,0 +1,42 @@
+package com.smartexpense.controller;
+
+import com.smartexpense.config.MetricsConfig;
+import com.smartexpense.model.LedgerAuditStatus;
+import com.smartexpense.service.LedgerAuditJob;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Timed(MetricsConfig.CONTROLLER_TIMER)
+@RequestMapping("/admin/ledger-audit")
+public class LedgerAuditController {
+
+    private final LedgerAuditJob ledgerAuditJob;
+
+    public LedgerAuditController(LedgerAuditJob ledgerAuditJob) {
+        this.ledgerAuditJob = ledgerAuditJob;
+    }
+
+    /**
+     * Starts an audit of every group ledger, repairing drift when
+     * {@code repair} is set. Answers 202 with the new run's progress, or 409
+     * with the progress of the run already in progress.
+     */
+    @PostMapping
+    public ResponseEntity<LedgerAuditStatus> startAudit(@RequestParam(defaultValue = "false") boolean repair) {
+        boolean started = ledgerAuditJob.start(repair);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(ledgerAuditJob.getStatus());
+    }
+
+    @GetMapping
+    public ResponseEntity<LedgerAuditStatus> getAuditStatus() {
+        return ResponseEntity.ok(ledgerAuditJob.getStatus());
+    }
+}
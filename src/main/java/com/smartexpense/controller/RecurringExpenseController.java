@@ -0,0 +1,64 @@
+package com.smartexpense.controller;
+
+import com.smartexpense.config.MetricsConfig;
+import com.smartexpense.model.RecurringExpense;
+import com.smartexpense.model.RecurringRunResult;
+import com.smartexpense.service.RecurringExpenseService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@Timed(MetricsConfig.CONTROLLER_TIMER)
+@RequestMapping("/recurring-expenses")
+public class RecurringExpenseController {
+
+    private final RecurringExpenseService recurringExpenseService;
+
+    public RecurringExpenseController(RecurringExpenseService recurringExpenseService) {
+        this.recurringExpenseService = recurringExpenseService;
+    }
+
+    @PostMapping
+    public ResponseEntity<RecurringExpense> createTemplate(@Valid @RequestBody RecurringExpense template) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(recurringExpenseService.createTemplate(template));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RecurringExpense> getTemplate(@PathVariable Long id) {
+        return ResponseEntity.ok(recurringExpenseService.getTemplate(id));
+    }
+
+    @GetMapping("/group/{groupId}")
+    public ResponseEntity<List<RecurringExpense>> listTemplatesByGroup(@PathVariable Long groupId) {
+        return ResponseEntity.ok(recurringExpenseService.listTemplatesByGroup(groupId));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTemplate(@PathVariable Long id) {
+        recurringExpenseService.deleteTemplate(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Materializes the occurrences due today without waiting for the
+     * schedule. Answers 409 while another run is in progress.
+     */
+    @PostMapping("/run")
+    public ResponseEntity<RecurringRunResult> runDue() {
+        return recurringExpenseService.runDue(LocalDate.now())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+}
@@ -0,0 +1,80 @@
+package com.smartexpense.controller;
+
+import com.smartexpense.config.MetricsConfig;
+import com.smartexpense.exception.BadRequestException;
+import com.smartexpense.model.MemberBalance;
+import com.smartexpense.model.SettlementPlan;
+import com.smartexpense.model.SpendingGranularity;
+import com.smartexpense.model.SpendingReport;
+import com.smartexpense.model.StoredSettlementPlan;
+import com.smartexpense.model.UserBalanceSummary;
+import com.smartexpense.service.ReportService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@Timed(MetricsConfig.CONTROLLER_TIMER)
+@RequestMapping("/reports")
+public class ReportController {
+
+    private final ReportService reportService;
+
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    @GetMapping("/groups/{groupId}/balances")
+    public ResponseEntity<List<MemberBalance>> getGroupBalances(@PathVariable Long groupId) {
+        return ResponseEntity.ok(reportService.getGroupBalances(groupId));
+    }
+
+    /**
+     * Serves the group's stored plan with its ETag; a request whose
+     * {@code If-None-Match} carries the current tag gets 304 Not Modified.
+     */
+    @GetMapping("/groups/{groupId}/settlement-plan")
+    public ResponseEntity<SettlementPlan> getSettlementPlan(@PathVariable Long groupId) {
+        StoredSettlementPlan stored = reportService.getSettlementPlan(groupId);
+        return ResponseEntity.ok()
+                .eTag(stored.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(stored.plan());
+    }
+
+    /**
+     * Spending per {@code day}, {@code week} (from Monday) or {@code month},
+     * optionally limited to the buckets between {@code from} and {@code to}.
+     */
+    @GetMapping("/groups/{groupId}/spending")
+    public ResponseEntity<SpendingReport> getSpending(
+            @PathVariable Long groupId,
+            @RequestParam(defaultValue = "month") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.getSpending(groupId, parseGranularity(granularity), from, to));
+    }
+
+    @GetMapping("/users/{userId}/summary")
+    public ResponseEntity<UserBalanceSummary> getUserSummary(@PathVariable Long userId) {
+        return ResponseEntity.ok(reportService.getUserSummary(userId));
+    }
+
+    private static SpendingGranularity parseGranularity(String value) {
+        try {
+            return SpendingGranularity.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unsupported granularity: " + value);
+        }
+    }
+}
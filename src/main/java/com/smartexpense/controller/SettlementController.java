@@ -0,0 +1,60 @@
+package com.smartexpense.controller;
+
+import com.smartexpense.config.MetricsConfig;
+import com.smartexpense.model.Settlement;
+import com.smartexpense.service.SettlementService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@Timed(MetricsConfig.CONTROLLER_TIMER)
+@RequestMapping("/settlements")
+public class SettlementController {
+
+    private final SettlementService settlementService;
+
+    public SettlementController(SettlementService settlementService) {
+        this.settlementService = settlementService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Settlement> addSettlement(@Valid @RequestBody Settlement settlement) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(settlementService.addSettlement(settlement));
+    }
+
+    @GetMapping("/group/{groupId}")
+    public ResponseEntity<List<Settlement>> listSettlementsByGroup(@PathVariable Long groupId,
+                                                                   @RequestParam(required = false) Long fromUserId,
+                                                                   @RequestParam(required = false) Long toUserId) {
+        return ResponseEntity.ok(settlementService.listSettlementsByGroup(groupId, fromUserId, toUserId));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Settlement> getSettlementById(@PathVariable Long id) {
+        return ResponseEntity.ok(settlementService.getSettlementById(id));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Settlement> updateSettlement(@PathVariable Long id, @Valid @RequestBody Settlement settlement) {
+        return ResponseEntity.ok(settlementService.updateSettlement(id, settlement));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSettlement(@PathVariable Long id) {
+        settlementService.deleteSettlement(id);
+        return ResponseEntity.noContent().build();
+    }
+}
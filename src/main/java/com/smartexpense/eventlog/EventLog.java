@@ -0,0 +1,189 @@
+package com.smartexpense.eventlog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped file of length-prefixed records.
+ * <p>
+ * Each record is laid out as {@code [int length][int crc32c][body]}. Appends go
+ * to a mapped window that is remapped further along the file once it fills
+ * up, so a write is a memory copy and the kernel does the I/O. A record whose
+ * length is zero or whose checksum does not match marks the end of the log;
+ * the file is truncated there on open, discarding a torn final write.
+ * <p>
+ * {@link #force()} covers every record appended since the previous force,
+ * including records written through a window that has since been replaced.
+ * <p>
+ * Not thread-safe: the owning store serializes appends.
+ */
+final class EventLog implements Closeable {
+
+    static final int HEADER_BYTES = 8;
+
+    static final int WINDOW_BYTES = 16 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final CRC32C crc = new CRC32C();
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long end;
+    private long forcedEnd;
+
+    private EventLog(FileChannel channel, long end) {
+        this.channel = channel;
+        this.end = end;
+        this.forcedEnd = end;
+    }
+
+    /**
+     * Opens or creates the log and positions it after the last intact record.
+     */
+    static EventLog open(Path file) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long end = scanEnd(channel);
+            channel.truncate(end);
+            return new EventLog(channel, end);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open event log " + file, ex);
+        }
+    }
+
+    /**
+     * Appends one record and returns the file offset just past it.
+     */
+    long append(ByteBuffer body) {
+        int length = body.remaining();
+        int size = HEADER_BYTES + length;
+        if (window == null || window.remaining() < size) {
+            remap(size);
+        }
+        crc.reset();
+        crc.update(body.duplicate());
+        window.putInt(length);
+        window.putInt((int) crc.getValue());
+        window.put(body);
+        end += size;
+        return end;
+    }
+
+    long end() {
+        return end;
+    }
+
+    /**
+     * Drops every record after {@code offset}. Only valid before the first
+     * append, to discard the records of a transaction that never committed.
+     */
+    void truncate(long offset) {
+        try {
+            channel.truncate(offset);
+            end = offset;
+            forcedEnd = Math.min(forcedEnd, offset);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot truncate event log", ex);
+        }
+    }
+
+    /**
+     * Forces appended records to the storage device. When a remap happened
+     * since the last force, part of those records live in a window that is no
+     * longer mapped here, so the file itself is forced as well.
+     */
+    void force() {
+        if (window == null || forcedEnd == end) {
+            return;
+        }
+        try {
+            if (forcedEnd < windowStart) {
+                channel.force(false);
+            }
+            window.force();
+            forcedEnd = end;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot force event log", ex);
+        }
+    }
+
+    /**
+     * Hands the body of every record from {@code from} up to the end of the log
+     * to {@code visitor}, together with the offset just past the record.
+     */
+    void replay(long from, RecordVisitor visitor) {
+        try {
+            long position = from;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (position + HEADER_BYTES <= end) {
+                header.clear();
+                channel.read(header, position);
+                header.flip();
+                int length = header.getInt();
+                ByteBuffer body = ByteBuffer.allocate(length);
+                channel.read(body, position + HEADER_BYTES);
+                body.flip();
+                position += HEADER_BYTES + length;
+                visitor.visit(body, position);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read event log", ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        window = null;
+        channel.truncate(end);
+        channel.close();
+    }
+
+    private void remap(int size) {
+        try {
+            windowStart = end;
+            window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, Math.max(WINDOW_BYTES, size));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot map event log", ex);
+        }
+    }
+
+    private static long scanEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        CRC32C crc = new CRC32C();
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            channel.read(body, position + HEADER_BYTES);
+            body.flip();
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(ByteBuffer body, long endOffset);
+    }
+}
@@ -0,0 +1,716 @@
+package com.smartexpense.eventlog;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.RecurringExpense;
+import com.smartexpense.model.Settlement;
+import com.smartexpense.model.SpendingRollup;
+import com.smartexpense.model.Tombstone;
+import com.smartexpense.model.User;
+import com.smartexpense.store.Store;
+import com.smartexpense.store.StoreTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Storage backend, selected with {@code smartexpense.storage=eventlog}, that
+ * keeps every row in memory and persists each committed change as a record in
+ * an append-only {@link EventLog}.
+ * <p>
+ * Rows are held in their serialized form, which is also the record payload,
+ * so every read decodes a private copy and callers may mutate what they get
+ * back. Writes made inside a Spring transaction are buffered and, on commit,
+ * appended to the log followed by a commit marker before they become visible.
+ * Write transactions are serialized by a single lock taken on their first
+ * store access, which gives them the same isolation a row lock would. A
+ * commit is published under the write side of a read/write lock whose read
+ * side every committed read takes, so a reader sees either all or none of a
+ * transaction's writes.
+ * <p>
+ * Every {@code snapshot-interval} records the whole state is written to a
+ * snapshot in the background. On startup the latest snapshot is loaded and the
+ * log tail after it is replayed; records of a transaction without a commit
+ * marker are discarded. The log itself is never compacted and doubles as the
+ * audit trail of every change.
+ */
+@Component
+@ConditionalOnProperty(name = "smartexpense.storage", havingValue = "eventlog")
+public class EventLogStore implements Store, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLogStore.class);
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte COMMIT = 3;
+    private static final long NO_GROUP = Long.MIN_VALUE;
+    private static final int SNAPSHOT_MAGIC = 0x45564C53;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final Row TOMBSTONE = new Row(NO_GROUP, null);
+
+    private final ObjectMapper mapper = payloadMapper();
+    private final Map<Byte, Table<?>> tables = new LinkedHashMap<>();
+    private final Table<User> users = register(1, User.class, User::getId, User::setId, null, null);
+    private final Table<Group> groups = register(2, Group.class,
+            Group::getId, Group::setId, null, Group::getMemberIds);
+    private final Table<Expense> expenses = register(3, Expense.class,
+            Expense::getId, Expense::setId, Expense::getGroupId, null);
+    private final Table<Settlement> settlements = register(4, Settlement.class,
+            Settlement::getId, Settlement::setId, Settlement::getGroupId, null);
+    private final Table<GroupLedger> ledgers = register(5, GroupLedger.class,
+            GroupLedger::getGroupId, null, null, ledger -> ledger.getBalances().keySet());
+    private final Table<Tombstone> tombstones = register(6, Tombstone.class,
+            Tombstone::getId, Tombstone::setId, Tombstone::getGroupId, null);
+    private final Table<SpendingRollup> spendingRollups = register(7, SpendingRollup.class,
+            SpendingRollup::getId, SpendingRollup::setId, SpendingRollup::getGroupId, null);
+    private final Table<RecurringExpense> recurringExpenses = register(8, RecurringExpense.class,
+            RecurringExpense::getId, RecurringExpense::setId, RecurringExpense::getGroupId, null);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantReadWriteLock publishLock = new ReentrantReadWriteLock();
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "eventlog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Path snapshotFile;
+    private final boolean fsync;
+    private final int snapshotInterval;
+    private final EventLog eventLog;
+    private int sinceSnapshot;
+
+    public EventLogStore(@Value("${smartexpense.eventlog.directory:data/eventlog}") String directory,
+                         @Value("${smartexpense.eventlog.fsync:false}") boolean fsync,
+                         @Value("${smartexpense.eventlog.snapshot-interval:10000}") int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("smartexpense.eventlog.snapshot-interval must be positive");
+        }
+        Path root = Path.of(directory);
+        try {
+            Files.createDirectories(root);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create event log directory " + root, ex);
+        }
+        this.snapshotFile = root.resolve("snapshot.bin");
+        this.fsync = fsync;
+        this.snapshotInterval = snapshotInterval;
+        long start = System.nanoTime();
+        long offset = loadSnapshot();
+        this.eventLog = EventLog.open(root.resolve("events.log"));
+        int replayed = replay(offset);
+        log.info("Event log store opened from {} in {} ms ({} records replayed after snapshot)",
+                root.toAbsolutePath(), (System.nanoTime() - start) / 1_000_000, replayed);
+    }
+
+    @Override
+    public Table<User> users() {
+        return users;
+    }
+
+    @Override
+    public Table<Group> groups() {
+        return groups;
+    }
+
+    @Override
+    public Table<Expense> expenses() {
+        return expenses;
+    }
+
+    @Override
+    public Table<Settlement> settlements() {
+        return settlements;
+    }
+
+    @Override
+    public Table<GroupLedger> ledgers() {
+        return ledgers;
+    }
+
+    @Override
+    public Table<Tombstone> tombstones() {
+        return tombstones;
+    }
+
+    @Override
+    public Table<SpendingRollup> spendingRollups() {
+        return spendingRollups;
+    }
+
+    @Override
+    public Table<RecurringExpense> recurringExpenses() {
+        return recurringExpenses;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        snapshotWriter.shutdown();
+        snapshotWriter.awaitTermination(30, TimeUnit.SECONDS);
+        writeLock.lock();
+        try {
+            if (sinceSnapshot > 0) {
+                writeSnapshot(capture());
+            }
+            eventLog.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * One entity type: committed rows by id, plus an index from group id to
+     * row ids for types that belong to a group and an index from user id to
+     * row ids for types that list members.
+     * <p>
+     * Committed rows are collected under the publish lock's read side and
+     * decoded after it is released; rows are immutable, so the decoded copies
+     * still belong to one committed state.
+     */
+    public final class Table<T> implements StoreTable<T> {
+
+        private final byte code;
+        private final Class<T> type;
+        private final Function<T, Long> idOf;
+        private final BiConsumer<T, Long> assignId;
+        private final Function<T, Long> groupOf;
+        private final Function<T, Collection<Long>> membersOf;
+        private final ConcurrentSkipListMap<Long, Row> rows = new ConcurrentSkipListMap<>();
+        private final Map<Long, Set<Long>> byGroup = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Long>> byMember = new ConcurrentHashMap<>();
+        private final AtomicLong sequence = new AtomicLong();
+
+        private Table(byte code, Class<T> type, Function<T, Long> idOf, BiConsumer<T, Long> assignId,
+                      Function<T, Long> groupOf, Function<T, Collection<Long>> membersOf) {
+            this.code = code;
+            this.type = type;
+            this.idOf = idOf;
+            this.assignId = assignId;
+            this.groupOf = groupOf;
+            this.membersOf = membersOf;
+        }
+
+        @Override
+        public Optional<T> find(Long id) {
+            Row row = null;
+            UnitOfWork work = currentWork();
+            if (work != null) {
+                row = work.get(code, id);
+            }
+            if (row == null) {
+                row = committed(() -> rows.get(id));
+            }
+            return row == null || row == TOMBSTONE ? Optional.empty() : Optional.of(decode(row));
+        }
+
+        @Override
+        public boolean exists(Long id) {
+            Row row = null;
+            UnitOfWork work = currentWork();
+            if (work != null) {
+                row = work.get(code, id);
+            }
+            if (row == null) {
+                row = committed(() -> rows.get(id));
+            }
+            return row != null && row != TOMBSTONE;
+        }
+
+        @Override
+        public List<T> findAll() {
+            return decodeAll(committed(() -> visible(new TreeMap<>(rows))));
+        }
+
+        /**
+         * Rows whose group id equals {@code groupId}, in id order.
+         */
+        @Override
+        public List<T> findByGroup(Long groupId) {
+            NavigableMap<Long, Row> matches = committed(() -> indexed(byGroup, groupId));
+            UnitOfWork work = currentWork();
+            if (work != null) {
+                work.writes(code).forEach((id, row) -> {
+                    if (row != TOMBSTONE && row.group() == groupId) {
+                        matches.put(id, row);
+                    } else {
+                        matches.remove(id);
+                    }
+                });
+            }
+            return decodeAll(matches);
+        }
+
+        /**
+         * Rows that list {@code userId} as a member, in id order.
+         */
+        @Override
+        public List<T> findByMember(Long userId) {
+            NavigableMap<Long, T> matches = new TreeMap<>();
+            committed(() -> indexed(byMember, userId)).forEach((id, row) -> matches.put(id, decode(row)));
+            UnitOfWork work = currentWork();
+            if (work != null) {
+                work.writes(code).forEach((id, row) -> {
+                    T entity = row == TOMBSTONE ? null : decode(row);
+                    if (entity != null && membersOf.apply(entity).contains(userId)) {
+                        matches.put(id, entity);
+                    } else {
+                        matches.remove(id);
+                    }
+                });
+            }
+            return new ArrayList<>(matches.values());
+        }
+
+        @Override
+        public long count() {
+            UnitOfWork work = currentWork();
+            return committed(() -> work == null || work.writes(code).isEmpty() ? rows.size() : visible(rows).size());
+        }
+
+        /**
+         * Stores the entity, assigning the next id first when it has none.
+         */
+        @Override
+        public <S extends T> S save(S entity) {
+            Long id = idOf.apply(entity);
+            if (id == null) {
+                if (assignId == null) {
+                    throw new IllegalArgumentException(type.getSimpleName() + " requires an assigned id");
+                }
+                id = sequence.incrementAndGet();
+                assignId.accept(entity, id);
+            }
+            Long group = groupOf == null ? null : groupOf.apply(entity);
+            write(this, id, new Row(group == null ? NO_GROUP : group, encode(entity)));
+            return entity;
+        }
+
+        @Override
+        public void delete(Long id) {
+            write(this, id, TOMBSTONE);
+        }
+
+        @Override
+        public Long idOf(T entity) {
+            return idOf.apply(entity);
+        }
+
+        private NavigableMap<Long, Row> indexed(Map<Long, Set<Long>> index, Long key) {
+            NavigableMap<Long, Row> matches = new TreeMap<>();
+            for (Long id : index.getOrDefault(key, Collections.emptySet())) {
+                Row row = rows.get(id);
+                if (row != null) {
+                    matches.put(id, row);
+                }
+            }
+            return matches;
+        }
+
+        private NavigableMap<Long, Row> visible(NavigableMap<Long, Row> committed) {
+            UnitOfWork work = currentWork();
+            if (work == null || work.writes(code).isEmpty()) {
+                return committed;
+            }
+            NavigableMap<Long, Row> merged = new TreeMap<>(committed);
+            work.writes(code).forEach((id, row) -> {
+                if (row == TOMBSTONE) {
+                    merged.remove(id);
+                } else {
+                    merged.put(id, row);
+                }
+            });
+            return merged;
+        }
+
+        private List<T> decodeAll(Map<Long, Row> source) {
+            List<T> result = new ArrayList<>(source.size());
+            for (Row row : source.values()) {
+                result.add(decode(row));
+            }
+            return result;
+        }
+
+        private T decode(Row row) {
+            try {
+                return mapper.readValue(row.payload(), type);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Corrupt " + type.getSimpleName() + " row", ex);
+            }
+        }
+
+        /**
+         * Makes a write visible. Must be called with the publish lock's write
+         * side held, except while the store is being loaded.
+         */
+        private void apply(long id, Row row) {
+            Row previous = row == TOMBSTONE ? rows.remove(id) : rows.put(id, row);
+            if (previous != null && previous.group() != NO_GROUP
+                    && (row == TOMBSTONE || previous.group() != row.group())) {
+                Set<Long> ids = byGroup.get(previous.group());
+                if (ids != null) {
+                    ids.remove(id);
+                }
+            }
+            if (row != TOMBSTONE) {
+                if (row.group() != NO_GROUP) {
+                    byGroup.computeIfAbsent(row.group(), key -> new ConcurrentSkipListSet<>()).add(id);
+                }
+                sequence.accumulateAndGet(id, Math::max);
+            }
+            if (membersOf != null) {
+                indexMembers(id, previous, row);
+            }
+        }
+
+        private void indexMembers(long id, Row previous, Row row) {
+            Set<Long> before = previous == null ? Set.of() : new HashSet<>(membersOf.apply(decode(previous)));
+            Set<Long> after = row == TOMBSTONE ? Set.of() : new HashSet<>(membersOf.apply(decode(row)));
+            for (Long userId : before) {
+                if (!after.contains(userId)) {
+                    Set<Long> ids = byMember.get(userId);
+                    if (ids != null) {
+                        ids.remove(id);
+                    }
+                }
+            }
+            for (Long userId : after) {
+                if (!before.contains(userId)) {
+                    byMember.computeIfAbsent(userId, key -> new ConcurrentSkipListSet<>()).add(id);
+                }
+            }
+        }
+    }
+
+    private <T> Table<T> register(int code, Class<T> type, Function<T, Long> idOf, BiConsumer<T, Long> assignId,
+                                  Function<T, Long> groupOf, Function<T, Collection<Long>> membersOf) {
+        Table<T> table = new Table<>((byte) code, type, idOf, assignId, groupOf, membersOf);
+        tables.put(table.code, table);
+        return table;
+    }
+
+    private <R> R committed(Supplier<R> read) {
+        publishLock.readLock().lock();
+        try {
+            return read.get();
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    private byte[] encode(Object entity) {
+        try {
+            return mapper.writeValueAsBytes(entity);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot serialize " + entity.getClass().getSimpleName(), ex);
+        }
+    }
+
+    private void write(Table<?> table, long id, Row row) {
+        UnitOfWork work = currentWork();
+        if (work != null) {
+            work.put(table.code, id, row);
+            return;
+        }
+        UnitOfWork single = new UnitOfWork();
+        single.put(table.code, id, row);
+        writeLock.lock();
+        try {
+            commit(single);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * The unit of work of the current read-write transaction, started on first
+     * use. Reads outside such a transaction see committed rows only.
+     */
+    private UnitOfWork currentWork() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        UnitOfWork work = (UnitOfWork) TransactionSynchronizationManager.getResource(this);
+        if (work == null) {
+            writeLock.lock();
+            work = new UnitOfWork();
+            TransactionSynchronizationManager.bindResource(this, work);
+            TransactionSynchronizationManager.registerSynchronization(work);
+        }
+        return work;
+    }
+
+    /**
+     * Appends the buffered writes and a commit marker, then publishes them.
+     * Must be called with the write lock held.
+     */
+    private void commit(UnitOfWork work) {
+        if (work.size == 0) {
+            return;
+        }
+        work.writes.forEach((code, writes) -> writes.forEach((id, row) -> eventLog.append(record(code, id, row))));
+        eventLog.append(ByteBuffer.wrap(new byte[] {COMMIT}));
+        if (fsync) {
+            eventLog.force();
+        }
+        publishLock.writeLock().lock();
+        try {
+            work.writes.forEach((code, writes) -> {
+                Table<?> table = tables.get(code);
+                writes.forEach(table::apply);
+            });
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+        sinceSnapshot += work.size;
+        if (sinceSnapshot >= snapshotInterval) {
+            sinceSnapshot = 0;
+            Snapshot snapshot = capture();
+            snapshotWriter.execute(() -> writeSnapshot(snapshot));
+        }
+    }
+
+    private static ByteBuffer record(byte code, long id, Row row) {
+        byte[] payload = row == TOMBSTONE ? new byte[0] : row.payload();
+        ByteBuffer record = ByteBuffer.allocate(18 + payload.length);
+        record.put(row == TOMBSTONE ? DELETE : PUT).put(code).putLong(id).putLong(row.group()).put(payload);
+        return record.flip();
+    }
+
+    private int replay(long offset) {
+        long start = Math.min(offset, eventLog.end());
+        long[] lastCommit = {start};
+        int[] replayed = {0};
+        List<Runnable> pending = new ArrayList<>();
+        eventLog.replay(start, (body, end) -> {
+            byte op = body.get();
+            if (op == COMMIT) {
+                pending.forEach(Runnable::run);
+                replayed[0] += pending.size();
+                pending.clear();
+                lastCommit[0] = end;
+                return;
+            }
+            Table<?> table = tables.get(body.get());
+            long id = body.getLong();
+            long group = body.getLong();
+            byte[] payload = new byte[body.remaining()];
+            body.get(payload);
+            Row row = op == DELETE ? TOMBSTONE : new Row(group, payload);
+            pending.add(() -> table.apply(id, row));
+        });
+        if (!pending.isEmpty()) {
+            log.warn("Discarding {} event log records of a transaction that did not commit", pending.size());
+        }
+        if (lastCommit[0] < eventLog.end()) {
+            eventLog.truncate(lastCommit[0]);
+        }
+        return replayed[0];
+    }
+
+    private Snapshot capture() {
+        Map<Byte, NavigableMap<Long, Row>> rows = new LinkedHashMap<>();
+        Map<Byte, Long> sequences = new HashMap<>();
+        tables.forEach((code, table) -> {
+            rows.put(code, new TreeMap<>(table.rows));
+            sequences.put(code, table.sequence.get());
+        });
+        return new Snapshot(eventLog.end(), rows, sequences);
+    }
+
+    /**
+     * Writes {@code [magic][version][log offset][tables...][crc32c]} to a
+     * temporary file and atomically moves it over the previous snapshot.
+     */
+    private void writeSnapshot(Snapshot snapshot) {
+        Path temporary = snapshotFile.resolveSibling("snapshot.tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CheckedOutputStream checked = new CheckedOutputStream(Channels.newOutputStream(channel), new CRC32C());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(snapshot.logOffset());
+            out.writeInt(snapshot.rows().size());
+            for (Map.Entry<Byte, NavigableMap<Long, Row>> table : snapshot.rows().entrySet()) {
+                out.writeByte(table.getKey());
+                out.writeLong(snapshot.sequences().get(table.getKey()));
+                out.writeInt(table.getValue().size());
+                for (Map.Entry<Long, Row> row : table.getValue().entrySet()) {
+                    out.writeLong(row.getKey());
+                    out.writeLong(row.getValue().group());
+                    out.writeInt(row.getValue().payload().length);
+                    out.write(row.getValue().payload());
+                }
+            }
+            out.flush();
+            channel.write(ByteBuffer.allocate(4).putInt((int) checked.getChecksum().getValue()).flip());
+            channel.force(true);
+        } catch (IOException ex) {
+            log.error("Cannot write event log snapshot", ex);
+            return;
+        }
+        try {
+            Files.move(temporary, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            log.error("Cannot publish event log snapshot", ex);
+        }
+    }
+
+    /**
+     * Loads the latest snapshot, if any, and returns the log offset it covers.
+     * A damaged snapshot is ignored in favour of a full replay.
+     */
+    private long loadSnapshot() {
+        if (!Files.exists(snapshotFile)) {
+            return 0;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(snapshotFile);
+            CRC32C crc = new CRC32C();
+            crc.update(bytes, 0, Math.max(0, bytes.length - 4));
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (bytes.length < 24 || buffer.getInt(bytes.length - 4) != (int) crc.getValue()
+                    || buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring damaged snapshot {}; replaying the full event log", snapshotFile);
+                return 0;
+            }
+            long offset = buffer.getLong();
+            int tableCount = buffer.getInt();
+            for (int t = 0; t < tableCount; t++) {
+                Table<?> table = tables.get(buffer.get());
+                long sequence = buffer.getLong();
+                int count = buffer.getInt();
+                for (int i = 0; i < count; i++) {
+                    long id = buffer.getLong();
+                    long group = buffer.getLong();
+                    int length = buffer.getInt();
+                    int from = buffer.position();
+                    buffer.position(from + length);
+                    table.apply(id, new Row(group, Arrays.copyOfRange(bytes, from, from + length)));
+                }
+                table.sequence.accumulateAndGet(sequence, Math::max);
+            }
+            return offset;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read snapshot " + snapshotFile, ex);
+        }
+    }
+
+    /**
+     * Field-level mapping that ignores the REST annotations, so the stored form
+     * keeps internal state such as the owed amount of each share.
+     */
+    private static ObjectMapper payloadMapper() {
+        return JsonMapper.builder()
+                .disable(MapperFeature.USE_ANNOTATIONS)
+                .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addModule(new JavaTimeModule())
+                .build();
+    }
+
+    private record Row(long group, byte[] payload) {
+    }
+
+    private record Snapshot(long logOffset, Map<Byte, NavigableMap<Long, Row>> rows, Map<Byte, Long> sequences) {
+    }
+
+    /**
+     * Writes buffered by one transaction, keyed by table and id. Holds the
+     * store's write lock from first use until the transaction completes.
+     */
+    private final class UnitOfWork implements TransactionSynchronization {
+
+        private final Map<Byte, Map<Long, Row>> writes = new LinkedHashMap<>();
+        private int size;
+
+        Row get(byte code, Long id) {
+            Map<Long, Row> table = writes.get(code);
+            return table == null ? null : table.get(id);
+        }
+
+        Map<Long, Row> writes(byte code) {
+            return writes.getOrDefault(code, Collections.emptyMap());
+        }
+
+        void put(byte code, long id, Row row) {
+            if (writes.computeIfAbsent(code, key -> new LinkedHashMap<>()).put(id, row) == null) {
+                size++;
+            }
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(EventLogStore.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(EventLogStore.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            commit(this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EventLogStore.this);
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.smartexpense.exception;
+
+/**
+ * Thrown when a request is well formed but violates a business rule. Mapped to 400.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,58 @@
+package com.smartexpense.exception;
+
+import com.smartexpense.model.MessageResponse;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Translates service exceptions into HTTP responses with a {@link MessageResponse} body.
+ * <p>
+ * Error bodies are always JSON, even when the client asked for a streaming
+ * format such as NDJSON, so the status and message are never lost to content
+ * negotiation.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<MessageResponse> handleNotFound(ResourceNotFoundException ex) {
+        return error(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<MessageResponse> handleBadRequest(BadRequestException ex) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    /**
+     * A write that still conflicted with concurrent updates after its retries.
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<MessageResponse> handleConflict(ConcurrencyFailureException ex) {
+        return error(HttpStatus.CONFLICT, "The resource was modified concurrently, please retry");
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<MessageResponse> handleValidation(MethodArgumentNotValidException ex) {
+        FieldError error = ex.getBindingResult().getFieldError();
+        return error(HttpStatus.BAD_REQUEST, error != null ? error.getDefaultMessage() : "Validation failed");
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<MessageResponse> handleUnreadable(HttpMessageNotReadableException ex) {
+        return error(HttpStatus.BAD_REQUEST, "Malformed request body");
+    }
+
+    private static ResponseEntity<MessageResponse> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new MessageResponse(message));
+    }
+}
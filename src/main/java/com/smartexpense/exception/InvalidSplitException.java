@@ -0,0 +1,12 @@
+package com.smartexpense.exception;
+
+/**
+ * Thrown when the split type or shares of an expense do not form a valid
+ * split, for example when they cannot be reconciled with its amount.
+ */
+public class InvalidSplitException extends BadRequestException {
+
+    public InvalidSplitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.smartexpense.exception;
+
+/**
+ * Thrown when a requested resource does not exist. Mapped to 404.
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,197 @@
+package com.smartexpense.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartexpense.model.MessageResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+
+/**
+ * Makes POST /expenses and POST /settlements safe to retry. A request with an
+ * {@code Idempotency-Key} header is run once; its successful response is
+ * stored and any later request with the same key, path and body gets that
+ * response back, marked with {@code Idempotent-Replayed: true}, without being
+ * validated or persisted again.
+ * <p>
+ * The body is compared byte for byte through its SHA-256 digest. A request
+ * that reuses a key with a different body is rejected with 422 Unprocessable
+ * Entity rather than answered with the response to another payload.
+ * <p>
+ * Failed requests are not stored, so a client can correct the body and retry
+ * with the same key. A retry that arrives while the original is still running
+ * is rejected with 409 Conflict.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final Set<String> PATHS = Set.of("/expenses", "/settlements");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Counter replays;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.replays = Counter.builder("smartexpense.idempotency.replays")
+                .description("Requests answered from a stored response instead of being run again")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(KEY_HEADER) == null
+                || !PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            error(response, HttpStatus.BAD_REQUEST,
+                    KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            error(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Requests with an " + KEY_HEADER + " must not exceed " + MAX_BODY_BYTES + " bytes");
+            return;
+        }
+        byte[] digest = sha256(body);
+        String scopedKey = request.getRequestURI() + ' ' + key;
+
+        StoredResponse previous = store.claim(scopedKey, digest);
+        if (previous != null) {
+            if (!previous.matches(digest)) {
+                error(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "This " + KEY_HEADER + " was already used with a different request body");
+            } else if (previous.inProgress()) {
+                error(response, HttpStatus.CONFLICT, "A request with this " + KEY_HEADER + " is still in progress");
+            } else {
+                replay(previous, response);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper recorded = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(new BufferedBodyRequest(request, body), recorded);
+            if (HttpStatus.valueOf(recorded.getStatus()).is2xxSuccessful()) {
+                store.complete(scopedKey, new StoredResponse(digest, recorded.getStatus(),
+                        recorded.getContentType(), recorded.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(scopedKey);
+            }
+            recorded.copyBodyToResponse();
+        }
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        replays.increment();
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void error(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new MessageResponse(message));
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Serves the body the filter already read to digest it, so the rest of the
+     * chain can read it again.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Buffered request bodies are read synchronously");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
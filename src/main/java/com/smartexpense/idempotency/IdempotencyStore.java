@@ -0,0 +1,51 @@
+package com.smartexpense.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Responses of completed requests by idempotency key. The store is bounded in
+ * size and forgets a key a fixed time after its response was stored, so a
+ * client must retry within that window to be deduplicated.
+ * <p>
+ * A key is claimed before its first request runs, so a retry that arrives
+ * while the original is still in flight is told so instead of running twice.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final Cache<String, StoredResponse> responses;
+
+    public IdempotencyStore(@Value("${smartexpense.idempotency.max-keys:100000}") long maxKeys,
+                            @Value("${smartexpense.idempotency.ttl:24h}") Duration ttl) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Claims the key for a new request whose body has digest
+     * {@code requestDigest}. Returns null when the caller now owns the key, or
+     * what an earlier request with the key left: its stored response, or an
+     * {@link StoredResponse#inProgress() in-progress} placeholder.
+     */
+    StoredResponse claim(String key, byte[] requestDigest) {
+        return responses.asMap().putIfAbsent(key, StoredResponse.inProgress(requestDigest));
+    }
+
+    void complete(String key, StoredResponse response) {
+        responses.put(key, response);
+    }
+
+    /**
+     * Gives up a claim without storing a response, so the key can be retried.
+     */
+    void release(String key) {
+        responses.asMap().computeIfPresent(key, (claimed, entry) -> entry.inProgress() ? null : entry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.smartexpense.idempotency;
+
+import java.security.MessageDigest;
+
+/**
+ * The status, content type and body a request produced, kept so a retry of
+ * the same request can be answered with exactly the same response, together
+ * with the digest of the request body that produced it.
+ */
+record StoredResponse(byte[] requestDigest, int status, String contentType, byte[] body) {
+
+    /**
+     * Placeholder for a key whose first request, with the given body digest,
+     * has not finished yet.
+     */
+    static StoredResponse inProgress(byte[] requestDigest) {
+        return new StoredResponse(requestDigest, 0, null, new byte[0]);
+    }
+
+    boolean inProgress() {
+        return status == 0;
+    }
+
+    /**
+     * Whether a request with body digest {@code requestDigest} is a retry of
+     * the request this entry belongs to.
+     */
+    boolean matches(byte[] requestDigest) {
+        return MessageDigest.isEqual(this.requestDigest, requestDigest);
+    }
+}
@@ -0,0 +1,584 @@
+package com.smartexpense.memory;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseShare;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.RecurringExpense;
+import com.smartexpense.model.Settlement;
+import com.smartexpense.model.SpendingRollup;
+import com.smartexpense.model.Tombstone;
+import com.smartexpense.model.User;
+import com.smartexpense.store.Store;
+import com.smartexpense.store.StoreTable;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongAVLTreeSet;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSortedSet;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Storage backend, selected with {@code smartexpense.storage=memory}, that
+ * keeps every row on the heap and nothing on disk, for cache nodes and load
+ * tests where a restart may start empty.
+ * <p>
+ * Rows are kept in maps keyed by primitive {@code long} ids, and the rows of
+ * each group, such as its expenses, in a sorted array of ids, so lookups
+ * neither box keys nor go through entity proxies. Stored rows are private
+ * copies: callers get a copy of their own on every read, and a change is only
+ * stored when the entity is passed back to {@code save}.
+ * <p>
+ * Writes made inside a Spring transaction are buffered and published on
+ * commit, and dropped on rollback. Write transactions are serialized by a
+ * single lock taken on their first store access, as in the event log store;
+ * reads outside them see committed rows only.
+ */
+@Component
+@ConditionalOnProperty(name = "smartexpense.storage", havingValue = "memory")
+public class MemoryStore implements Store {
+
+    private static final Object DELETED = new Object();
+
+    private final Table<User> users = new Table<>("User", User::getId, User::setId,
+            null, null, MemoryStore::copy);
+    private final Table<Group> groups = new Table<>("Group", Group::getId, Group::setId,
+            null, Group::getMemberIds, MemoryStore::copy);
+    private final Table<Expense> expenses = new Table<>("Expense", Expense::getId, Expense::setId,
+            Expense::getGroupId, null, MemoryStore::copy);
+    private final Table<Settlement> settlements = new Table<>("Settlement", Settlement::getId, Settlement::setId,
+            Settlement::getGroupId, null, MemoryStore::copy);
+    private final Table<GroupLedger> ledgers = new Table<>("GroupLedger", GroupLedger::getGroupId, null,
+            null, ledger -> ledger.getBalances().keySet(), GroupLedger::new);
+    private final Table<Tombstone> tombstones = new Table<>("Tombstone", Tombstone::getId, Tombstone::setId,
+            Tombstone::getGroupId, null, MemoryStore::copy);
+    private final Table<SpendingRollup> spendingRollups = new Table<>("SpendingRollup",
+            SpendingRollup::getId, SpendingRollup::setId, SpendingRollup::getGroupId, null, SpendingRollup::new);
+    private final Table<RecurringExpense> recurringExpenses = new Table<>("RecurringExpense",
+            RecurringExpense::getId, RecurringExpense::setId, RecurringExpense::getGroupId, null, MemoryStore::copy);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantReadWriteLock publishLock = new ReentrantReadWriteLock();
+
+    @Override
+    public Table<User> users() {
+        return users;
+    }
+
+    @Override
+    public Table<Group> groups() {
+        return groups;
+    }
+
+    @Override
+    public Table<Expense> expenses() {
+        return expenses;
+    }
+
+    @Override
+    public Table<Settlement> settlements() {
+        return settlements;
+    }
+
+    @Override
+    public Table<GroupLedger> ledgers() {
+        return ledgers;
+    }
+
+    @Override
+    public Table<Tombstone> tombstones() {
+        return tombstones;
+    }
+
+    @Override
+    public Table<SpendingRollup> spendingRollups() {
+        return spendingRollups;
+    }
+
+    @Override
+    public Table<RecurringExpense> recurringExpenses() {
+        return recurringExpenses;
+    }
+
+    /**
+     * One entity type: committed rows by id, plus the sorted ids of each
+     * group's rows for types that belong to a group and of each user's rows
+     * for types that list members.
+     * <p>
+     * Only the write lock holder changes the maps, so it reads them without
+     * further locking; other readers take the publish lock's read side.
+     */
+    public final class Table<T> implements StoreTable<T> {
+
+        private final String name;
+        private final Function<T, Long> idOf;
+        private final BiConsumer<T, Long> assignId;
+        private final Function<T, Long> groupOf;
+        private final Function<T, Collection<Long>> membersOf;
+        private final UnaryOperator<T> copy;
+        private final Long2ObjectOpenHashMap<T> rows = new Long2ObjectOpenHashMap<>();
+        private final Long2ObjectOpenHashMap<LongArrayList> byGroup = new Long2ObjectOpenHashMap<>();
+        private final Long2ObjectOpenHashMap<LongArrayList> byMember = new Long2ObjectOpenHashMap<>();
+        private long sequence;
+
+        private Table(String name, Function<T, Long> idOf, BiConsumer<T, Long> assignId, Function<T, Long> groupOf,
+                      Function<T, Collection<Long>> membersOf, UnaryOperator<T> copy) {
+            this.name = name;
+            this.idOf = idOf;
+            this.assignId = assignId;
+            this.groupOf = groupOf;
+            this.membersOf = membersOf;
+            this.copy = copy;
+        }
+
+        @Override
+        public Optional<T> find(Long id) {
+            UnitOfWork work = currentWork();
+            if (work != null) {
+                Long2ObjectMap<Object> writes = work.writes(this);
+                Object row = writes.containsKey(id.longValue()) ? writes.get(id.longValue()) : rows.get(id.longValue());
+                return row == null || row == DELETED ? Optional.empty() : Optional.of(copy.apply(cast(row)));
+            }
+            publishLock.readLock().lock();
+            try {
+                T row = rows.get(id.longValue());
+                return row == null ? Optional.empty() : Optional.of(copy.apply(row));
+            } finally {
+                publishLock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean exists(Long id) {
+            UnitOfWork work = currentWork();
+            if (work != null) {
+                Long2ObjectMap<Object> writes = work.writes(this);
+                return writes.containsKey(id.longValue())
+                        ? writes.get(id.longValue()) != DELETED
+                        : rows.containsKey(id.longValue());
+            }
+            publishLock.readLock().lock();
+            try {
+                return rows.containsKey(id.longValue());
+            } finally {
+                publishLock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Every row, in id order.
+         */
+        @Override
+        public List<T> findAll() {
+            UnitOfWork work = currentWork();
+            if (work != null && !work.writes(this).isEmpty()) {
+                LongAVLTreeSet ids = new LongAVLTreeSet(rows.keySet());
+                work.writes(this).forEach((id, row) -> {
+                    if (row == DELETED) {
+                        ids.remove(id.longValue());
+                    } else {
+                        ids.add(id.longValue());
+                    }
+                });
+                return visible(work, ids);
+            }
+            if (work != null) {
+                return copyAll(sorted(rows.keySet()));
+            }
+            publishLock.readLock().lock();
+            try {
+                return copyAll(sorted(rows.keySet()));
+            } finally {
+                publishLock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Rows whose group id equals {@code groupId}, in id order.
+         */
+        @Override
+        public List<T> findByGroup(Long groupId) {
+            return findIndexed(byGroup, groupId, row -> groupId.equals(groupOf.apply(row)));
+        }
+
+        /**
+         * Rows that list {@code userId} as a member, in id order.
+         */
+        @Override
+        public List<T> findByMember(Long userId) {
+            return findIndexed(byMember, userId, row -> membersOf.apply(row).contains(userId));
+        }
+
+        @Override
+        public long count() {
+            UnitOfWork work = currentWork();
+            if (work != null) {
+                long count = rows.size();
+                for (Long2ObjectMap.Entry<Object> write : work.writes(this).long2ObjectEntrySet()) {
+                    boolean committed = rows.containsKey(write.getLongKey());
+                    if (write.getValue() == DELETED && committed) {
+                        count--;
+                    } else if (write.getValue() != DELETED && !committed) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            publishLock.readLock().lock();
+            try {
+                return rows.size();
+            } finally {
+                publishLock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Stores a copy of the entity, assigning the next id first when it has
+         * none.
+         */
+        @Override
+        public <S extends T> S save(S entity) {
+            Long id = idOf.apply(entity);
+            if (id == null && assignId == null) {
+                throw new IllegalArgumentException(name + " requires an assigned id");
+            }
+            UnitOfWork work = currentWork();
+            if (work != null) {
+                if (id == null) {
+                    id = ++sequence;
+                    assignId.accept(entity, id);
+                }
+                work.put(this, id, copy.apply(entity));
+                return entity;
+            }
+            writeLock.lock();
+            try {
+                if (id == null) {
+                    id = ++sequence;
+                    assignId.accept(entity, id);
+                }
+                publish(this, id, copy.apply(entity));
+            } finally {
+                writeLock.unlock();
+            }
+            return entity;
+        }
+
+        @Override
+        public void delete(Long id) {
+            UnitOfWork work = currentWork();
+            if (work != null) {
+                work.put(this, id, DELETED);
+                return;
+            }
+            writeLock.lock();
+            try {
+                publish(this, id, DELETED);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public Long idOf(T entity) {
+            return idOf.apply(entity);
+        }
+
+        private List<T> findIndexed(Long2ObjectOpenHashMap<LongArrayList> index, Long key, Predicate<T> matches) {
+            UnitOfWork work = currentWork();
+            if (work == null) {
+                publishLock.readLock().lock();
+                try {
+                    LongArrayList ids = index.get(key.longValue());
+                    return ids == null ? List.of() : copyAll(ids);
+                } finally {
+                    publishLock.readLock().unlock();
+                }
+            }
+            LongArrayList committed = index.get(key.longValue());
+            Long2ObjectMap<Object> writes = work.writes(this);
+            if (writes.isEmpty()) {
+                return committed == null ? List.of() : copyAll(committed);
+            }
+            LongAVLTreeSet ids = committed == null ? new LongAVLTreeSet() : new LongAVLTreeSet(committed);
+            writes.forEach((id, row) -> {
+                if (row != DELETED && matches.test(cast(row))) {
+                    ids.add(id.longValue());
+                } else {
+                    ids.remove(id.longValue());
+                }
+            });
+            return visible(work, ids);
+        }
+
+        private List<T> visible(UnitOfWork work, LongSortedSet ids) {
+            Long2ObjectMap<Object> writes = work.writes(this);
+            List<T> result = new ArrayList<>(ids.size());
+            for (LongIterator it = ids.iterator(); it.hasNext(); ) {
+                long id = it.nextLong();
+                Object row = writes.containsKey(id) ? writes.get(id) : rows.get(id);
+                result.add(copy.apply(cast(row)));
+            }
+            return result;
+        }
+
+        private List<T> copyAll(LongCollection ids) {
+            List<T> result = new ArrayList<>(ids.size());
+            for (LongIterator it = ids.iterator(); it.hasNext(); ) {
+                result.add(copy.apply(rows.get(it.nextLong())));
+            }
+            return result;
+        }
+
+        /**
+         * Makes a write visible. Must be called with both the write lock and
+         * the publish lock's write side held.
+         */
+        private void apply(long id, Object row) {
+            T previous = row == DELETED ? rows.remove(id) : rows.put(id, cast(row));
+            T current = row == DELETED ? null : cast(row);
+            if (groupOf != null) {
+                reindex(byGroup, id, groupKeys(previous), groupKeys(current));
+            }
+            if (membersOf != null) {
+                reindex(byMember, id, previous == null ? List.of() : membersOf.apply(previous),
+                        current == null ? List.of() : membersOf.apply(current));
+            }
+            if (current != null) {
+                sequence = Math.max(sequence, id);
+            }
+        }
+
+        private Collection<Long> groupKeys(T row) {
+            Long group = row == null ? null : groupOf.apply(row);
+            return group == null ? List.of() : List.of(group);
+        }
+
+        @SuppressWarnings("unchecked")
+        private T cast(Object row) {
+            return (T) row;
+        }
+    }
+
+    private static void reindex(Long2ObjectOpenHashMap<LongArrayList> index, long id,
+                                Collection<Long> before, Collection<Long> after) {
+        for (Long key : before) {
+            if (!after.contains(key)) {
+                LongArrayList ids = index.get(key.longValue());
+                if (ids != null) {
+                    int position = LongArrays.binarySearch(ids.elements(), 0, ids.size(), id);
+                    if (position >= 0) {
+                        ids.removeLong(position);
+                    }
+                    if (ids.isEmpty()) {
+                        index.remove(key.longValue());
+                    }
+                }
+            }
+        }
+        for (Long key : after) {
+            if (!before.contains(key)) {
+                LongArrayList ids = index.computeIfAbsent(key.longValue(), k -> new LongArrayList());
+                int position = LongArrays.binarySearch(ids.elements(), 0, ids.size(), id);
+                if (position < 0) {
+                    ids.add(-position - 1, id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes one write made outside a transaction. Must be called with the
+     * write lock held.
+     */
+    private void publish(Table<?> table, long id, Object row) {
+        publishLock.writeLock().lock();
+        try {
+            table.apply(id, row);
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+    }
+
+    private static LongArrayList sorted(LongCollection ids) {
+        LongArrayList sorted = new LongArrayList(ids);
+        LongArrays.unstableSort(sorted.elements(), 0, sorted.size());
+        return sorted;
+    }
+
+    /**
+     * The unit of work of the current read-write transaction, started on first
+     * use. Reads outside such a transaction see committed rows only.
+     */
+    private UnitOfWork currentWork() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        UnitOfWork work = (UnitOfWork) TransactionSynchronizationManager.getResource(this);
+        if (work == null) {
+            writeLock.lock();
+            work = new UnitOfWork();
+            TransactionSynchronizationManager.bindResource(this, work);
+            TransactionSynchronizationManager.registerSynchronization(work);
+        }
+        return work;
+    }
+
+    private static User copy(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setName(user.getName());
+        copy.setEmail(user.getEmail());
+        copy.setPhoneNumber(user.getPhoneNumber());
+        return copy;
+    }
+
+    private static Group copy(Group group) {
+        Group copy = new Group();
+        copy.setId(group.getId());
+        copy.setName(group.getName());
+        copy.setDescription(group.getDescription());
+        copy.setBaseCurrency(group.getBaseCurrency());
+        copy.setMemberIds(new ArrayList<>(group.getMemberIds()));
+        return copy;
+    }
+
+    private static Expense copy(Expense expense) {
+        Expense copy = new Expense();
+        copy.setId(expense.getId());
+        copy.setGroupId(expense.getGroupId());
+        copy.setDescription(expense.getDescription());
+        copy.setAmount(expense.getAmount());
+        copy.setCurrency(expense.getCurrency());
+        copy.setFxRate(expense.getFxRate());
+        copy.setBaseAmountMinor(expense.getBaseAmountMinor());
+        copy.setPaidByUserId(expense.getPaidByUserId());
+        copy.setDate(expense.getDate());
+        copy.setSplitType(expense.getSplitType());
+        copy.setShares(copyShares(expense.getShares()));
+        copy.setVersion(expense.getVersion());
+        copy.setChangeVersion(expense.getChangeVersion());
+        return copy;
+    }
+
+    private static RecurringExpense copy(RecurringExpense template) {
+        RecurringExpense copy = new RecurringExpense();
+        copy.setId(template.getId());
+        copy.setGroupId(template.getGroupId());
+        copy.setDescription(template.getDescription());
+        copy.setAmount(template.getAmount());
+        copy.setCurrency(template.getCurrency());
+        copy.setPaidByUserId(template.getPaidByUserId());
+        copy.setSplitType(template.getSplitType());
+        copy.setShares(copyShares(template.getShares()));
+        copy.setFrequency(template.getFrequency());
+        copy.setStartDate(template.getStartDate());
+        copy.setEndDate(template.getEndDate());
+        copy.setNextRunDate(template.getNextRunDate());
+        copy.setOccurrences(template.getOccurrences());
+        copy.setVersion(template.getVersion());
+        return copy;
+    }
+
+    private static Settlement copy(Settlement settlement) {
+        Settlement copy = new Settlement();
+        copy.setId(settlement.getId());
+        copy.setGroupId(settlement.getGroupId());
+        copy.setFromUserId(settlement.getFromUserId());
+        copy.setToUserId(settlement.getToUserId());
+        copy.setAmount(settlement.getAmount());
+        copy.setCurrency(settlement.getCurrency());
+        copy.setFxRate(settlement.getFxRate());
+        copy.setBaseAmountMinor(settlement.getBaseAmountMinor());
+        copy.setDate(settlement.getDate());
+        copy.setNote(settlement.getNote());
+        copy.setVersion(settlement.getVersion());
+        copy.setChangeVersion(settlement.getChangeVersion());
+        return copy;
+    }
+
+    private static List<ExpenseShare> copyShares(List<ExpenseShare> shares) {
+        List<ExpenseShare> copies = new ArrayList<>(shares.size());
+        for (ExpenseShare share : shares) {
+            ExpenseShare copy = new ExpenseShare(share.getUserId(), share.getAmount());
+            copy.setOwedMinor(share.getOwedMinor());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    private static Tombstone copy(Tombstone tombstone) {
+        Tombstone copy = new Tombstone(tombstone.getGroupId(), tombstone.getChangeVersion(), tombstone.getKind(),
+                tombstone.getEntityId());
+        copy.setId(tombstone.getId());
+        return copy;
+    }
+
+    /**
+     * Writes buffered by one transaction, keyed by table and id. Holds the
+     * store's write lock from first use until the transaction completes.
+     */
+    private final class UnitOfWork implements TransactionSynchronization {
+
+        private final Map<Table<?>, Long2ObjectLinkedOpenHashMap<Object>> writes = new IdentityHashMap<>();
+
+        Long2ObjectMap<Object> writes(Table<?> table) {
+            return writes.computeIfAbsent(table, key -> new Long2ObjectLinkedOpenHashMap<>());
+        }
+
+        void put(Table<?> table, long id, Object row) {
+            writes(table).put(id, row);
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(MemoryStore.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(MemoryStore.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            publishLock.writeLock().lock();
+            try {
+                writes.forEach((table, rows) -> {
+                    for (Long2ObjectMap.Entry<Object> row : rows.long2ObjectEntrySet()) {
+                        table.apply(row.getLongKey(), row.getValue());
+                    }
+                });
+            } finally {
+                publishLock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MemoryStore.this);
+            writeLock.unlock();
+        }
+    }
+}
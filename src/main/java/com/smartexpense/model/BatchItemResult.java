@@ -0,0 +1,55 @@
+package com.smartexpense.model;
+
+/**
+ * Outcome of one item of a bulk request: the HTTP status it would have had on
+ * its own, the id of the created resource or the reason it was rejected.
+ */
+public class BatchItemResult {
+
+    private int index;
+    private int status;
+    private Long id;
+    private String message;
+
+    public BatchItemResult() {
+    }
+
+    public BatchItemResult(int index, int status, Long id, String message) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
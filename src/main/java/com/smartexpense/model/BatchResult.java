@@ -0,0 +1,70 @@
+package com.smartexpense.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a bulk request with one {@link BatchItemResult} per submitted item,
+ * in submission order.
+ */
+public class BatchResult {
+
+    private int created;
+    private int failed;
+    private List<BatchItemResult> results = new ArrayList<>();
+
+    public BatchResult() {
+    }
+
+    public void addCreated(int index, Long id) {
+        results.add(new BatchItemResult(index, 201, id, null));
+        created++;
+    }
+
+    public void addFailed(int index, String message) {
+        results.add(new BatchItemResult(index, 400, null, message));
+        failed++;
+    }
+
+    /**
+     * Records an item that could not be written because of a concurrent
+     * update of the same rows.
+     */
+    public void addConflict(int index, String message) {
+        results.add(new BatchItemResult(index, 409, null, message));
+        failed++;
+    }
+
+    /**
+     * Appends the results of another part of the same request.
+     */
+    public void addAll(BatchResult other) {
+        results.addAll(other.results);
+        created += other.created;
+        failed += other.failed;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchItemResult> results) {
+        this.results = results;
+    }
+}
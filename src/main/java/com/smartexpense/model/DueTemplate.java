@@ -0,0 +1,10 @@
+package com.smartexpense.model;
+
+import java.time.LocalDate;
+
+/**
+ * The key of a due recurring expense template in the next-run index, used as
+ * the cursor when due templates are read in batches.
+ */
+public record DueTemplate(Long id, LocalDate nextRunDate) {
+}
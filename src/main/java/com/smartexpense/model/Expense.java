@@ -0,0 +1,216 @@
+package com.smartexpense.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.smartexpense.money.Money;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An amount paid by one group member and split between members.
+ * <p>
+ * Ids come from a pooled sequence rather than an identity column so Hibernate
+ * can group inserts into JDBC batches during bulk ingestion. The version
+ * column makes a write based on a stale read fail instead of overwriting a
+ * concurrent update. The change version is the group change that last wrote
+ * the expense, for delta sync.
+ * <p>
+ * The amount is in the expense's own currency. It is converted into the
+ * group's base currency when the expense is written, and the converted amount
+ * and the owed amount of every share are stored in base minor units, so
+ * balances never convert.
+ */
+@Entity
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_group_date_id", columnList = "groupId, date, id"),
+        @Index(name = "idx_expenses_group_payer", columnList = "groupId, paidByUserId"),
+        @Index(name = "idx_expenses_group_change", columnList = "groupId, changeVersion")})
+public class Expense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expense_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull(message = "Group id is required")
+    private Long groupId;
+
+    private String description;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private Double amount;
+
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be a three-letter ISO 4217 code")
+    @Column(length = 3)
+    private String currency;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Double fxRate;
+
+    private Long baseAmountMinor;
+
+    @NotNull(message = "Payer is required")
+    private Long paidByUserId;
+
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+
+    @NotBlank(message = "Split type is required")
+    private String splitType;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "expense_shares", joinColumns = @JoinColumn(name = "expense_id"))
+    private List<ExpenseShare> shares = new ArrayList<>();
+
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long changeVersion;
+
+    public Expense() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * The currency of {@code amount}; the group's base currency when omitted.
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * The factor that converted {@code amount} into the group's base currency
+     * when the expense was written.
+     */
+    public Double getFxRate() {
+        return fxRate;
+    }
+
+    public void setFxRate(Double fxRate) {
+        this.fxRate = fxRate;
+    }
+
+    /**
+     * {@code amount} in the group's base currency, in minor units. Rows
+     * written before currencies existed are in the base currency already.
+     */
+    @JsonIgnore
+    public long getBaseAmountMinor() {
+        return baseAmountMinor != null ? baseAmountMinor : Money.toMinor(amount);
+    }
+
+    @JsonIgnore
+    public void setBaseAmountMinor(Long baseAmountMinor) {
+        this.baseAmountMinor = baseAmountMinor;
+    }
+
+    @JsonProperty(value = "baseAmount", access = JsonProperty.Access.READ_ONLY)
+    public Double getBaseAmount() {
+        return amount != null ? Money.toMajor(getBaseAmountMinor()) : null;
+    }
+
+    public Long getPaidByUserId() {
+        return paidByUserId;
+    }
+
+    public void setPaidByUserId(Long paidByUserId) {
+        this.paidByUserId = paidByUserId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getSplitType() {
+        return splitType;
+    }
+
+    public void setSplitType(String splitType) {
+        this.splitType = splitType;
+    }
+
+    public List<ExpenseShare> getShares() {
+        return shares;
+    }
+
+    public void setShares(List<ExpenseShare> shares) {
+        this.shares = shares;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public void setChangeVersion(Long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+}
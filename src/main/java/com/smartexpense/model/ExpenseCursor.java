@@ -0,0 +1,35 @@
+package com.smartexpense.model;
+
+import com.smartexpense.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a group's expense history, ordered by
+ * {@code (date, id)}. Encoded as URL-safe base64 so clients treat it as a token.
+ */
+public record ExpenseCursor(LocalDate date, long id) {
+
+    public static ExpenseCursor after(Expense expense) {
+        return new ExpenseCursor(expense.getDate(), expense.getId());
+    }
+
+    public static ExpenseCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new ExpenseCursor(LocalDate.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,42 @@
+package com.smartexpense.model;
+
+import com.smartexpense.exception.BadRequestException;
+import com.smartexpense.money.Money;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria on a group's expenses: an inclusive date range, the payer
+ * and an inclusive amount range. Null bounds are not applied.
+ * <p>
+ * The amount bounds are in the group's base currency and are compared with
+ * each expense's converted base amount, so expenses in different currencies
+ * are ranked on one scale.
+ */
+public record ExpenseFilter(LocalDate from, LocalDate to, Long paidByUserId, Double minAmount, Double maxAmount) {
+
+    public ExpenseFilter {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+            throw new BadRequestException("minAmount must not be greater than maxAmount");
+        }
+    }
+
+    public boolean matches(Expense expense) {
+        return (from == null || !expense.getDate().isBefore(from))
+                && (to == null || !expense.getDate().isAfter(to))
+                && (paidByUserId == null || paidByUserId.equals(expense.getPaidByUserId()))
+                && (minAmount == null || expense.getBaseAmountMinor() >= minAmountMinor())
+                && (maxAmount == null || expense.getBaseAmountMinor() <= maxAmountMinor());
+    }
+
+    public long minAmountMinor() {
+        return Money.toMinor(minAmount);
+    }
+
+    public long maxAmountMinor() {
+        return Money.toMinor(maxAmount);
+    }
+}
@@ -0,0 +1,9 @@
+package com.smartexpense.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of expenses. {@code nextCursor} is null on the last page.
+ */
+public record ExpensePage(List<Expense> items, String nextCursor) {
+}
@@ -0,0 +1,66 @@
+package com.smartexpense.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.smartexpense.money.Money;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * One participant's part of an expense.
+ * <p>
+ * {@code amount} is interpreted according to the expense split type: the exact
+ * amount for EXACT, the percentage for PERCENT and ignored for EQUAL.
+ * The server resolves the amount the participant owes and stores it in minor
+ * units of the group's base currency, so balances can be reversed exactly
+ * when the expense changes. It is exposed read-only as {@code owedAmount}.
+ */
+@Embeddable
+public class ExpenseShare {
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    private Double amount;
+
+    private Long owedMinor;
+
+    public ExpenseShare() {
+    }
+
+    public ExpenseShare(Long userId, Double amount) {
+        this.userId = userId;
+        this.amount = amount;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    @JsonProperty(value = "owedAmount", access = JsonProperty.Access.READ_ONLY)
+    public Double getOwedAmount() {
+        return owedMinor != null ? Money.toMajor(owedMinor) : null;
+    }
+
+    @JsonIgnore
+    public Long getOwedMinor() {
+        return owedMinor;
+    }
+
+    @JsonIgnore
+    public void setOwedMinor(Long owedMinor) {
+        this.owedMinor = owedMinor;
+    }
+}
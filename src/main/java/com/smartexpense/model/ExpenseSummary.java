@@ -0,0 +1,16 @@
+package com.smartexpense.model;
+
+import java.time.LocalDate;
+
+/**
+ * The columns of an expense without its shares, read by filtered queries so
+ * the share collection is never loaded.
+ */
+public record ExpenseSummary(Long id, Long groupId, String description, Double amount, Long paidByUserId,
+                             LocalDate date, String splitType) {
+
+    public static ExpenseSummary of(Expense expense) {
+        return new ExpenseSummary(expense.getId(), expense.getGroupId(), expense.getDescription(),
+                expense.getAmount(), expense.getPaidByUserId(), expense.getDate(), expense.getSplitType());
+    }
+}
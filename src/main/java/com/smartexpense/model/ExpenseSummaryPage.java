@@ -0,0 +1,9 @@
+package com.smartexpense.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of filtered expenses. {@code nextCursor} is null on the last page.
+ */
+public record ExpenseSummaryPage(List<ExpenseSummary> items, String nextCursor) {
+}
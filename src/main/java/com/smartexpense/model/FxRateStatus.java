@@ -0,0 +1,12 @@
+package com.smartexpense.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * The exchange rate table currently in use and when it was loaded.
+ */
+public record FxRateStatus(String source, Instant loadedAt, int versions, LocalDate firstDate,
+                           LocalDate latestDate, Set<String> currencies) {
+}
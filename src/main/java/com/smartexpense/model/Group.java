@@ -0,0 +1,88 @@
+package com.smartexpense.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A set of users sharing expenses. Members are referenced by id only.
+ * Balances are kept in the base currency, fixed when the group is created.
+ */
+@Entity
+@Table(name = "expense_groups")
+public class Group {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Group name is required")
+    @Column(nullable = false)
+    private String name;
+
+    private String description;
+
+    @Pattern(regexp = "[A-Z]{3}", message = "Base currency must be a three-letter ISO 4217 code")
+    @Column(length = 3)
+    private String baseCurrency;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "group_members", joinColumns = @JoinColumn(name = "group_id"))
+    @Column(name = "user_id")
+    private List<Long> memberIds = new ArrayList<>();
+
+    public Group() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public List<Long> getMemberIds() {
+        return memberIds;
+    }
+
+    public void setMemberIds(List<Long> memberIds) {
+        this.memberIds = memberIds;
+    }
+}
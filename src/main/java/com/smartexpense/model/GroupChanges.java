@@ -0,0 +1,14 @@
+package com.smartexpense.model;
+
+import java.util.List;
+
+/**
+ * Everything that changed in a group after a client's last known version:
+ * expenses and settlements created or updated since then, the ids of those
+ * that left the group, and the member list if it changed. {@code version} is
+ * what the client passes as {@code since} on its next poll.
+ */
+public record GroupChanges(Long groupId, long version, List<Long> memberIds, List<Expense> expenses,
+                           List<Settlement> settlements, List<Long> deletedExpenseIds,
+                           List<Long> deletedSettlementIds) {
+}
@@ -0,0 +1,109 @@
+package com.smartexpense.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running net balance of every member of a group.
+ * <p>
+ * The ledger is adjusted by a delta on every expense and settlement write, so
+ * reading balances costs one row per member instead of a scan over the group
+ * history. Balances are held in minor units and always sum to exactly zero.
+ * The balance rows are indexed by user as well, so they double as the
+ * materialized per-user view across groups. Every balance change bumps the
+ * version, so two processes adjusting the same group cannot lose an update.
+ * <p>
+ * Since every write to a group already locks and updates this row, it also
+ * carries the group's change counter for delta sync.
+ */
+@Entity
+@Table(name = "group_ledgers")
+public class GroupLedger {
+
+    @Id
+    private Long groupId;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "group_ledger_balances", joinColumns = @JoinColumn(name = "group_id"),
+            indexes = @Index(name = "idx_ledger_balances_user", columnList = "user_id"))
+    @MapKeyColumn(name = "user_id")
+    @Column(name = "net_balance_minor", nullable = false)
+    private Map<Long, Long> balances = new HashMap<>();
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private long changeVersion;
+
+    @Column(nullable = false)
+    private long membersChangeVersion;
+
+    protected GroupLedger() {
+    }
+
+    public GroupLedger(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    /**
+     * A detached copy, for storage backends that hand out private copies.
+     */
+    public GroupLedger(GroupLedger other) {
+        this.groupId = other.groupId;
+        this.balances = new HashMap<>(other.balances);
+        this.version = other.version;
+        this.changeVersion = other.changeVersion;
+        this.membersChangeVersion = other.membersChangeVersion;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public Map<Long, Long> getBalances() {
+        return balances;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * The last change made to the group, counted from one.
+     */
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    /**
+     * The change that last altered the group's member list.
+     */
+    public long getMembersChangeVersion() {
+        return membersChangeVersion;
+    }
+
+    public long nextChangeVersion() {
+        return ++changeVersion;
+    }
+
+    public void membersChanged() {
+        membersChangeVersion = nextChangeVersion();
+    }
+
+    public void adjust(Long userId, long delta) {
+        balances.merge(userId, delta, Long::sum);
+    }
+}
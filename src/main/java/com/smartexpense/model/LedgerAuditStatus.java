@@ -0,0 +1,25 @@
+package com.smartexpense.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of the current or last ledger audit. {@code drift} lists at most
+ * the first few drifted balances found; {@code driftedGroups} counts them all.
+ * {@code failedGroups} counts groups whose audit threw and was skipped.
+ */
+public record LedgerAuditStatus(State state, boolean repair, Instant startedAt, Instant finishedAt,
+                                long totalGroups, long auditedGroups, long expensesScanned,
+                                long settlementsScanned, long driftedGroups, long repairedGroups,
+                                long failedGroups, List<LedgerDrift> drift, String error) {
+
+    public enum State {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public static final LedgerAuditStatus IDLE = new LedgerAuditStatus(State.IDLE, false, null, null,
+            0, 0, 0, 0, 0, 0, 0, List.of(), null);
+}
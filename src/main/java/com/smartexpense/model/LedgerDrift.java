@@ -0,0 +1,8 @@
+package com.smartexpense.model;
+
+/**
+ * A member whose stored balance differs from the one recomputed from the
+ * group's expenses and settlements.
+ */
+public record LedgerDrift(Long groupId, Long userId, Double stored, Double expected) {
+}
@@ -0,0 +1,8 @@
+package com.smartexpense.model;
+
+/**
+ * One user's running balance in one group, in minor units, as stored in the
+ * group ledger.
+ */
+public record LedgerPosition(Long groupId, Long netBalanceMinor) {
+}
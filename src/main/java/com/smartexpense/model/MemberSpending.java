@@ -0,0 +1,7 @@
+package com.smartexpense.model;
+
+/**
+ * What one member paid in a spending bucket and what their shares came to.
+ */
+public record MemberSpending(Long userId, Double paid, Double share) {
+}
@@ -0,0 +1,24 @@
+package com.smartexpense.model;
+
+/**
+ * Plain message body used for confirmations and error responses.
+ */
+public class MessageResponse {
+
+    private String message;
+
+    public MessageResponse() {
+    }
+
+    public MessageResponse(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
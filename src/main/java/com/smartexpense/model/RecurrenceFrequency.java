@@ -0,0 +1,25 @@
+package com.smartexpense.model;
+
+import java.time.LocalDate;
+
+/**
+ * How often a recurring expense falls due.
+ */
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * The occurrence {@code n} (counted from zero) of a rule starting on
+     * {@code start}. Monthly occurrences keep the start's day of the month,
+     * moved to the last day of shorter months, so they never drift.
+     */
+    public LocalDate occurrence(LocalDate start, long n) {
+        return switch (this) {
+            case DAILY -> start.plusDays(n);
+            case WEEKLY -> start.plusWeeks(n);
+            case MONTHLY -> start.plusMonths(n);
+        };
+    }
+}
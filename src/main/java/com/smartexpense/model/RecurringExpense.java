@@ -0,0 +1,246 @@
+package com.smartexpense.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template for an expense that repeats daily, weekly or monthly from
+ * {@code startDate} until {@code endDate}, if any.
+ * <p>
+ * {@code nextRunDate} is the date of the next occurrence still to be
+ * materialized, or null once the rule has ended. It is indexed together with
+ * the id, so the scheduler reads only the templates that are due. An
+ * occurrence is materialized in the same transaction that advances it, and
+ * the version column makes a second scheduler working on the same template
+ * fail instead of creating the occurrence again.
+ */
+@Entity
+@Table(name = "recurring_expenses", indexes = {
+        @Index(name = "idx_recurring_next_run", columnList = "nextRunDate, id"),
+        @Index(name = "idx_recurring_group", columnList = "groupId")})
+public class RecurringExpense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_expense_seq")
+    @SequenceGenerator(name = "recurring_expense_seq", sequenceName = "recurring_expense_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull(message = "Group id is required")
+    private Long groupId;
+
+    private String description;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private Double amount;
+
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be a three-letter ISO 4217 code")
+    @Column(length = 3)
+    private String currency;
+
+    @NotNull(message = "Payer is required")
+    private Long paidByUserId;
+
+    @NotBlank(message = "Split type is required")
+    private String splitType;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "recurring_expense_shares", joinColumns = @JoinColumn(name = "recurring_expense_id"))
+    private List<ExpenseShare> shares = new ArrayList<>();
+
+    @NotNull(message = "Frequency is required")
+    @Enumerated(EnumType.STRING)
+    private RecurrenceFrequency frequency;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDate nextRunDate;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long occurrences;
+
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    public RecurringExpense() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public Long getPaidByUserId() {
+        return paidByUserId;
+    }
+
+    public void setPaidByUserId(Long paidByUserId) {
+        this.paidByUserId = paidByUserId;
+    }
+
+    public String getSplitType() {
+        return splitType;
+    }
+
+    public void setSplitType(String splitType) {
+        this.splitType = splitType;
+    }
+
+    public List<ExpenseShare> getShares() {
+        return shares;
+    }
+
+    public void setShares(List<ExpenseShare> shares) {
+        this.shares = shares;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(RecurrenceFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public LocalDate getNextRunDate() {
+        return nextRunDate;
+    }
+
+    public void setNextRunDate(LocalDate nextRunDate) {
+        this.nextRunDate = nextRunDate;
+    }
+
+    /**
+     * Occurrences materialized so far.
+     */
+    public long getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(long occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Whether an occurrence on or before {@code date} is still to be
+     * materialized.
+     */
+    public boolean isDue(LocalDate date) {
+        return nextRunDate != null && !nextRunDate.isAfter(date);
+    }
+
+    /**
+     * The expense of the next occurrence, with the template's split.
+     */
+    public Expense nextExpense() {
+        Expense expense = new Expense();
+        expense.setGroupId(groupId);
+        expense.setDescription(description);
+        expense.setAmount(amount);
+        expense.setCurrency(currency);
+        expense.setPaidByUserId(paidByUserId);
+        expense.setDate(nextRunDate);
+        expense.setSplitType(splitType);
+        List<ExpenseShare> copies = new ArrayList<>(shares.size());
+        for (ExpenseShare share : shares) {
+            copies.add(new ExpenseShare(share.getUserId(), share.getAmount()));
+        }
+        expense.setShares(copies);
+        return expense;
+    }
+
+    /**
+     * Moves past the occurrence just materialized.
+     */
+    public void advance() {
+        occurrences++;
+        LocalDate next = frequency.occurrence(startDate, occurrences);
+        nextRunDate = endDate != null && next.isAfter(endDate) ? null : next;
+    }
+}
@@ -0,0 +1,10 @@
+package com.smartexpense.model;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of one pass over the recurring expenses due on {@code date}.
+ * Templates that failed stay due and are tried again on the next pass.
+ */
+public record RecurringRunResult(LocalDate date, int templates, int expensesCreated, int failed) {
+}
@@ -0,0 +1,188 @@
+package com.smartexpense.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.smartexpense.money.Money;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDate;
+
+/**
+ * A payment from one group member to another that reduces what they owe.
+ * The version column makes a write based on a stale read fail instead of
+ * overwriting a concurrent update. The change version is the group change
+ * that last wrote the settlement, for delta sync. Like an expense, it may be
+ * paid in another currency and is stored converted into the group's base
+ * currency.
+ */
+@Entity
+@Table(name = "settlements", indexes = {
+        @Index(name = "idx_settlements_group_from_to", columnList = "groupId, fromUserId, toUserId"),
+        @Index(name = "idx_settlements_group_change", columnList = "groupId, changeVersion")})
+public class Settlement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull(message = "Group id is required")
+    private Long groupId;
+
+    @NotNull(message = "Payer is required")
+    private Long fromUserId;
+
+    @NotNull(message = "Receiver is required")
+    private Long toUserId;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private Double amount;
+
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be a three-letter ISO 4217 code")
+    @Column(length = 3)
+    private String currency;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Double fxRate;
+
+    private Long baseAmountMinor;
+
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+
+    private String note;
+
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long changeVersion;
+
+    public Settlement() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public Long getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(Long fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public Long getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(Long toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * The currency of {@code amount}; the group's base currency when omitted.
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * The factor that converted {@code amount} into the group's base currency
+     * when the settlement was written.
+     */
+    public Double getFxRate() {
+        return fxRate;
+    }
+
+    public void setFxRate(Double fxRate) {
+        this.fxRate = fxRate;
+    }
+
+    /**
+     * {@code amount} in the group's base currency, in minor units. Rows
+     * written before currencies existed are in the base currency already.
+     */
+    @JsonIgnore
+    public long getBaseAmountMinor() {
+        return baseAmountMinor != null ? baseAmountMinor : Money.toMinor(amount);
+    }
+
+    @JsonIgnore
+    public void setBaseAmountMinor(Long baseAmountMinor) {
+        this.baseAmountMinor = baseAmountMinor;
+    }
+
+    @JsonProperty(value = "baseAmount", access = JsonProperty.Access.READ_ONLY)
+    public Double getBaseAmount() {
+        return amount != null ? Money.toMajor(getBaseAmountMinor()) : null;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public void setChangeVersion(Long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+}
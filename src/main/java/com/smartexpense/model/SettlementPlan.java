@@ -0,0 +1,47 @@
+package com.smartexpense.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The set of payments that would bring every balance in a group to zero.
+ */
+public class SettlementPlan {
+
+    private Long groupId;
+    private List<SettlementSuggestion> suggestions = new ArrayList<>();
+    private Integer transactionCount;
+
+    public SettlementPlan() {
+    }
+
+    public SettlementPlan(Long groupId, List<SettlementSuggestion> suggestions) {
+        this.groupId = groupId;
+        this.suggestions = suggestions;
+        this.transactionCount = suggestions.size();
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public List<SettlementSuggestion> getSuggestions() {
+        return suggestions;
+    }
+
+    public void setSuggestions(List<SettlementSuggestion> suggestions) {
+        this.suggestions = suggestions;
+    }
+
+    public Integer getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Integer transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+}
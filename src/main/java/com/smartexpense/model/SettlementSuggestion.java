@@ -0,0 +1,64 @@
+package com.smartexpense.model;
+
+/**
+ * A single payment proposed by a settlement plan.
+ */
+public class SettlementSuggestion {
+
+    private Long fromUserId;
+    private String fromUserName;
+    private Long toUserId;
+    private String toUserName;
+    private Double amount;
+
+    public SettlementSuggestion() {
+    }
+
+    public SettlementSuggestion(Long fromUserId, String fromUserName, Long toUserId, String toUserName, Double amount) {
+        this.fromUserId = fromUserId;
+        this.fromUserName = fromUserName;
+        this.toUserId = toUserId;
+        this.toUserName = toUserName;
+        this.amount = amount;
+    }
+
+    public Long getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(Long fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public String getFromUserName() {
+        return fromUserName;
+    }
+
+    public void setFromUserName(String fromUserName) {
+        this.fromUserName = fromUserName;
+    }
+
+    public Long getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(Long toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public String getToUserName() {
+        return toUserName;
+    }
+
+    public void setToUserName(String toUserName) {
+        this.toUserName = toUserName;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,10 @@
+package com.smartexpense.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Spending of a group in the day, week or month starting on {@code periodStart}.
+ */
+public record SpendingBucket(LocalDate periodStart, Double total, int expenseCount, List<MemberSpending> members) {
+}
@@ -0,0 +1,25 @@
+package com.smartexpense.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Width of a spending rollup bucket. Weeks start on Monday, as in ISO-8601.
+ */
+public enum SpendingGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * The first day of the bucket containing {@code date}.
+     */
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.smartexpense.model;
+
+import java.util.List;
+
+/**
+ * A group's spending bucketed by day, week or month, oldest bucket first.
+ * Periods without expenses are omitted.
+ */
+public record SpendingReport(Long groupId, SpendingGranularity granularity, List<SpendingBucket> buckets) {
+}
@@ -0,0 +1,154 @@
+package com.smartexpense.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Spending of one group in one day, week or month: the total, the number of
+ * expenses, and per member what they paid and what their shares came to.
+ * <p>
+ * Like {@link GroupLedger}, a rollup is adjusted by a delta on every expense
+ * write, so spending reports read one row per bucket instead of the expenses
+ * in it. Amounts are held in minor units.
+ */
+@Entity
+@Table(name = "spending_rollups", indexes = @Index(name = "idx_spending_rollups_group_period",
+        columnList = "groupId, granularity, periodStart", unique = true))
+public class SpendingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spending_rollup_seq")
+    @SequenceGenerator(name = "spending_rollup_seq", sequenceName = "spending_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long groupId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SpendingGranularity granularity;
+
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private long totalMinor;
+
+    @Column(nullable = false)
+    private int expenseCount;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "spending_rollup_paid", joinColumns = @JoinColumn(name = "rollup_id"))
+    @MapKeyColumn(name = "user_id")
+    @Column(name = "paid_minor", nullable = false)
+    private Map<Long, Long> paidMinor = new HashMap<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "spending_rollup_shares", joinColumns = @JoinColumn(name = "rollup_id"))
+    @MapKeyColumn(name = "user_id")
+    @Column(name = "share_minor", nullable = false)
+    private Map<Long, Long> shareMinor = new HashMap<>();
+
+    @Version
+    private Long version;
+
+    protected SpendingRollup() {
+    }
+
+    public SpendingRollup(Long groupId, SpendingGranularity granularity, LocalDate periodStart) {
+        this.groupId = groupId;
+        this.granularity = granularity;
+        this.periodStart = periodStart;
+    }
+
+    /**
+     * A detached copy, for storage backends that hand out private copies.
+     */
+    public SpendingRollup(SpendingRollup other) {
+        this.id = other.id;
+        this.groupId = other.groupId;
+        this.granularity = other.granularity;
+        this.periodStart = other.periodStart;
+        this.totalMinor = other.totalMinor;
+        this.expenseCount = other.expenseCount;
+        this.paidMinor = new HashMap<>(other.paidMinor);
+        this.shareMinor = new HashMap<>(other.shareMinor);
+        this.version = other.version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public SpendingGranularity getGranularity() {
+        return granularity;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public long getTotalMinor() {
+        return totalMinor;
+    }
+
+    public int getExpenseCount() {
+        return expenseCount;
+    }
+
+    public Map<Long, Long> getPaidMinor() {
+        return paidMinor;
+    }
+
+    public Map<Long, Long> getShareMinor() {
+        return shareMinor;
+    }
+
+    /**
+     * Adds ({@code sign} 1) or removes ({@code sign} -1) one expense. Members
+     * whose amounts return to zero are dropped.
+     */
+    public void adjust(Expense expense, int sign) {
+        long amount = sign * expense.getBaseAmountMinor();
+        totalMinor += amount;
+        expenseCount += sign;
+        merge(paidMinor, expense.getPaidByUserId(), amount);
+        for (ExpenseShare share : expense.getShares()) {
+            merge(shareMinor, share.getUserId(), sign * share.getOwedMinor());
+        }
+    }
+
+    public boolean isEmpty() {
+        return expenseCount == 0;
+    }
+
+    private static void merge(Map<Long, Long> amounts, Long userId, long delta) {
+        amounts.merge(userId, delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+}
@@ -0,0 +1,10 @@
+package com.smartexpense.model;
+
+/**
+ * How an expense amount is divided between participants.
+ */
+public enum SplitType {
+    EQUAL,
+    EXACT,
+    PERCENT
+}
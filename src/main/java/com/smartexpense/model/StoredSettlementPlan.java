@@ -0,0 +1,8 @@
+package com.smartexpense.model;
+
+/**
+ * A computed settlement plan together with the change count of its group the
+ * plan was computed at, and the entity tag it is served with.
+ */
+public record StoredSettlementPlan(long version, String etag, SettlementPlan plan) {
+}
@@ -0,0 +1,83 @@
+package com.smartexpense.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Records that an expense or settlement left a group, deleted or moved to
+ * another group, at a given change version of the group, so delta sync can
+ * tell clients to drop it.
+ */
+@Entity
+@Table(name = "sync_tombstones",
+        indexes = @Index(name = "idx_tombstones_group_version", columnList = "groupId, changeVersion"))
+public class Tombstone {
+
+    /**
+     * The kind of row a tombstone stands for.
+     */
+    public enum Kind {
+        EXPENSE,
+        SETTLEMENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tombstone_seq")
+    @SequenceGenerator(name = "tombstone_seq", sequenceName = "tombstone_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long groupId;
+
+    @Column(nullable = false)
+    private Long changeVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    public Tombstone() {
+    }
+
+    public Tombstone(Long groupId, Long changeVersion, Kind kind, Long entityId) {
+        this.groupId = groupId;
+        this.changeVersion = changeVersion;
+        this.kind = kind;
+        this.entityId = entityId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+}
@@ -0,0 +1,57 @@
+package com.smartexpense.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A user's net position in every group they belong to, and across all of them.
+ */
+public class UserBalanceSummary {
+
+    private Long userId;
+    private String userName;
+    private List<UserGroupBalance> groups = new ArrayList<>();
+    private Double totalBalance;
+
+    public UserBalanceSummary() {
+    }
+
+    public UserBalanceSummary(Long userId, String userName, List<UserGroupBalance> groups, Double totalBalance) {
+        this.userId = userId;
+        this.userName = userName;
+        this.groups = groups;
+        this.totalBalance = totalBalance;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public List<UserGroupBalance> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<UserGroupBalance> groups) {
+        this.groups = groups;
+    }
+
+    public Double getTotalBalance() {
+        return totalBalance;
+    }
+
+    public void setTotalBalance(Double totalBalance) {
+        this.totalBalance = totalBalance;
+    }
+}
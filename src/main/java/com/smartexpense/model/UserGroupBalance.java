@@ -0,0 +1,45 @@
+package com.smartexpense.model;
+
+/**
+ * Net position of a user in one of their groups. Positive means the user is
+ * owed money, negative means the user owes money.
+ */
+public class UserGroupBalance {
+
+    private Long groupId;
+    private String groupName;
+    private Double netBalance;
+
+    public UserGroupBalance() {
+    }
+
+    public UserGroupBalance(Long groupId, String groupName, Double netBalance) {
+        this.groupId = groupId;
+        this.groupName = groupName;
+        this.netBalance = netBalance;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getGroupName() {
+        return groupName;
+    }
+
+    public void setGroupName(String groupName) {
+        this.groupName = groupName;
+    }
+
+    public Double getNetBalance() {
+        return netBalance;
+    }
+
+    public void setNetBalance(Double netBalance) {
+        this.netBalance = netBalance;
+    }
+}
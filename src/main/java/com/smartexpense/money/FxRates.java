@@ -0,0 +1,154 @@
+package com.smartexpense.money;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable table of exchange rates, versioned by date.
+ * <p>
+ * Each version holds, for every currency it lists, the value of one unit of
+ * that currency in a common reference currency. A conversion on a given date
+ * uses the latest version on or before it. Versions are kept as a sorted array
+ * of epoch days and rates as one primitive row per version, indexed by
+ * currency, so a lookup is a binary search and two array reads and allocates
+ * nothing.
+ */
+public final class FxRates {
+
+    public static final FxRates EMPTY = new FxRates(new long[0], Map.of(), new double[0][]);
+
+    private static final Pattern CURRENCY = Pattern.compile("[A-Z]{3}");
+
+    private final long[] epochDays;
+    private final Map<String, Integer> currencyIndex;
+    private final double[][] rates;
+
+    private FxRates(long[] epochDays, Map<String, Integer> currencyIndex, double[][] rates) {
+        this.epochDays = epochDays;
+        this.currencyIndex = currencyIndex;
+        this.rates = rates;
+    }
+
+    /**
+     * Reads {@code date,currency,rate} lines. Blank lines and lines starting
+     * with {@code #} are skipped; a currency listed twice for one date is an
+     * error.
+     *
+     * @throws IllegalArgumentException naming the first malformed line
+     */
+    public static FxRates parse(BufferedReader reader) throws IOException {
+        TreeMap<LocalDate, Map<String, Double>> versions = new TreeMap<>();
+        TreeSet<String> currencies = new TreeSet<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 3) {
+                throw malformed(lineNumber, "expected date,currency,rate");
+            }
+            LocalDate date;
+            double rate;
+            try {
+                date = LocalDate.parse(fields[0].strip());
+                rate = Double.parseDouble(fields[2].strip());
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                throw malformed(lineNumber, ex.getMessage());
+            }
+            String currency = fields[1].strip();
+            if (!CURRENCY.matcher(currency).matches()) {
+                throw malformed(lineNumber, "currency must be a three-letter code");
+            }
+            if (!(rate > 0) || Double.isInfinite(rate)) {
+                throw malformed(lineNumber, "rate must be positive");
+            }
+            if (versions.computeIfAbsent(date, d -> new HashMap<>()).put(currency, rate) != null) {
+                throw malformed(lineNumber, currency + " is listed twice for " + date);
+            }
+            currencies.add(currency);
+        }
+
+        Map<String, Integer> currencyIndex = new HashMap<>();
+        for (String currency : currencies) {
+            currencyIndex.put(currency, currencyIndex.size());
+        }
+        long[] epochDays = new long[versions.size()];
+        double[][] rates = new double[versions.size()][];
+        int version = 0;
+        for (Map.Entry<LocalDate, Map<String, Double>> entry : versions.entrySet()) {
+            double[] row = new double[currencies.size()];
+            Arrays.fill(row, Double.NaN);
+            entry.getValue().forEach((currency, rate) -> row[currencyIndex.get(currency)] = rate);
+            epochDays[version] = entry.getKey().toEpochDay();
+            rates[version++] = row;
+        }
+        return new FxRates(epochDays, Map.copyOf(currencyIndex), rates);
+    }
+
+    /**
+     * The factor converting an amount in {@code from} into {@code to} on
+     * {@code date}: 1 for the same currency, otherwise the ratio of their
+     * values in the latest version on or before the date, or NaN if that
+     * version does not list both.
+     */
+    public double rate(String from, String to, LocalDate date) {
+        if (from.equals(to)) {
+            return 1.0;
+        }
+        Integer fromIndex = currencyIndex.get(from);
+        Integer toIndex = currencyIndex.get(to);
+        int version = Arrays.binarySearch(epochDays, date.toEpochDay());
+        if (version < 0) {
+            version = -version - 2;
+        }
+        if (fromIndex == null || toIndex == null || version < 0) {
+            return Double.NaN;
+        }
+        double[] row = rates[version];
+        return row[fromIndex] / row[toIndex];
+    }
+
+    /**
+     * Converts minor units at {@code rate}, rounding half-up.
+     */
+    public static long convert(long minor, double rate) {
+        return Math.round(minor * rate);
+    }
+
+    public boolean supports(String currency) {
+        return currencyIndex.containsKey(currency);
+    }
+
+    public Set<String> getCurrencies() {
+        return new TreeSet<>(currencyIndex.keySet());
+    }
+
+    public int getVersionCount() {
+        return epochDays.length;
+    }
+
+    public LocalDate getFirstDate() {
+        return epochDays.length == 0 ? null : LocalDate.ofEpochDay(epochDays[0]);
+    }
+
+    public LocalDate getLatestDate() {
+        return epochDays.length == 0 ? null : LocalDate.ofEpochDay(epochDays[epochDays.length - 1]);
+    }
+
+    private static IllegalArgumentException malformed(int lineNumber, String reason) {
+        return new IllegalArgumentException("Malformed exchange rate on line " + lineNumber + ": " + reason);
+    }
+}
@@ -0,0 +1,28 @@
+package com.smartexpense.money;
+
+/**
+ * Conversions between the decimal amounts used on the API and the integer
+ * minor units (cents) used for all internal arithmetic.
+ * <p>
+ * Percentages are carried the same way as basis points, so 12.5% is 1250 and
+ * a full split is {@link #FULL_PERCENT}.
+ */
+public final class Money {
+
+    public static final int SCALE = 100;
+    public static final long FULL_PERCENT = 100L * SCALE;
+
+    private Money() {
+    }
+
+    /**
+     * Rounds a decimal amount half-up to the nearest minor unit.
+     */
+    public static long toMinor(double amount) {
+        return Math.round(amount * SCALE);
+    }
+
+    public static double toMajor(long minor) {
+        return (double) minor / SCALE;
+    }
+}
@@ -0,0 +1,181 @@
+package com.smartexpense.money;
+
+import com.smartexpense.exception.InvalidSplitException;
+import com.smartexpense.model.SplitType;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Divides an expense amount between participants in integer minor units.
+ * <p>
+ * Every method writes the owed amount of participant {@code i} into
+ * {@code owed[i]}, and the owed amounts always sum to exactly {@code amount}.
+ * Leftover minor units that cannot be divided evenly are assigned one at a time:
+ * <ul>
+ *     <li>EQUAL: to the first participants in input order;</li>
+ *     <li>PERCENT and proportional: to the participants with the largest
+ *     discarded fraction, ties going to the earlier participant (largest
+ *     remainder method).</li>
+ * </ul>
+ * The engine works on caller-provided primitive arrays; PERCENT and
+ * proportional splits only add two scratch arrays sized by the participant
+ * count, so it can be used on the ingest path at full rate. A share whose
+ * {@code amount * weight} product does not fit in a long is divided in
+ * {@link BigInteger} instead, so any valid amount can be split.
+ */
+public final class SplitEngine {
+
+    private SplitEngine() {
+    }
+
+    /**
+     * @param inputs per-participant values: ignored for EQUAL, minor units for
+     *               EXACT and basis points for PERCENT
+     */
+    public static void split(SplitType type, long amount, long[] inputs, long[] owed) {
+        switch (type) {
+            case EQUAL -> splitEqual(amount, owed);
+            case EXACT -> splitExact(amount, inputs, owed);
+            case PERCENT -> splitPercent(amount, inputs, owed);
+        }
+    }
+
+    public static void splitEqual(long amount, long[] owed) {
+        int n = owed.length;
+        if (n == 0) {
+            throw new InvalidSplitException("An expense needs at least one participant");
+        }
+        long base = amount / n;
+        long leftover = amount % n;
+        for (int i = 0; i < n; i++) {
+            owed[i] = i < leftover ? base + 1 : base;
+        }
+    }
+
+    public static void splitExact(long amount, long[] exact, long[] owed) {
+        long total = 0;
+        for (int i = 0; i < exact.length; i++) {
+            if (exact[i] < 0) {
+                throw new InvalidSplitException("Share amounts must be non-negative");
+            }
+            total = Math.addExact(total, exact[i]);
+            owed[i] = exact[i];
+        }
+        if (total != amount) {
+            throw new InvalidSplitException("Exact shares must add up to the expense amount");
+        }
+    }
+
+    public static void splitPercent(long amount, long[] basisPoints, long[] owed) {
+        long totalPercent = 0;
+        for (long bp : basisPoints) {
+            if (bp < 0) {
+                throw new InvalidSplitException("Share percentages must be non-negative");
+            }
+            totalPercent += bp;
+        }
+        if (totalPercent != Money.FULL_PERCENT) {
+            throw new InvalidSplitException("Percent shares must add up to 100");
+        }
+
+        allocate(amount, basisPoints, Money.FULL_PERCENT, owed);
+    }
+
+    /**
+     * Divides {@code amount} in proportion to {@code weights}, which must not
+     * be negative. Used to carry an already split expense over to another
+     * currency with the same leftover rule as PERCENT.
+     */
+    public static void splitProportional(long amount, long[] weights, long[] owed) {
+        long total = 0;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new InvalidSplitException("Split weights must be non-negative");
+            }
+            total = Math.addExact(total, weight);
+        }
+        if (total == 0) {
+            if (amount != 0) {
+                throw new InvalidSplitException("An amount cannot be split over zero weights");
+            }
+            Arrays.fill(owed, 0);
+            return;
+        }
+        allocate(amount, weights, total, owed);
+    }
+
+    private static void allocate(long amount, long[] weights, long total, long[] owed) {
+        int n = weights.length;
+        long[] remainders = new long[n];
+        long assigned = 0;
+        for (int i = 0; i < n; i++) {
+            long high = Math.multiplyHigh(amount, weights[i]);
+            long product = amount * weights[i];
+            if (high == 0 && product >= 0) {
+                owed[i] = product / total;
+                remainders[i] = product % total;
+            } else {
+                BigInteger[] division = BigInteger.valueOf(amount).multiply(BigInteger.valueOf(weights[i]))
+                        .divideAndRemainder(BigInteger.valueOf(total));
+                owed[i] = division[0].longValueExact();
+                remainders[i] = division[1].longValueExact();
+            }
+            assigned += owed[i];
+        }
+        // Fewer than n units are left over; hand them out by largest remainder.
+        // A min-heap of the current top candidates keeps this O(n log leftover)
+        // instead of rescanning every participant for each unit.
+        int leftover = (int) (amount - assigned);
+        if (leftover == 0) {
+            return;
+        }
+        int[] heap = new int[leftover];
+        for (int i = 0; i < leftover; i++) {
+            heap[i] = i;
+        }
+        for (int i = leftover / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, remainders);
+        }
+        for (int i = leftover; i < n; i++) {
+            if (ranksBefore(i, heap[0], remainders)) {
+                heap[0] = i;
+                siftDown(heap, 0, remainders);
+            }
+        }
+        for (int i : heap) {
+            owed[i]++;
+        }
+    }
+
+    /**
+     * Largest remainder first, ties going to the earlier participant.
+     */
+    private static boolean ranksBefore(int a, int b, long[] remainders) {
+        return remainders[a] > remainders[b] || (remainders[a] == remainders[b] && a < b);
+    }
+
+    /**
+     * Restores the min-heap property below {@code i}: the root is the candidate
+     * that ranks last.
+     */
+    private static void siftDown(int[] heap, int i, long[] remainders) {
+        int size = heap.length;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && ranksBefore(heap[child], heap[child + 1], remainders)) {
+                child++;
+            }
+            if (!ranksBefore(heap[i], heap[child], remainders)) {
+                return;
+            }
+            int swap = heap[i];
+            heap[i] = heap[child];
+            heap[child] = swap;
+            i = child;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.Expense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ExpenseRepository extends ListCrudRepository<Expense, Long>, ExpenseRepositoryCustom {
+
+    List<Expense> findByGroupIdOrderByDateAscIdAsc(Long groupId);
+
+    List<Expense> findByGroupIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(Long groupId, Long changeVersion);
+
+    @Query("select e.groupId from Expense e where e.id = :id")
+    Optional<Long> findGroupIdById(Long id);
+
+    List<Expense> findByGroupIdOrderByDateAscIdAsc(Long groupId, Limit limit);
+
+    @Query("""
+            select e from Expense e
+            where e.groupId = :groupId and (e.date > :date or (e.date = :date and e.id > :id))
+            order by e.date asc, e.id asc""")
+    List<Expense> findPageAfter(Long groupId, LocalDate date, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select e from Expense e left join fetch e.shares where e.groupId = :groupId order by e.date asc, e.id asc")
+    Stream<Expense> streamByGroupId(Long groupId);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select e from Expense e left join fetch e.shares
+            where e.groupId = :groupId and (e.date > :date or (e.date = :date and e.id > :id))
+            order by e.date asc, e.id asc""")
+    Stream<Expense> streamByGroupIdAfter(Long groupId, LocalDate date, Long id);
+}
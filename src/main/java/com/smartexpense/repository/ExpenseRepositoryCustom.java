@@ -0,0 +1,28 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseCursor;
+import com.smartexpense.model.ExpenseFilter;
+import com.smartexpense.model.ExpenseSummary;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+/**
+ * Persistence-context housekeeping for bulk reads and writes of expenses, and
+ * the filtered query whose predicates depend on the criteria given. Backends
+ * that hand out detached copies implement the housekeeping as no-ops.
+ */
+public interface ExpenseRepositoryCustom {
+
+    /**
+     * Stops tracking an expense that has been fully consumed.
+     */
+    void detach(Expense expense);
+
+    /**
+     * The group's expenses matching {@code filter} in {@code (date, id)} order,
+     * after {@code after} when it is not null.
+     */
+    List<ExpenseSummary> findSummaries(Long groupId, ExpenseFilter filter, ExpenseCursor after, Limit limit);
+}
@@ -0,0 +1,86 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseCursor;
+import com.smartexpense.model.ExpenseFilter;
+import com.smartexpense.model.ExpenseSummary;
+import com.smartexpense.money.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+class ExpenseRepositoryCustomImpl implements ExpenseRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    ExpenseRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void detach(Expense expense) {
+        entityManager.detach(expense);
+    }
+
+    /**
+     * Only the criteria given become predicates, so the database can range-scan
+     * {@code (groupId, date, id)} for date filters or {@code (groupId,
+     * paidByUserId)} for payer filters instead of evaluating null checks on
+     * every row of the group. Amount bounds apply to the base amount; rows
+     * written before currencies existed have none and fall back to their
+     * amount, which is in the base currency already.
+     */
+    @Override
+    public List<ExpenseSummary> findSummaries(Long groupId, ExpenseFilter filter, ExpenseCursor after, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ExpenseSummary> query = cb.createQuery(ExpenseSummary.class);
+        Root<Expense> expense = query.from(Expense.class);
+        Path<LocalDate> date = expense.get("date");
+        Path<Long> id = expense.get("id");
+        Path<Double> amount = expense.get("amount");
+        Expression<Number> baseAmountMinor = cb.coalesce(expense.<Number>get("baseAmountMinor"),
+                cb.prod(amount, (double) Money.SCALE));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(expense.get("groupId"), groupId));
+        if (filter.from() != null) {
+            where.add(cb.greaterThanOrEqualTo(date, filter.from()));
+        }
+        if (filter.to() != null) {
+            where.add(cb.lessThanOrEqualTo(date, filter.to()));
+        }
+        if (filter.paidByUserId() != null) {
+            where.add(cb.equal(expense.get("paidByUserId"), filter.paidByUserId()));
+        }
+        if (filter.minAmount() != null) {
+            where.add(cb.ge(baseAmountMinor, filter.minAmountMinor()));
+        }
+        if (filter.maxAmount() != null) {
+            where.add(cb.le(baseAmountMinor, filter.maxAmountMinor()));
+        }
+        if (after != null) {
+            where.add(cb.or(cb.greaterThan(date, after.date()),
+                    cb.and(cb.equal(date, after.date()), cb.greaterThan(id, after.id()))));
+        }
+
+        query.select(cb.construct(ExpenseSummary.class, id, expense.get("groupId"), expense.get("description"),
+                        amount, expense.get("paidByUserId"), date, expense.get("splitType")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(date), cb.asc(id));
+        TypedQuery<ExpenseSummary> typed = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typed.setMaxResults(limit.max());
+        }
+        return typed.getResultList();
+    }
+}
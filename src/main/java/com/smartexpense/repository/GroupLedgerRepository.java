@@ -0,0 +1,18 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.LedgerPosition;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.util.List;
+
+public interface GroupLedgerRepository extends ListCrudRepository<GroupLedger, Long> {
+
+    @Query("""
+            select new com.smartexpense.model.LedgerPosition(l.groupId, value(b))
+            from GroupLedger l join l.balances b
+            where key(b) = :userId
+            order by l.groupId""")
+    List<LedgerPosition> findPositionsByUserId(Long userId);
+}
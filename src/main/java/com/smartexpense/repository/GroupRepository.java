@@ -0,0 +1,16 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.Group;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.util.List;
+
+public interface GroupRepository extends ListCrudRepository<Group, Long> {
+
+    @Query("select g from Group g where :userId member of g.memberIds")
+    List<Group> findByMemberId(Long userId);
+
+    @Query("select g.id from Group g order by g.id")
+    List<Long> findAllIds();
+}
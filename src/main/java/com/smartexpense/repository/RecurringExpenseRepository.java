@@ -0,0 +1,36 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.DueTemplate;
+import com.smartexpense.model.RecurringExpense;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RecurringExpenseRepository extends ListCrudRepository<RecurringExpense, Long> {
+
+    List<RecurringExpense> findByGroupIdOrderByIdAsc(Long groupId);
+
+    /**
+     * The first templates due on {@code date} in next-run index order.
+     */
+    @Query("""
+            select new com.smartexpense.model.DueTemplate(r.id, r.nextRunDate) from RecurringExpense r
+            where r.nextRunDate <= :date
+            order by r.nextRunDate asc, r.id asc""")
+    List<DueTemplate> findDue(LocalDate date, Limit limit);
+
+    /**
+     * The templates due on {@code date} that follow the key
+     * ({@code afterDate}, {@code afterId}) in next-run index order, so each
+     * batch continues on the index where the last one stopped.
+     */
+    @Query("""
+            select new com.smartexpense.model.DueTemplate(r.id, r.nextRunDate) from RecurringExpense r
+            where r.nextRunDate <= :date
+            and (r.nextRunDate > :afterDate or (r.nextRunDate = :afterDate and r.id > :afterId))
+            order by r.nextRunDate asc, r.id asc""")
+    List<DueTemplate> findDueAfter(LocalDate date, LocalDate afterDate, Long afterId, Limit limit);
+}
@@ -0,0 +1,34 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.Settlement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface SettlementRepository extends ListCrudRepository<Settlement, Long>, SettlementRepositoryCustom {
+
+    List<Settlement> findByGroupIdOrderByDateAscIdAsc(Long groupId);
+
+    List<Settlement> findByGroupIdAndFromUserIdOrderByDateAscIdAsc(Long groupId, Long fromUserId);
+
+    List<Settlement> findByGroupIdAndToUserIdOrderByDateAscIdAsc(Long groupId, Long toUserId);
+
+    List<Settlement> findByGroupIdAndFromUserIdAndToUserIdOrderByDateAscIdAsc(Long groupId, Long fromUserId,
+                                                                            Long toUserId);
+
+    List<Settlement> findByGroupIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(Long groupId,
+                                                                                     Long changeVersion);
+
+    @Query("select s.groupId from Settlement s where s.id = :id")
+    Optional<Long> findGroupIdById(Long id);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select s from Settlement s where s.groupId = :groupId order by s.date asc, s.id asc")
+    Stream<Settlement> streamByGroupId(Long groupId);
+}
@@ -0,0 +1,15 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.Settlement;
+
+/**
+ * Persistence-context housekeeping for bulk reads of settlements. Backends
+ * that hand out detached copies implement it as a no-op.
+ */
+public interface SettlementRepositoryCustom {
+
+    /**
+     * Stops tracking a settlement that has been fully consumed.
+     */
+    void detach(Settlement settlement);
+}
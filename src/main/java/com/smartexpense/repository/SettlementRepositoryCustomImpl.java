@@ -0,0 +1,18 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.Settlement;
+import jakarta.persistence.EntityManager;
+
+class SettlementRepositoryCustomImpl implements SettlementRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    SettlementRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void detach(Settlement settlement) {
+        entityManager.detach(settlement);
+    }
+}
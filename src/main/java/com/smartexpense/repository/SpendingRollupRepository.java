@@ -0,0 +1,34 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.SpendingGranularity;
+import com.smartexpense.model.SpendingRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface SpendingRollupRepository extends ListCrudRepository<SpendingRollup, Long> {
+
+    Optional<SpendingRollup> findByGroupIdAndGranularityAndPeriodStart(Long groupId, SpendingGranularity granularity,
+                                                                       LocalDate periodStart);
+
+    /**
+     * The same lookup without flushing pending changes first. Only correct when
+     * the caller already holds every bucket changed since the last flush.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("""
+            select r from SpendingRollup r
+            where r.groupId = :groupId and r.granularity = :granularity and r.periodStart = :periodStart""")
+    Optional<SpendingRollup> findUnflushedBucket(Long groupId, SpendingGranularity granularity, LocalDate periodStart);
+
+    List<SpendingRollup> findByGroupIdAndGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(
+            Long groupId, SpendingGranularity granularity, LocalDate from, LocalDate to);
+
+    List<SpendingRollup> findByGroupId(Long groupId);
+}
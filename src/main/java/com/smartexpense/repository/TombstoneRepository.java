@@ -0,0 +1,13 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.Tombstone;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.util.List;
+
+public interface TombstoneRepository extends ListCrudRepository<Tombstone, Long> {
+
+    List<Tombstone> findByGroupIdAndChangeVersionGreaterThan(Long groupId, Long changeVersion);
+
+    List<Tombstone> findByGroupId(Long groupId);
+}
@@ -0,0 +1,11 @@
+package com.smartexpense.repository;
+
+import com.smartexpense.model.User;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.util.Collection;
+
+public interface UserRepository extends ListCrudRepository<User, Long> {
+
+    long countByIdIn(Collection<Long> ids);
+}
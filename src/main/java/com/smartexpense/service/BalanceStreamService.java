@@ -0,0 +1,390 @@
+package com.smartexpense.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartexpense.cache.EntityCache;
+import com.smartexpense.exception.ResourceNotFoundException;
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.MemberBalance;
+import com.smartexpense.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes a group's balances to server-sent event subscribers as writes to the
+ * group commit.
+ * <p>
+ * Each watched group has one broadcaster. After a commit that changed the
+ * group it reads the ledger once, diffs it against the balances it last
+ * published and serializes the changed rows once for every subscriber, so
+ * the cost of a change does not grow with the number of readers. Changes
+ * arriving while a read is pending are folded into it.
+ * <p>
+ * Every connection has a bounded buffer drained by the sender threads. A
+ * subscriber that falls {@code buffer-size} events behind has its buffer
+ * replaced by one full snapshot, so a slow client costs a fixed amount of
+ * memory and catches up in one event rather than slowing down the others.
+ * Writes block on the client socket. Senders are virtual threads when
+ * {@code spring.threads.virtual.enabled} is set on Java 21+, and otherwise a
+ * pool of {@code threads}. A blocked write is bounded by the servlet
+ * container's socket write timeout ({@code server.tomcat.connection-timeout});
+ * a write that misses it fails, and its subscriber is dropped, so a stalled
+ * client holds a sender thread for at most that long.
+ * A subscriber first receives a {@code snapshot} event with every balance,
+ * then {@code balances} events with the changed rows; the event id is the
+ * group's change version. Streams end when the group is deleted.
+ */
+@Service
+public class BalanceStreamService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceStreamService.class);
+
+    private static final String SNAPSHOT = "snapshot";
+    private static final String BALANCES = "balances";
+
+    private final LedgerService ledgerService;
+    private final EntityCache entityCache;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Executor executor;
+    private final Map<Long, Broadcaster> broadcasters = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter resyncs;
+    private final Counter drops;
+    private final CommittedGroupChanges committedChanges = new CommittedGroupChanges(this::changed);
+
+    public BalanceStreamService(LedgerService ledgerService, EntityCache entityCache, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${smartexpense.balance-stream.buffer-size:16}") int bufferSize,
+                                @Value("${smartexpense.balance-stream.timeout:30m}") Duration timeout,
+                                @Value("${smartexpense.balance-stream.threads:16}") int threads,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("smartexpense.balance-stream.buffer-size must be positive");
+        }
+        this.ledgerService = ledgerService;
+        this.entityCache = entityCache;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        if (virtualThreads && Runtime.version().feature() >= 21) {
+            this.executor = new VirtualThreadTaskExecutor("balance-stream-");
+        } else {
+            this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "balance-stream");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        Gauge.builder("smartexpense.balance.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open balance streams")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("smartexpense.balance.stream.resyncs")
+                .description("Balance stream buffers that overflowed and were replaced by a snapshot")
+                .register(meterRegistry);
+        this.drops = Counter.builder("smartexpense.balance.stream.drops")
+                .description("Balance stream subscribers dropped after a write failed or timed out")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the group's balances, starting with a snapshot.
+     */
+    public SseEmitter subscribe(Long groupId) {
+        if (entityCache.getGroup(groupId).isEmpty()) {
+            throw new ResourceNotFoundException("Group not found with id: " + groupId);
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis));
+        Broadcaster broadcaster;
+        do {
+            broadcaster = broadcasters.computeIfAbsent(groupId, Broadcaster::new);
+        } while (!broadcaster.join(subscriber));
+        Broadcaster joined = broadcaster;
+        subscriber.emitter.onCompletion(() -> joined.leave(subscriber));
+        subscriber.emitter.onError(error -> joined.leave(subscriber));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Collects the groups changed by the current transaction and wakes their
+     * broadcasters once it commits.
+     */
+    @EventListener
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        committedChanges.add(event.groupId());
+    }
+
+    @Override
+    public void destroy() {
+        for (Broadcaster broadcaster : broadcasters.values()) {
+            for (Subscriber subscriber : broadcaster.subscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    private void changed(Set<Long> groupIds) {
+        for (Long groupId : groupIds) {
+            Broadcaster broadcaster = broadcasters.get(groupId);
+            if (broadcaster != null) {
+                broadcaster.schedule();
+            }
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            log.debug("Balance stream executor is shut down", ex);
+        }
+    }
+
+    private String json(List<MemberBalance> rows) {
+        try {
+            return objectMapper.writeValueAsString(rows);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize balances", ex);
+        }
+    }
+
+    private record Event(String name, long version, String json) {
+    }
+
+    /**
+     * The subscribers of one group and the balances last published to them.
+     * Reads and publishes are serialized on the broadcaster, so every
+     * subscriber sees the changes in commit order.
+     */
+    private final class Broadcaster {
+
+        private final Long groupId;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private Map<Long, Long> published = Map.of();
+        private long version;
+        private boolean closed;
+
+        private Broadcaster(Long groupId) {
+            this.groupId = groupId;
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                execute(this::refresh);
+            }
+        }
+
+        /**
+         * Brings the current subscribers up to date, then adds the new one
+         * with a snapshot. Returns false if the broadcaster was closed and a
+         * new one must be created.
+         */
+        synchronized boolean join(Subscriber subscriber) {
+            if (closed) {
+                return false;
+            }
+            Optional<GroupLedger> ledger = ledgerService.findLedger(groupId);
+            if (ledger.isEmpty()) {
+                closeIfUnused();
+                throw new ResourceNotFoundException("Group not found with id: " + groupId);
+            }
+            publish(ledger.get());
+            subscribers.add(subscriber);
+            BalanceStreamService.this.subscribers.incrementAndGet();
+            subscriber.offer(snapshot());
+            return true;
+        }
+
+        synchronized void leave(Subscriber subscriber) {
+            if (subscribers.remove(subscriber)) {
+                BalanceStreamService.this.subscribers.decrementAndGet();
+            }
+            closeIfUnused();
+        }
+
+        private void refresh() {
+            scheduled.set(false);
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                try {
+                    Optional<GroupLedger> ledger = ledgerService.findLedger(groupId);
+                    if (ledger.isPresent()) {
+                        publish(ledger.get());
+                        return;
+                    }
+                } catch (RuntimeException ex) {
+                    log.warn("Could not publish the balances of group {}", groupId, ex);
+                    return;
+                }
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.emitter.complete();
+                }
+            }
+        }
+
+        /**
+         * Sends the rows that differ from the last published balances; a
+         * member dropped from the ledger is sent with a zero balance.
+         */
+        private void publish(GroupLedger ledger) {
+            Map<Long, Long> current = new TreeMap<>(ledger.getBalances());
+            Set<Long> changed = new TreeSet<>();
+            current.forEach((userId, balance) -> {
+                if (!balance.equals(published.get(userId))) {
+                    changed.add(userId);
+                }
+            });
+            for (Long userId : published.keySet()) {
+                if (!current.containsKey(userId)) {
+                    changed.add(userId);
+                }
+            }
+            published = current;
+            version = ledger.getChangeVersion();
+            if (changed.isEmpty() || subscribers.isEmpty()) {
+                return;
+            }
+            Event event = new Event(BALANCES, version, json(rows(changed)));
+            Event snapshot = null;
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(event)) {
+                    if (snapshot == null) {
+                        snapshot = snapshot();
+                    }
+                    subscriber.resync(snapshot);
+                }
+            }
+        }
+
+        private Event snapshot() {
+            return new Event(SNAPSHOT, version, json(rows(published.keySet())));
+        }
+
+        private List<MemberBalance> rows(Set<Long> userIds) {
+            Map<Long, String> names = entityCache.getUserNames(userIds);
+            List<MemberBalance> rows = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                rows.add(new MemberBalance(groupId, userId, names.get(userId),
+                        Money.toMajor(published.getOrDefault(userId, 0L))));
+            }
+            return rows;
+        }
+
+        private void closeIfUnused() {
+            if (subscribers.isEmpty()) {
+                closed = true;
+                broadcasters.remove(groupId, this);
+            }
+        }
+    }
+
+    /**
+     * One open stream and the events waiting to be written to it.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean dropped;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues the event unless the buffer is full.
+         */
+        boolean offer(Event event) {
+            if (!buffer.offer(event)) {
+                return false;
+            }
+            drainLater();
+            return true;
+        }
+
+        /**
+         * Drops everything still buffered in favour of a snapshot. Events
+         * already being written go out first, so the order stays intact.
+         */
+        void resync(Event snapshot) {
+            buffer.clear();
+            buffer.offer(snapshot);
+            resyncs.increment();
+            drainLater();
+        }
+
+        private void drainLater() {
+            if (draining.compareAndSet(false, true)) {
+                execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            if (dropped) {
+                return;
+            }
+            try {
+                Event event;
+                while ((event = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .name(event.name())
+                            .id(Long.toString(event.version()))
+                            .data(event.json(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException ex) {
+                // the write failed or missed the socket write timeout: end the
+                // stream now rather than waiting for the container to notice
+                dropped = true;
+                buffer.clear();
+                drops.increment();
+                emitter.completeWithError(ex);
+                return;
+            } catch (IllegalStateException ex) {
+                // the stream was completed; its completion callback removes the subscriber
+                return;
+            }
+            draining.set(false);
+            if (!buffer.isEmpty()) {
+                drainLater();
+            }
+        }
+    }
+}
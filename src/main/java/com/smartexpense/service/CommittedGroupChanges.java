@@ -0,0 +1,65 @@
+package com.smartexpense.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Collects the groups changed by the current transaction, as announced by
+ * {@link LedgerChangedEvent}s, and hands them to a listener once, after the
+ * transaction commits. A rolled back transaction hands over nothing, and a
+ * change made outside a transaction is handed over at once.
+ */
+final class CommittedGroupChanges {
+
+    private final Consumer<Set<Long>> listener;
+
+    CommittedGroupChanges(Consumer<Set<Long>> listener) {
+        this.listener = listener;
+    }
+
+    void add(Long groupId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            listener.accept(Set.of(groupId));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.groupIds.add(groupId);
+    }
+
+    /**
+     * Groups changed by one transaction, handed over when it commits.
+     */
+    private final class Pending implements TransactionSynchronization {
+
+        private final Set<Long> groupIds = new HashSet<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(CommittedGroupChanges.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(CommittedGroupChanges.this, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            listener.accept(groupIds);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CommittedGroupChanges.this);
+        }
+    }
+}
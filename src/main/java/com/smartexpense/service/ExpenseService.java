@@ -0,0 +1,430 @@
+package com.smartexpense.service;
+
+import com.smartexpense.concurrency.ConflictRetryAspect;
+import com.smartexpense.concurrency.RetryOnConflict;
+import com.smartexpense.exception.BadRequestException;
+import com.smartexpense.exception.InvalidSplitException;
+import com.smartexpense.exception.ResourceNotFoundException;
+import com.smartexpense.model.BatchResult;
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseCursor;
+import com.smartexpense.model.ExpenseFilter;
+import com.smartexpense.model.ExpensePage;
+import com.smartexpense.model.ExpenseShare;
+import com.smartexpense.model.ExpenseSummary;
+import com.smartexpense.model.ExpenseSummaryPage;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.SplitType;
+import com.smartexpense.model.Tombstone;
+import com.smartexpense.money.FxRates;
+import com.smartexpense.money.Money;
+import com.smartexpense.money.SplitEngine;
+import com.smartexpense.repository.ExpenseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class ExpenseService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ExpenseRepository expenseRepository;
+    private final GroupService groupService;
+    private final LedgerService ledgerService;
+    private final GroupSyncService groupSyncService;
+    private final SpendingRollupService spendingRollupService;
+    private final FxRateService fxRateService;
+    private final Validator validator;
+    private final ConflictRetryAspect conflictRetry;
+    private final TransactionTemplate chunkTransaction;
+    private final int jdbcBatchSize;
+    private final int maxBatchItems;
+    private final Map<SplitType, Timer> splitTimers = new EnumMap<>(SplitType.class);
+    private final Map<SplitType, Counter> splitFailures = new EnumMap<>(SplitType.class);
+    private final Counter unknownSplitFailures;
+
+    public ExpenseService(ExpenseRepository expenseRepository, GroupService groupService, LedgerService ledgerService,
+                          GroupSyncService groupSyncService, SpendingRollupService spendingRollupService,
+                          FxRateService fxRateService, Validator validator, ConflictRetryAspect conflictRetry,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                          @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize,
+                          @Value("${smartexpense.batch.max-items:10000}") int maxBatchItems) {
+        this.expenseRepository = expenseRepository;
+        this.groupService = groupService;
+        this.ledgerService = ledgerService;
+        this.groupSyncService = groupSyncService;
+        this.spendingRollupService = spendingRollupService;
+        this.fxRateService = fxRateService;
+        this.validator = validator;
+        this.conflictRetry = conflictRetry;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.maxBatchItems = maxBatchItems;
+        for (SplitType type : SplitType.values()) {
+            splitTimers.put(type, Timer.builder("smartexpense.split")
+                    .description("Share computation in the split engine")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+            splitFailures.put(type, splitFailureCounter(meterRegistry, type.name()));
+        }
+        this.unknownSplitFailures = splitFailureCounter(meterRegistry, "UNKNOWN");
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public Expense addExpense(Expense expense) {
+        resolveShares(expense);
+        expense.setId(null);
+        expense.setVersion(null);
+        groupSyncService.stamp(expense);
+        Expense saved = expenseRepository.save(expense);
+        ledgerService.applyExpense(saved);
+        spendingRollupService.applyExpense(saved);
+        return saved;
+    }
+
+    /**
+     * Checks the expense against its group the way {@link #addExpense} does,
+     * without saving it. Its shares are resolved in place.
+     */
+    public void validateSplit(Expense expense) {
+        resolveShares(expense);
+    }
+
+    /**
+     * Creates many expenses. Each item is validated with the same rules as
+     * {@link #addExpense}; rejected items are reported and skipped while the
+     * rest are persisted.
+     * <p>
+     * Items are committed in chunks of one JDBC batch, each in its own
+     * transaction, so inserts go out in batches and memory stays bounded
+     * however long the input is. A chunk that fails on a concurrent update is
+     * retried like {@link #addExpense}; if it still fails, its items are
+     * reported as conflicts while the chunks before and after it are kept.
+     * Items beyond max-items are not read; the first of them is reported as
+     * rejected.
+     */
+    public BatchResult addExpenses(Iterator<Expense> expenses) {
+        BatchResult result = new BatchResult();
+        List<Expense> chunk = new ArrayList<>(jdbcBatchSize);
+        int index = 0;
+        while (expenses.hasNext()) {
+            if (index == maxBatchItems) {
+                addChunk(chunk, index - chunk.size(), result);
+                result.addFailed(index, "A batch may contain at most " + maxBatchItems + " expenses");
+                return result;
+            }
+            chunk.add(expenses.next());
+            index++;
+            if (chunk.size() == jdbcBatchSize) {
+                addChunk(chunk, index - chunk.size(), result);
+                chunk.clear();
+            }
+        }
+        addChunk(chunk, index - chunk.size(), result);
+        return result;
+    }
+
+    private void addChunk(List<Expense> chunk, int firstIndex, BatchResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        BatchResult outcome;
+        try {
+            outcome = conflictRetry.retry(() -> chunkTransaction.execute(status -> insertChunk(chunk, firstIndex)));
+        } catch (ConcurrencyFailureException ex) {
+            for (int i = 0; i < chunk.size(); i++) {
+                result.addConflict(firstIndex + i, "Conflicting concurrent update: " + ex.getMessage());
+            }
+            return;
+        }
+        result.addAll(outcome);
+    }
+
+    /**
+     * One attempt at a chunk. Items keep no state from a rolled back attempt:
+     * ids, versions and shares are set up again.
+     */
+    private BatchResult insertChunk(List<Expense> chunk, int firstIndex) {
+        BatchResult outcome = new BatchResult();
+        SpendingRollupService.Batch rollups = new SpendingRollupService.Batch();
+        for (int i = 0; i < chunk.size(); i++) {
+            Expense expense = chunk.get(i);
+            try {
+                validateConstraints(expense);
+                expense.setShares(new ArrayList<>(expense.getShares()));
+                resolveShares(expense);
+                expense.setId(null);
+                expense.setVersion(null);
+                groupSyncService.stamp(expense);
+                Expense saved = expenseRepository.save(expense);
+                ledgerService.applyExpense(saved);
+                spendingRollupService.applyExpense(saved, rollups);
+                outcome.addCreated(firstIndex + i, saved.getId());
+            } catch (BadRequestException ex) {
+                outcome.addFailed(firstIndex + i, ex.getMessage());
+            }
+        }
+        return outcome;
+    }
+
+    @Transactional(readOnly = true)
+    public Expense getExpenseById(Long id) {
+        return expenseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense not found with id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Expense> listExpensesByGroup(Long groupId) {
+        return expenseRepository.findByGroupIdOrderByDateAscIdAsc(groupId);
+    }
+
+    /**
+     * Returns up to {@code limit} expenses of the group following {@code cursor}
+     * in {@code (date, id)} order, or from the start when the cursor is null.
+     */
+    @Transactional(readOnly = true)
+    public ExpensePage listExpensesByGroup(Long groupId, int limit, String cursor) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Limit fetch = Limit.of(limit + 1);
+        List<Expense> rows;
+        if (cursor == null) {
+            rows = expenseRepository.findByGroupIdOrderByDateAscIdAsc(groupId, fetch);
+        } else {
+            ExpenseCursor after = ExpenseCursor.decode(cursor);
+            rows = expenseRepository.findPageAfter(groupId, after.date(), after.id(), fetch);
+        }
+        if (rows.size() <= limit) {
+            return new ExpensePage(rows, null);
+        }
+        List<Expense> items = rows.subList(0, limit);
+        return new ExpensePage(items, ExpenseCursor.after(items.get(limit - 1)).encode());
+    }
+
+    /**
+     * Up to {@code limit} expenses of the group matching {@code filter}
+     * following {@code cursor}, or all of them when {@code limit} is null, read
+     * as summaries without their shares.
+     */
+    @Transactional(readOnly = true)
+    public ExpenseSummaryPage listExpenseSummaries(Long groupId, ExpenseFilter filter, Integer limit, String cursor) {
+        ExpenseCursor after = cursor != null ? ExpenseCursor.decode(cursor) : null;
+        if (limit == null) {
+            return new ExpenseSummaryPage(expenseRepository.findSummaries(groupId, filter, after, Limit.unlimited()),
+                    null);
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<ExpenseSummary> rows = expenseRepository.findSummaries(groupId, filter, after, Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new ExpenseSummaryPage(rows, null);
+        }
+        List<ExpenseSummary> items = rows.subList(0, limit);
+        ExpenseSummary last = items.get(limit - 1);
+        return new ExpenseSummaryPage(items, new ExpenseCursor(last.date(), last.id()).encode());
+    }
+
+    /**
+     * Hands every expense of the group after {@code after} to {@code sink} as it
+     * is read from the database. Each row is detached once consumed, so memory
+     * use does not grow with the size of the group.
+     */
+    @Transactional(readOnly = true)
+    public void streamExpensesByGroup(Long groupId, ExpenseCursor after, Consumer<Expense> sink) {
+        try (Stream<Expense> rows = after == null
+                ? expenseRepository.streamByGroupId(groupId)
+                : expenseRepository.streamByGroupIdAfter(groupId, after.date(), after.id())) {
+            rows.forEach(expense -> {
+                sink.accept(expense);
+                expenseRepository.detach(expense);
+            });
+        }
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public Expense updateExpense(Long id, Expense update) {
+        resolveShares(update);
+        Expense expense = getExpenseForUpdate(id, update.getGroupId());
+        ledgerService.revertExpense(expense);
+        spendingRollupService.revertExpense(expense);
+        if (!expense.getGroupId().equals(update.getGroupId())) {
+            groupSyncService.recordRemoval(expense.getGroupId(), Tombstone.Kind.EXPENSE, id);
+        }
+        expense.setGroupId(update.getGroupId());
+        expense.setDescription(update.getDescription());
+        expense.setAmount(update.getAmount());
+        expense.setCurrency(update.getCurrency());
+        expense.setFxRate(update.getFxRate());
+        expense.setBaseAmountMinor(update.getBaseAmountMinor());
+        expense.setPaidByUserId(update.getPaidByUserId());
+        expense.setDate(update.getDate());
+        expense.setSplitType(update.getSplitType());
+        expense.getShares().clear();
+        expense.getShares().addAll(update.getShares());
+        groupSyncService.stamp(expense);
+        ledgerService.applyExpense(expense);
+        spendingRollupService.applyExpense(expense);
+        return expenseRepository.save(expense);
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public void deleteExpense(Long id) {
+        Expense expense = getExpenseForUpdate(id, null);
+        ledgerService.revertExpense(expense);
+        spendingRollupService.revertExpense(expense);
+        groupSyncService.recordRemoval(expense.getGroupId(), Tombstone.Kind.EXPENSE, id);
+        expenseRepository.delete(expense);
+    }
+
+    /**
+     * Locks the ledgers an expense write touches before the expense is read,
+     * so it is read as committed by the previous writer of its group. A write
+     * from another process in between still fails on the version column and
+     * is retried.
+     */
+    private Expense getExpenseForUpdate(Long id, Long targetGroupId) {
+        Long groupId = expenseRepository.findGroupIdById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense not found with id: " + id));
+        ledgerService.lockGroups(targetGroupId == null ? List.of(groupId) : List.of(groupId, targetGroupId));
+        Expense expense = getExpenseById(id);
+        ledgerService.lockGroups(List.of(expense.getGroupId()));
+        return expense;
+    }
+
+    private void validateConstraints(Expense expense) {
+        if (expense == null) {
+            throw new BadRequestException("Expense is required");
+        }
+        Set<ConstraintViolation<Expense>> violations = validator.validate(expense);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.iterator().next().getMessage());
+        }
+    }
+
+    /**
+     * Validates the expense against its group and fills in the owed amount of
+     * every share. For EQUAL splits without explicit shares, all current group
+     * members participate. Rejected splits are counted per split type.
+     * <p>
+     * The split is computed in the expense's currency and then carried over to
+     * the group's base currency at the rate on the expense date, with the
+     * converted total divided in proportion to the owed amounts so the shares
+     * still add up to it exactly.
+     */
+    private void resolveShares(Expense expense) {
+        Group group = groupService.getReferencedGroup(expense.getGroupId());
+        SplitType splitType = null;
+        try {
+            splitType = parseSplitType(expense.getSplitType());
+            if (!group.getMemberIds().contains(expense.getPaidByUserId())) {
+                throw new BadRequestException("Payer is not a member of the group");
+            }
+            resolveShares(expense, group, splitType);
+        } catch (InvalidSplitException ex) {
+            (splitType == null ? unknownSplitFailures : splitFailures.get(splitType)).increment();
+            throw ex;
+        }
+    }
+
+    private void resolveShares(Expense expense, Group group, SplitType splitType) {
+
+        List<ExpenseShare> shares = expense.getShares() != null ? expense.getShares() : new ArrayList<>();
+        if (splitType == SplitType.EQUAL && shares.isEmpty()) {
+            for (Long memberId : group.getMemberIds()) {
+                shares.add(new ExpenseShare(memberId, null));
+            }
+        }
+        if (shares.isEmpty()) {
+            throw new InvalidSplitException("Shares are required for " + splitType + " split");
+        }
+
+        int n = shares.size();
+        long[] inputs = new long[n];
+        long[] owed = new long[n];
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            ExpenseShare share = shares.get(i);
+            if (share.getUserId() == null || !group.getMemberIds().contains(share.getUserId())) {
+                throw new InvalidSplitException("Share user is not a member of the group");
+            }
+            if (!seen.add(share.getUserId())) {
+                throw new InvalidSplitException("Duplicate share for user " + share.getUserId());
+            }
+            if (splitType != SplitType.EQUAL) {
+                if (share.getAmount() == null) {
+                    throw new InvalidSplitException("Share amounts are required for " + splitType + " split");
+                }
+                inputs[i] = Money.toMinor(share.getAmount());
+            }
+        }
+
+        long amount = Money.toMinor(expense.getAmount());
+        splitTimers.get(splitType).record(() -> SplitEngine.split(splitType, amount, inputs, owed));
+        String baseCurrency = baseCurrency(group);
+        String currency = expense.getCurrency() != null ? expense.getCurrency() : baseCurrency;
+        double rate = fxRateService.rate(currency, baseCurrency, expense.getDate());
+        long baseAmount = FxRates.convert(amount, rate);
+        long[] baseOwed = owed;
+        if (rate != 1.0) {
+            baseOwed = new long[n];
+            SplitEngine.splitProportional(baseAmount, owed, baseOwed);
+        }
+        for (int i = 0; i < n; i++) {
+            ExpenseShare share = shares.get(i);
+            share.setOwedMinor(baseOwed[i]);
+            if (splitType == SplitType.EQUAL) {
+                share.setAmount(Money.toMajor(owed[i]));
+            }
+        }
+        expense.setAmount(Money.toMajor(amount));
+        expense.setCurrency(currency);
+        expense.setFxRate(rate);
+        expense.setBaseAmountMinor(baseAmount);
+        expense.setSplitType(splitType.name());
+        expense.setShares(shares);
+    }
+
+    private String baseCurrency(Group group) {
+        return group.getBaseCurrency() != null ? group.getBaseCurrency() : fxRateService.getDefaultBaseCurrency();
+    }
+
+    private static Counter splitFailureCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("smartexpense.split.validation.failures")
+                .description("Expenses rejected because their shares do not form a valid split")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private SplitType parseSplitType(String value) {
+        try {
+            return SplitType.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidSplitException("Unsupported split type: " + value);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.smartexpense.service;
+
+import com.smartexpense.exception.BadRequestException;
+import com.smartexpense.model.FxRateStatus;
+import com.smartexpense.money.FxRates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Holds the exchange rate table loaded from {@code smartexpense.fx.rates-file}.
+ * <p>
+ * The table is read once at startup and again on reload. A reload parses the
+ * whole file into a new {@link FxRates} before publishing it with a single
+ * volatile write, so a conversion sees either the old table or the new one,
+ * never a mix; a file that fails to parse leaves the old table in place.
+ * Conversions happen when an expense or settlement is written, never on the
+ * balance path.
+ */
+@Service
+public class FxRateService {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateService.class);
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final String defaultBaseCurrency;
+    private volatile Loaded current;
+
+    public FxRateService(ResourceLoader resourceLoader,
+                         @Value("${smartexpense.fx.rates-file:classpath:fx-rates.csv}") String location,
+                         @Value("${smartexpense.fx.default-base-currency:USD}") String defaultBaseCurrency) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        this.defaultBaseCurrency = defaultBaseCurrency;
+        reload();
+    }
+
+    /**
+     * Reads the rates file again and swaps it in.
+     *
+     * @throws IllegalStateException if the file cannot be read or parsed
+     */
+    public FxRateStatus reload() {
+        Resource resource = resourceLoader.getResource(location);
+        FxRates rates;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            rates = FxRates.parse(reader);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not read exchange rates from " + location, ex);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalStateException("Could not load exchange rates from " + location + ": " + ex.getMessage(), ex);
+        }
+        current = new Loaded(rates, Instant.now());
+        log.info("Loaded {} exchange rate versions for {} currencies from {}",
+                rates.getVersionCount(), rates.getCurrencies().size(), location);
+        return getStatus();
+    }
+
+    @Scheduled(cron = "${smartexpense.fx.reload-cron:-}")
+    public void reloadScheduled() {
+        try {
+            reload();
+        } catch (IllegalStateException ex) {
+            log.error("Keeping the previous exchange rates", ex);
+        }
+    }
+
+    public FxRateStatus getStatus() {
+        Loaded loaded = current;
+        FxRates rates = loaded.rates();
+        return new FxRateStatus(location, loaded.loadedAt(), rates.getVersionCount(), rates.getFirstDate(),
+                rates.getLatestDate(), rates.getCurrencies());
+    }
+
+    public String getDefaultBaseCurrency() {
+        return defaultBaseCurrency;
+    }
+
+    /**
+     * Whether a group can keep its balances in {@code currency}.
+     */
+    public boolean isSupported(String currency) {
+        return currency.equals(defaultBaseCurrency) || current.rates().supports(currency);
+    }
+
+    /**
+     * The factor converting {@code from} into {@code to} on {@code date}.
+     *
+     * @throws BadRequestException if the table has no rate for the pair on
+     *                             that date
+     */
+    public double rate(String from, String to, LocalDate date) {
+        double rate = current.rates().rate(from, to, date);
+        if (Double.isNaN(rate)) {
+            throw new BadRequestException("No exchange rate from " + from + " to " + to + " on " + date);
+        }
+        return rate;
+    }
+
+    private record Loaded(FxRates rates, Instant loadedAt) {
+    }
+}
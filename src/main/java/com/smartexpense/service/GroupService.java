@@ -0,0 +1,207 @@
+package com.smartexpense.service;
+
+import com.smartexpense.cache.EntityCache;
+import com.smartexpense.concurrency.RetryOnConflict;
+import com.smartexpense.exception.BadRequestException;
+import com.smartexpense.exception.ResourceNotFoundException;
+import com.smartexpense.model.Group;
+import com.smartexpense.repository.ExpenseRepository;
+import com.smartexpense.repository.GroupRepository;
+import com.smartexpense.repository.RecurringExpenseRepository;
+import com.smartexpense.repository.SettlementRepository;
+import com.smartexpense.repository.TombstoneRepository;
+import com.smartexpense.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class GroupService {
+
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final ExpenseRepository expenseRepository;
+    private final SettlementRepository settlementRepository;
+    private final LedgerService ledgerService;
+    private final TombstoneRepository tombstoneRepository;
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final FxRateService fxRateService;
+    private final EntityCache entityCache;
+
+    public GroupService(GroupRepository groupRepository, UserRepository userRepository,
+                        ExpenseRepository expenseRepository, SettlementRepository settlementRepository,
+                        LedgerService ledgerService, TombstoneRepository tombstoneRepository,
+                        RecurringExpenseRepository recurringExpenseRepository,
+                        SpendingRollupService spendingRollupService, FxRateService fxRateService,
+                        EntityCache entityCache) {
+        this.groupRepository = groupRepository;
+        this.userRepository = userRepository;
+        this.expenseRepository = expenseRepository;
+        this.settlementRepository = settlementRepository;
+        this.ledgerService = ledgerService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.recurringExpenseRepository = recurringExpenseRepository;
+        this.spendingRollupService = spendingRollupService;
+        this.fxRateService = fxRateService;
+        this.entityCache = entityCache;
+    }
+
+    @Transactional
+    public Group createGroup(Group group) {
+        Set<Long> memberIds = new LinkedHashSet<>();
+        if (group.getMemberIds() != null) {
+            memberIds.addAll(group.getMemberIds());
+        }
+        if (!memberIds.isEmpty() && userRepository.countByIdIn(memberIds) != memberIds.size()) {
+            throw new BadRequestException("One or more members do not exist");
+        }
+        if (group.getBaseCurrency() == null) {
+            group.setBaseCurrency(fxRateService.getDefaultBaseCurrency());
+        } else if (!fxRateService.isSupported(group.getBaseCurrency())) {
+            throw new BadRequestException("No exchange rates for currency " + group.getBaseCurrency());
+        }
+        group.setId(null);
+        group.setMemberIds(new ArrayList<>(memberIds));
+        Group saved = groupRepository.save(group);
+        ledgerService.createLedger(saved.getId(), memberIds);
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Group> listGroups() {
+        return groupRepository.findAll();
+    }
+
+    public Group getGroupById(Long id) {
+        return entityCache.getGroup(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Group not found with id: " + id));
+    }
+
+    /**
+     * Looks up the group referenced by an expense or settlement body. A missing
+     * group is a client error on the payload rather than a missing resource.
+     * <p>
+     * Deliberately not transactional: a rejection here must not mark an
+     * enclosing bulk transaction rollback-only.
+     */
+    public Group getReferencedGroup(Long id) {
+        return entityCache.getGroup(id)
+                .orElseThrow(() -> new BadRequestException("Group not found with id: " + id));
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public void deleteGroup(Long id) {
+        Group group = loadGroup(id);
+        expenseRepository.deleteAll(expenseRepository.findByGroupIdOrderByDateAscIdAsc(id));
+        settlementRepository.deleteAll(settlementRepository.findByGroupIdOrderByDateAscIdAsc(id));
+        tombstoneRepository.deleteAll(tombstoneRepository.findByGroupId(id));
+        recurringExpenseRepository.deleteAll(recurringExpenseRepository.findByGroupIdOrderByIdAsc(id));
+        spendingRollupService.deleteRollups(id);
+        ledgerService.deleteLedger(id);
+        groupRepository.delete(group);
+        entityCache.evictGroup(id);
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public void addMember(Long groupId, Long userId) {
+        Group group = loadGroup(groupId);
+        if (entityCache.getUser(userId).isEmpty()) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        if (group.getMemberIds().contains(userId)) {
+            return;
+        }
+        group.getMemberIds().add(userId);
+        groupRepository.save(group);
+        entityCache.evictGroup(groupId);
+        ledgerService.addMember(groupId, userId);
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public void removeMember(Long groupId, Long userId) {
+        Group group = loadGroup(groupId);
+        if (!group.getMemberIds().remove(userId)) {
+            throw new ResourceNotFoundException("User " + userId + " is not a member of group " + groupId);
+        }
+        groupRepository.save(group);
+        ledgerService.removeMember(groupId, userId);
+        entityCache.evictGroup(groupId);
+    }
+
+    /**
+     * Adds every user in {@code userIds} to the group, skipping current
+     * members. All users are checked with one query and the ledger is
+     * adjusted once; if any user does not exist nothing is added. When every
+     * user is already a member nothing changes and no event is published.
+     */
+    @RetryOnConflict
+    @Transactional
+    public void addMembers(Long groupId, Collection<Long> userIds) {
+        Set<Long> requested = requireUserIds(userIds);
+        Group group = loadGroup(groupId);
+        if (userRepository.countByIdIn(requested) != requested.size()) {
+            throw new BadRequestException("One or more users do not exist");
+        }
+        Set<Long> memberIds = new LinkedHashSet<>(group.getMemberIds());
+        if (!memberIds.addAll(requested)) {
+            return;
+        }
+        group.setMemberIds(new ArrayList<>(memberIds));
+        groupRepository.save(group);
+        entityCache.evictGroup(groupId);
+        ledgerService.addMembers(groupId, requested);
+    }
+
+    /**
+     * Removes every user in {@code userIds} from the group with one ledger
+     * adjustment. If any of them is not a member nothing is removed.
+     */
+    @RetryOnConflict
+    @Transactional
+    public void removeMembers(Long groupId, Collection<Long> userIds) {
+        Set<Long> requested = requireUserIds(userIds);
+        Group group = loadGroup(groupId);
+        Set<Long> memberIds = new LinkedHashSet<>(group.getMemberIds());
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : requested) {
+            if (!memberIds.remove(userId)) {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Users " + missing + " are not members of group " + groupId);
+        }
+        group.setMemberIds(new ArrayList<>(memberIds));
+        groupRepository.save(group);
+        ledgerService.removeMembers(groupId, requested);
+        entityCache.evictGroup(groupId);
+    }
+
+    private static Set<Long> requireUserIds(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new BadRequestException("At least one user id is required");
+        }
+        Set<Long> requested = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            if (userId == null) {
+                throw new BadRequestException("User ids must not be null");
+            }
+            requested.add(userId);
+        }
+        return requested;
+    }
+
+    private Group loadGroup(Long id) {
+        return groupRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Group not found with id: " + id));
+    }
+}
@@ -0,0 +1,131 @@
+package com.smartexpense.service;
+
+import com.smartexpense.exception.BadRequestException;
+import com.smartexpense.exception.ResourceNotFoundException;
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.GroupChanges;
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.Settlement;
+import com.smartexpense.model.Tombstone;
+import com.smartexpense.repository.ExpenseRepository;
+import com.smartexpense.repository.GroupRepository;
+import com.smartexpense.repository.SettlementRepository;
+import com.smartexpense.repository.TombstoneRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Delta sync for clients that keep a local copy of a group.
+ * <p>
+ * Every write to a group takes the next value of the group's change counter,
+ * kept on its ledger row: created and updated expenses and settlements carry
+ * it, membership changes record it on the ledger, and rows that leave the
+ * group leave a {@link Tombstone} with it. A client polls with the last
+ * version it saw and receives only what changed after it, read through the
+ * {@code (groupId, changeVersion)} indexes.
+ * <p>
+ * Tombstones are kept for the life of the group, so a client may resume from
+ * any version it has seen.
+ */
+@Service
+public class GroupSyncService {
+
+    private final LedgerService ledgerService;
+    private final GroupRepository groupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final SettlementRepository settlementRepository;
+    private final TombstoneRepository tombstoneRepository;
+
+    public GroupSyncService(LedgerService ledgerService, GroupRepository groupRepository,
+                            ExpenseRepository expenseRepository, SettlementRepository settlementRepository,
+                            TombstoneRepository tombstoneRepository) {
+        this.ledgerService = ledgerService;
+        this.groupRepository = groupRepository;
+        this.expenseRepository = expenseRepository;
+        this.settlementRepository = settlementRepository;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stamp(Expense expense) {
+        expense.setChangeVersion(ledgerService.nextChangeVersion(expense.getGroupId()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stamp(Settlement settlement) {
+        settlement.setChangeVersion(ledgerService.nextChangeVersion(settlement.getGroupId()));
+    }
+
+    /**
+     * Records that an expense or settlement was deleted from the group or moved
+     * out of it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoval(Long groupId, Tombstone.Kind kind, Long entityId) {
+        tombstoneRepository.save(new Tombstone(groupId, ledgerService.nextChangeVersion(groupId), kind, entityId));
+    }
+
+    /**
+     * Everything that changed in the group after version {@code since}. The
+     * ledger is read first and rows written after it are left out, so the
+     * result is exactly the changes up to the returned version; a write that
+     * commits meanwhile is picked up by the next poll.
+     */
+    @Transactional(readOnly = true)
+    public GroupChanges getChanges(Long groupId, long since) {
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("Group not found with id: " + groupId));
+        GroupLedger ledger = ledgerService.getLedger(groupId);
+        long version = ledger.getChangeVersion();
+        List<Long> memberIds = ledger.getMembersChangeVersion() > since
+                ? List.copyOf(group.getMemberIds())
+                : null;
+
+        List<Expense> expenses = new ArrayList<>();
+        Set<Long> expenseIds = new HashSet<>();
+        for (Expense expense
+                : expenseRepository.findByGroupIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(groupId, since)) {
+            if (expense.getChangeVersion() <= version) {
+                expenses.add(expense);
+                expenseIds.add(expense.getId());
+            }
+        }
+        List<Settlement> settlements = new ArrayList<>();
+        Set<Long> settlementIds = new HashSet<>();
+        for (Settlement settlement
+                : settlementRepository.findByGroupIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(groupId, since)) {
+            if (settlement.getChangeVersion() <= version) {
+                settlements.add(settlement);
+                settlementIds.add(settlement.getId());
+            }
+        }
+
+        // A row that left the group and came back is reported as present.
+        List<Long> deletedExpenseIds = new ArrayList<>();
+        List<Long> deletedSettlementIds = new ArrayList<>();
+        for (Tombstone tombstone : tombstoneRepository.findByGroupIdAndChangeVersionGreaterThan(groupId, since)) {
+            if (tombstone.getChangeVersion() > version) {
+                continue;
+            }
+            if (tombstone.getKind() == Tombstone.Kind.EXPENSE) {
+                if (!expenseIds.contains(tombstone.getEntityId())) {
+                    deletedExpenseIds.add(tombstone.getEntityId());
+                }
+            } else if (!settlementIds.contains(tombstone.getEntityId())) {
+                deletedSettlementIds.add(tombstone.getEntityId());
+            }
+        }
+        return new GroupChanges(groupId, version, memberIds, expenses, settlements,
+                deletedExpenseIds, deletedSettlementIds);
+    }
+}
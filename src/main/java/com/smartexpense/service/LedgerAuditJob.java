@@ -0,0 +1,317 @@
+package com.smartexpense.service;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseShare;
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.LedgerAuditStatus;
+import com.smartexpense.model.LedgerDrift;
+import com.smartexpense.model.Settlement;
+import com.smartexpense.money.Money;
+import com.smartexpense.repository.ExpenseRepository;
+import com.smartexpense.repository.GroupRepository;
+import com.smartexpense.repository.SettlementRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Recomputes every group's balances from its expenses and settlements and
+ * compares them with the stored ledger, reporting or repairing drift.
+ * <p>
+ * Groups are split into ranges that a fork-join pool divides between its
+ * workers, so a run scales with cores up to the connection pool. Each group
+ * is audited in its own read-only transaction with its expenses and
+ * settlements streamed in fetch-size chunks and detached once counted, so
+ * memory is bounded by one chunk per worker. The first pass takes no locks; a group found to drift is
+ * audited again under its ledger lock, so drift is only reported or repaired
+ * when it does not come from a write racing the audit. A group whose audit
+ * fails, for example on a lock timeout, is logged and counted as failed and
+ * the run goes on with the other groups.
+ * <p>
+ * One run at a time is allowed, started from the admin endpoint or on the
+ * {@code smartexpense.audit.cron} schedule.
+ */
+@Component
+public class LedgerAuditJob implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerAuditJob.class);
+
+    private final GroupRepository groupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final SettlementRepository settlementRepository;
+    private final LedgerService ledgerService;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ForkJoinPool pool;
+    private final int groupsPerTask;
+    private final int maxReportedDrift;
+    private final boolean scheduledRepair;
+    private final Counter reportedDrift;
+    private final Counter repairedDrift;
+    private final AtomicReference<Run> current = new AtomicReference<>();
+
+    public LedgerAuditJob(GroupRepository groupRepository, ExpenseRepository expenseRepository,
+                          SettlementRepository settlementRepository, LedgerService ledgerService,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                          @Value("${smartexpense.audit.parallelism:0}") int parallelism,
+                          @Value("${smartexpense.audit.groups-per-task:16}") int groupsPerTask,
+                          @Value("${smartexpense.audit.max-reported-drift:100}") int maxReportedDrift,
+                          @Value("${smartexpense.audit.scheduled-repair:false}") boolean scheduledRepair) {
+        this.groupRepository = groupRepository;
+        this.expenseRepository = expenseRepository;
+        this.settlementRepository = settlementRepository;
+        this.ledgerService = ledgerService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.groupsPerTask = Math.max(1, groupsPerTask);
+        this.maxReportedDrift = maxReportedDrift;
+        this.scheduledRepair = scheduledRepair;
+        this.reportedDrift = driftCounter(meterRegistry, "reported");
+        this.repairedDrift = driftCounter(meterRegistry, "repaired");
+    }
+
+    /**
+     * Starts a run in the background unless one is already running.
+     *
+     * @return whether a new run was started
+     */
+    public boolean start(boolean repair) {
+        Run run = new Run(repair);
+        Run previous = current.get();
+        if (previous != null && previous.isRunning() || !current.compareAndSet(previous, run)) {
+            return false;
+        }
+        pool.execute(() -> execute(run));
+        return true;
+    }
+
+    @Scheduled(cron = "${smartexpense.audit.cron:-}")
+    public void runScheduled() {
+        if (!start(scheduledRepair)) {
+            log.warn("Skipping scheduled ledger audit: the previous run is still in progress");
+        }
+    }
+
+    public LedgerAuditStatus getStatus() {
+        Run run = current.get();
+        return run == null ? LedgerAuditStatus.IDLE : run.status();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void execute(Run run) {
+        try {
+            List<Long> groupIds = readTransaction.execute(status -> groupRepository.findAllIds());
+            run.totalGroups.set(groupIds.size());
+            new AuditRange(run, groupIds, 0, groupIds.size()).invoke();
+            run.finish(null);
+            log.info("Ledger audit of {} groups found {} drifted, repaired {}, {} failed",
+                    groupIds.size(), run.driftedGroups.get(), run.repairedGroups.get(), run.failedGroups.get());
+        } catch (RuntimeException ex) {
+            log.error("Ledger audit failed", ex);
+            run.finish(ex);
+        }
+    }
+
+    private void auditGroup(Run run, Long groupId) {
+        List<LedgerDrift> drift = readTransaction.execute(status -> findDrift(run, groupId, false));
+        if (drift.isEmpty()) {
+            return;
+        }
+        TransactionTemplate confirm = run.repair ? writeTransaction : readTransaction;
+        drift = confirm.execute(status -> {
+            ledgerService.lockGroups(List.of(groupId));
+            return findDrift(run, groupId, true);
+        });
+        if (drift.isEmpty()) {
+            return;
+        }
+        run.driftedGroups.incrementAndGet();
+        run.report(drift, maxReportedDrift);
+        if (run.repair) {
+            run.repairedGroups.incrementAndGet();
+            repairedDrift.increment();
+        } else {
+            reportedDrift.increment();
+        }
+    }
+
+    /**
+     * Recomputes the group's balances the way {@link LedgerService} applies
+     * them and compares them with the ledger. When {@code confirm} is set the
+     * group is locked, and a repair run resets the ledger to the recomputed
+     * balances. A group deleted since the run started has no drift.
+     */
+    private List<LedgerDrift> findDrift(Run run, Long groupId, boolean confirm) {
+        Optional<GroupLedger> ledger = ledgerService.findLedger(groupId);
+        if (ledger.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> expected = new HashMap<>();
+        long expenses = 0;
+        try (Stream<Expense> rows = expenseRepository.streamByGroupId(groupId)) {
+            for (Expense expense : (Iterable<Expense>) rows::iterator) {
+                expected.merge(expense.getPaidByUserId(), expense.getBaseAmountMinor(), Long::sum);
+                for (ExpenseShare share : expense.getShares()) {
+                    expected.merge(share.getUserId(), -share.getOwedMinor(), Long::sum);
+                }
+                expenseRepository.detach(expense);
+                expenses++;
+            }
+        }
+        long settlements = 0;
+        try (Stream<Settlement> rows = settlementRepository.streamByGroupId(groupId)) {
+            for (Settlement settlement : (Iterable<Settlement>) rows::iterator) {
+                long amount = settlement.getBaseAmountMinor();
+                expected.merge(settlement.getFromUserId(), amount, Long::sum);
+                expected.merge(settlement.getToUserId(), -amount, Long::sum);
+                settlementRepository.detach(settlement);
+                settlements++;
+            }
+        }
+        if (!confirm) {
+            run.expensesScanned.addAndGet(expenses);
+            run.settlementsScanned.addAndGet(settlements);
+        }
+
+        Map<Long, Long> stored = ledger.get().getBalances();
+        Set<Long> userIds = new HashSet<>(stored.keySet());
+        userIds.addAll(expected.keySet());
+        List<LedgerDrift> drift = new ArrayList<>();
+        for (Long userId : userIds) {
+            long storedMinor = stored.getOrDefault(userId, 0L);
+            long expectedMinor = expected.getOrDefault(userId, 0L);
+            if (storedMinor != expectedMinor) {
+                drift.add(new LedgerDrift(groupId, userId, Money.toMajor(storedMinor), Money.toMajor(expectedMinor)));
+            }
+        }
+        if (confirm && run.repair && !drift.isEmpty()) {
+            ledgerService.resetBalances(groupId, expected);
+        }
+        return drift;
+    }
+
+    private static Counter driftCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("smartexpense.audit.drifted.groups")
+                .description("Groups whose ledger did not match their history in a ledger audit")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Audits a contiguous slice of the group ids, splitting it in half until
+     * it is small enough to run on one worker.
+     */
+    private final class AuditRange extends RecursiveAction {
+
+        private final Run run;
+        private final List<Long> groupIds;
+        private final int from;
+        private final int to;
+
+        private AuditRange(Run run, List<Long> groupIds, int from, int to) {
+            this.run = run;
+            this.groupIds = groupIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > groupsPerTask) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new AuditRange(run, groupIds, from, middle), new AuditRange(run, groupIds, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                Long groupId = groupIds.get(i);
+                try {
+                    auditGroup(run, groupId);
+                } catch (RuntimeException ex) {
+                    run.failedGroups.incrementAndGet();
+                    log.warn("Ledger audit of group {} failed", groupId, ex);
+                }
+                run.auditedGroups.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class Run {
+
+        private final boolean repair;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong totalGroups = new AtomicLong();
+        private final AtomicLong auditedGroups = new AtomicLong();
+        private final AtomicLong expensesScanned = new AtomicLong();
+        private final AtomicLong settlementsScanned = new AtomicLong();
+        private final AtomicLong driftedGroups = new AtomicLong();
+        private final AtomicLong repairedGroups = new AtomicLong();
+        private final AtomicLong failedGroups = new AtomicLong();
+        private final AtomicInteger reported = new AtomicInteger();
+        private final ConcurrentLinkedQueue<LedgerDrift> drift = new ConcurrentLinkedQueue<>();
+        private volatile LedgerAuditStatus.State state = LedgerAuditStatus.State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Run(boolean repair) {
+            this.repair = repair;
+        }
+
+        private boolean isRunning() {
+            return state == LedgerAuditStatus.State.RUNNING;
+        }
+
+        private void report(List<LedgerDrift> found, int max) {
+            for (LedgerDrift entry : found) {
+                if (reported.getAndIncrement() >= max) {
+                    return;
+                }
+                drift.add(entry);
+            }
+        }
+
+        private void finish(RuntimeException failure) {
+            finishedAt = Instant.now();
+            if (failure != null) {
+                error = failure.getMessage();
+            }
+            state = failure == null ? LedgerAuditStatus.State.COMPLETED : LedgerAuditStatus.State.FAILED;
+        }
+
+        private LedgerAuditStatus status() {
+            return new LedgerAuditStatus(state, repair, startedAt, finishedAt, totalGroups.get(),
+                    auditedGroups.get(), expensesScanned.get(), settlementsScanned.get(), driftedGroups.get(),
+                    repairedGroups.get(), failedGroups.get(), List.copyOf(drift), error);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.smartexpense.service;
+
+/**
+ * Published inside the writing transaction whenever a group's balances are
+ * adjusted or its ledger is deleted. Listeners that act on committed state
+ * must defer to commit.
+ */
+public record LedgerChangedEvent(Long groupId) {
+}
@@ -0,0 +1,199 @@
+package com.smartexpense.service;
+
+import com.smartexpense.concurrency.GroupLocks;
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseShare;
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.LedgerPosition;
+import com.smartexpense.model.Settlement;
+import com.smartexpense.repository.GroupLedgerRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains the per-group running balances.
+ * <p>
+ * Every write to an expense or settlement is translated into a delta on the
+ * affected members, applied inside the caller's transaction. Updates reverse the
+ * old contribution before applying the new one, so the ledger always matches
+ * what a full recomputation over the group history would produce.
+ * <p>
+ * Every adjusted ledger is passed back to {@code save} rather than relying on
+ * dirty checking, so the same code runs on storage backends without a
+ * persistence context.
+ * <p>
+ * A ledger is locked through {@link GroupLocks} before it is read for an
+ * update, so concurrent writers to one group queue up instead of failing on
+ * the ledger version, while writers to different groups do not contend.
+ * Every balance adjustment and ledger deletion publishes a
+ * {@link LedgerChangedEvent}.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class LedgerService {
+
+    private final GroupLedgerRepository ledgerRepository;
+    private final GroupLocks groupLocks;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LedgerService(GroupLedgerRepository ledgerRepository, GroupLocks groupLocks,
+                         ApplicationEventPublisher eventPublisher) {
+        this.ledgerRepository = ledgerRepository;
+        this.groupLocks = groupLocks;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Locks ledgers ahead of the writes that will adjust them, for callers that
+     * must read under the lock or move an entry between groups. Taking them
+     * together avoids acquiring them out of order.
+     */
+    public void lockGroups(Collection<Long> groupIds) {
+        groupLocks.lock(groupIds);
+    }
+
+    public void createLedger(Long groupId, Collection<Long> memberIds) {
+        GroupLedger ledger = new GroupLedger(groupId);
+        for (Long memberId : memberIds) {
+            ledger.getBalances().put(memberId, 0L);
+        }
+        ledger.membersChanged();
+        ledgerRepository.save(ledger);
+    }
+
+    public void deleteLedger(Long groupId) {
+        groupLocks.lock(groupId);
+        ledgerRepository.deleteById(groupId);
+        eventPublisher.publishEvent(new LedgerChangedEvent(groupId));
+    }
+
+    public void addMember(Long groupId, Long userId) {
+        addMembers(groupId, List.of(userId));
+    }
+
+    public void addMembers(Long groupId, Collection<Long> userIds) {
+        GroupLedger ledger = lockLedger(groupId);
+        for (Long userId : userIds) {
+            ledger.getBalances().putIfAbsent(userId, 0L);
+        }
+        ledger.membersChanged();
+        ledgerRepository.save(ledger);
+    }
+
+    /**
+     * Drops a departing member from the ledger. A member who still owes or is
+     * owed money keeps their row so the group balances keep netting to zero.
+     */
+    public void removeMember(Long groupId, Long userId) {
+        removeMembers(groupId, List.of(userId));
+    }
+
+    public void removeMembers(Long groupId, Collection<Long> userIds) {
+        GroupLedger ledger = lockLedger(groupId);
+        for (Long userId : userIds) {
+            ledger.getBalances().remove(userId, 0L);
+        }
+        ledger.membersChanged();
+        ledgerRepository.save(ledger);
+    }
+
+    /**
+     * Allocates the next change version of the group under its ledger lock, so
+     * versions are handed out in commit order.
+     */
+    public long nextChangeVersion(Long groupId) {
+        GroupLedger ledger = lockLedger(groupId);
+        long version = ledger.nextChangeVersion();
+        ledgerRepository.save(ledger);
+        return version;
+    }
+
+    /**
+     * Overwrites the group's balances with {@code balances}, for repairing a
+     * ledger that drifted from its history. Members missing from the map are
+     * set to zero rather than removed.
+     */
+    public void resetBalances(Long groupId, Map<Long, Long> balances) {
+        GroupLedger ledger = lockLedger(groupId);
+        ledger.getBalances().replaceAll((userId, balance) -> 0L);
+        ledger.getBalances().putAll(balances);
+        ledgerRepository.save(ledger);
+        eventPublisher.publishEvent(new LedgerChangedEvent(groupId));
+    }
+
+    public void applyExpense(Expense expense) {
+        applyExpense(expense, 1);
+    }
+
+    public void revertExpense(Expense expense) {
+        applyExpense(expense, -1);
+    }
+
+    public void applySettlement(Settlement settlement) {
+        applySettlement(settlement, 1);
+    }
+
+    public void revertSettlement(Settlement settlement) {
+        applySettlement(settlement, -1);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, Long> getBalances(Long groupId) {
+        return loadLedger(groupId).getBalances();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public GroupLedger getLedger(Long groupId) {
+        return loadLedger(groupId);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<GroupLedger> findLedger(Long groupId) {
+        return ledgerRepository.findById(groupId);
+    }
+
+    /**
+     * The user's balance in every group ledger they appear in, read with one
+     * indexed query instead of one ledger load per group.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<LedgerPosition> getPositions(Long userId) {
+        return ledgerRepository.findPositionsByUserId(userId);
+    }
+
+    private void applyExpense(Expense expense, int sign) {
+        GroupLedger ledger = lockLedger(expense.getGroupId());
+        ledger.adjust(expense.getPaidByUserId(), sign * expense.getBaseAmountMinor());
+        for (ExpenseShare share : expense.getShares()) {
+            ledger.adjust(share.getUserId(), -sign * share.getOwedMinor());
+        }
+        ledgerRepository.save(ledger);
+        eventPublisher.publishEvent(new LedgerChangedEvent(ledger.getGroupId()));
+    }
+
+    private void applySettlement(Settlement settlement, int sign) {
+        GroupLedger ledger = lockLedger(settlement.getGroupId());
+        long amount = settlement.getBaseAmountMinor();
+        ledger.adjust(settlement.getFromUserId(), sign * amount);
+        ledger.adjust(settlement.getToUserId(), -sign * amount);
+        ledgerRepository.save(ledger);
+        eventPublisher.publishEvent(new LedgerChangedEvent(ledger.getGroupId()));
+    }
+
+    private GroupLedger lockLedger(Long groupId) {
+        groupLocks.lock(groupId);
+        return loadLedger(groupId);
+    }
+
+    private GroupLedger loadLedger(Long groupId) {
+        return ledgerRepository.findById(groupId)
+                .orElseGet(() -> ledgerRepository.save(new GroupLedger(groupId)));
+    }
+}
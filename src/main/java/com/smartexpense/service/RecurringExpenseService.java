@@ -0,0 +1,220 @@
+package com.smartexpense.service;
+
+import com.smartexpense.exception.BadRequestException;
+import com.smartexpense.exception.ResourceNotFoundException;
+import com.smartexpense.model.DueTemplate;
+import com.smartexpense.model.RecurringExpense;
+import com.smartexpense.model.RecurringRunResult;
+import com.smartexpense.repository.RecurringExpenseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recurring expense templates and the scheduler that turns their due
+ * occurrences into expenses.
+ * <p>
+ * A run reads the ids of due templates from the next-run index in batches of
+ * batch-size, so templates that are not due are never read. Each batch starts
+ * after the (next-run date, id) key of the last one, so the scan only moves
+ * forward on the index even when a template fails and stays due. A template
+ * that is still due after its occurrences were created comes up again later in
+ * the scan and is skipped. Each template is
+ * materialized in its own transaction: the expenses of its due occurrences and
+ * the advanced next-run date commit together, so a run stopped at any point
+ * leaves no occurrence both created and still due, and repeating a run, or
+ * running it after a restart, creates nothing twice. A template that fails
+ * stays due and is tried again on the next run.
+ * <p>
+ * One run at a time is allowed per instance, started on the
+ * {@code smartexpense.recurring.cron} schedule or from the admin endpoint;
+ * runs on other instances are kept apart by the template's version.
+ */
+@Service
+public class RecurringExpenseService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringExpenseService.class);
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final ExpenseService expenseService;
+    private final GroupService groupService;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int batchSize;
+    private final int maxOccurrencesPerRun;
+    private final Counter createdExpenses;
+    private final Counter failedTemplates;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RecurringExpenseService(RecurringExpenseRepository recurringExpenseRepository,
+                                   ExpenseService expenseService, GroupService groupService,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                   @Value("${smartexpense.recurring.batch-size:100}") int batchSize,
+                                   @Value("${smartexpense.recurring.max-occurrences-per-run:100}")
+                                   int maxOccurrencesPerRun) {
+        this.recurringExpenseRepository = recurringExpenseRepository;
+        this.expenseService = expenseService;
+        this.groupService = groupService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxOccurrencesPerRun = Math.max(1, maxOccurrencesPerRun);
+        this.createdExpenses = runCounter(meterRegistry, "created");
+        this.failedTemplates = runCounter(meterRegistry, "failed");
+    }
+
+    /**
+     * Saves a new template, checking its split against the group the way a
+     * single expense is checked. Its first occurrence is on the start date.
+     */
+    @Transactional
+    public RecurringExpense createTemplate(RecurringExpense template) {
+        if (template.getEndDate() != null && template.getEndDate().isBefore(template.getStartDate())) {
+            throw new BadRequestException("End date must not be before start date");
+        }
+        if (template.getShares() == null) {
+            template.setShares(new ArrayList<>());
+        }
+        template.setId(null);
+        template.setVersion(null);
+        template.setOccurrences(0);
+        template.setNextRunDate(template.getStartDate());
+        expenseService.validateSplit(template.nextExpense());
+        return recurringExpenseRepository.save(template);
+    }
+
+    @Transactional(readOnly = true)
+    public RecurringExpense getTemplate(Long id) {
+        return loadTemplate(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringExpense> listTemplatesByGroup(Long groupId) {
+        groupService.getGroupById(groupId);
+        return recurringExpenseRepository.findByGroupIdOrderByIdAsc(groupId);
+    }
+
+    /**
+     * Deletes the template. Expenses it already created are kept.
+     */
+    @Transactional
+    public void deleteTemplate(Long id) {
+        recurringExpenseRepository.delete(loadTemplate(id));
+    }
+
+    @Scheduled(cron = "${smartexpense.recurring.cron:0 0 * * * *}")
+    public void runScheduled() {
+        if (runDue(LocalDate.now()).isEmpty()) {
+            log.warn("Skipping scheduled recurring expense run: the previous run is still in progress");
+        }
+    }
+
+    /**
+     * Materializes every occurrence due on or before {@code date}, up to
+     * max-occurrences-per-run per template.
+     *
+     * @return the outcome, or empty if a run is already in progress
+     */
+    public Optional<RecurringRunResult> runDue(LocalDate date) {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            int templates = 0;
+            int created = 0;
+            int failed = 0;
+            LongSet visited = new LongOpenHashSet();
+            DueTemplate after = null;
+            while (true) {
+                DueTemplate cursor = after;
+                List<DueTemplate> due = readTransaction.execute(status -> cursor == null
+                        ? recurringExpenseRepository.findDue(date, Limit.of(batchSize))
+                        : recurringExpenseRepository.findDueAfter(
+                                date, cursor.nextRunDate(), cursor.id(), Limit.of(batchSize)));
+                for (DueTemplate template : due) {
+                    Long id = template.id();
+                    if (!visited.add(id.longValue())) {
+                        // advanced earlier in this run but capped at max-occurrences-per-run
+                        continue;
+                    }
+                    templates++;
+                    try {
+                        created += materialize(id, date);
+                    } catch (ConcurrencyFailureException ex) {
+                        log.debug("Recurring expense {} was materialized concurrently", id);
+                    } catch (RuntimeException ex) {
+                        failed++;
+                        failedTemplates.increment();
+                        log.warn("Could not materialize recurring expense {}: {}", id, ex.getMessage());
+                    }
+                }
+                if (due.size() < batchSize) {
+                    break;
+                }
+                after = due.get(due.size() - 1);
+            }
+            if (created > 0 || failed > 0) {
+                log.info("Recurring expense run for {} created {} expenses from {} templates, {} failed",
+                        date, created, templates, failed);
+            }
+            return Optional.of(new RecurringRunResult(date, templates, created, failed));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Creates the template's occurrences due on or before {@code date} and
+     * advances it, all in one transaction.
+     */
+    private int materialize(Long id, LocalDate date) {
+        return writeTransaction.execute(status -> {
+            Optional<RecurringExpense> found = recurringExpenseRepository.findById(id);
+            if (found.isEmpty()) {
+                return 0;
+            }
+            RecurringExpense template = found.get();
+            int created = 0;
+            while (template.isDue(date) && created < maxOccurrencesPerRun) {
+                expenseService.addExpense(template.nextExpense());
+                template.advance();
+                created++;
+            }
+            if (created > 0) {
+                recurringExpenseRepository.save(template);
+                createdExpenses.increment(created);
+            }
+            return created;
+        });
+    }
+
+    private RecurringExpense loadTemplate(Long id) {
+        return recurringExpenseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring expense not found with id: " + id));
+    }
+
+    private static Counter runCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("smartexpense.recurring.materialized")
+                .description("Expenses created from recurring templates, and templates that failed to materialize")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
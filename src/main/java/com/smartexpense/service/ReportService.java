@@ -0,0 +1,125 @@
+package com.smartexpense.service;
+
+import com.smartexpense.cache.EntityCache;
+import com.smartexpense.exception.BadRequestException;
+import com.smartexpense.exception.ResourceNotFoundException;
+import com.smartexpense.model.LedgerPosition;
+import com.smartexpense.model.MemberBalance;
+import com.smartexpense.model.SpendingGranularity;
+import com.smartexpense.model.SpendingReport;
+import com.smartexpense.model.StoredSettlementPlan;
+import com.smartexpense.model.User;
+import com.smartexpense.model.UserBalanceSummary;
+import com.smartexpense.model.UserGroupBalance;
+import com.smartexpense.money.Money;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Read side of the balance ledger. Every report is built from the stored
+ * running balances, so its cost depends on the number of members only, and
+ * settlement plans are served precomputed. The member count of every report
+ * is recorded so latency can be read against group size.
+ */
+@Service
+public class ReportService {
+
+    private final EntityCache entityCache;
+    private final LedgerService ledgerService;
+    private final SettlementPlanPipeline settlementPlanPipeline;
+    private final SpendingRollupService spendingRollupService;
+    private final DistributionSummary balanceGroupSize;
+
+    public ReportService(EntityCache entityCache, LedgerService ledgerService,
+                         SettlementPlanPipeline settlementPlanPipeline, SpendingRollupService spendingRollupService,
+                         MeterRegistry meterRegistry) {
+        this.entityCache = entityCache;
+        this.ledgerService = ledgerService;
+        this.settlementPlanPipeline = settlementPlanPipeline;
+        this.spendingRollupService = spendingRollupService;
+        this.balanceGroupSize = groupSizeSummary(meterRegistry, "balances");
+    }
+
+    @Transactional(readOnly = true)
+    public List<MemberBalance> getGroupBalances(Long groupId) {
+        requireGroup(groupId);
+        Map<Long, Long> balances = new TreeMap<>(ledgerService.getBalances(groupId));
+        balanceGroupSize.record(balances.size());
+        Map<Long, String> names = entityCache.getUserNames(balances.keySet());
+        List<MemberBalance> result = new ArrayList<>(balances.size());
+        balances.forEach((userId, balance) ->
+                result.add(new MemberBalance(groupId, userId, names.get(userId), Money.toMajor(balance))));
+        return result;
+    }
+
+    /**
+     * The stored payments that clear every balance in the group, maintained by
+     * {@link SettlementPlanPipeline}. The choice between the exact and the
+     * greedy strategy is left to {@code SettlementPlanner}.
+     */
+    @Transactional(readOnly = true)
+    public StoredSettlementPlan getSettlementPlan(Long groupId) {
+        requireGroup(groupId);
+        return settlementPlanPipeline.getPlan(groupId);
+    }
+
+    /**
+     * The user's position in every group they belong to, read from the ledger
+     * rows indexed by user rather than from one balance report per group.
+     */
+    @Transactional(readOnly = true)
+    public UserBalanceSummary getUserSummary(Long userId) {
+        User user = entityCache.getUser(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        List<LedgerPosition> positions = ledgerService.getPositions(userId);
+        List<Long> groupIds = new ArrayList<>(positions.size());
+        for (LedgerPosition position : positions) {
+            groupIds.add(position.groupId());
+        }
+        Map<Long, String> groupNames = entityCache.getGroupNames(groupIds);
+        List<UserGroupBalance> groups = new ArrayList<>(positions.size());
+        long total = 0;
+        for (LedgerPosition position : positions) {
+            total += position.netBalanceMinor();
+            groups.add(new UserGroupBalance(position.groupId(), groupNames.get(position.groupId()),
+                    Money.toMajor(position.netBalanceMinor())));
+        }
+        return new UserBalanceSummary(userId, user.getName(), groups, Money.toMajor(total));
+    }
+
+    /**
+     * The group's spending per day, week or month, read from the rollups kept
+     * by {@link SpendingRollupService}, so the cost depends on the number of
+     * buckets rather than of expenses.
+     */
+    @Transactional(readOnly = true)
+    public SpendingReport getSpending(Long groupId, SpendingGranularity granularity, LocalDate from, LocalDate to) {
+        requireGroup(groupId);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        return spendingRollupService.getReport(groupId, granularity, from, to);
+    }
+
+    static DistributionSummary groupSizeSummary(MeterRegistry meterRegistry, String report) {
+        return DistributionSummary.builder("smartexpense.report.group.members")
+                .description("Members in the group of each report")
+                .baseUnit("members")
+                .tag("report", report)
+                .register(meterRegistry);
+    }
+
+    private void requireGroup(Long groupId) {
+        if (entityCache.getGroup(groupId).isEmpty()) {
+            throw new ResourceNotFoundException("Group not found with id: " + groupId);
+        }
+    }
+}
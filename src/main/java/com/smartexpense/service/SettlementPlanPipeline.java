@@ -0,0 +1,232 @@
+package com.smartexpense.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartexpense.cache.EntityCache;
+import com.smartexpense.model.SettlementPlan;
+import com.smartexpense.model.SettlementSuggestion;
+import com.smartexpense.model.StoredSettlementPlan;
+import com.smartexpense.money.Money;
+import com.smartexpense.settlement.SettlementPlanner;
+import com.smartexpense.settlement.Transfers;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the latest settlement plan of recently read groups, recomputed in the
+ * background after their balances change.
+ * <p>
+ * The first committed write to a group opens a debounce window and every
+ * write committed during it is folded into one recompute at its end, so a
+ * burst of writes costs one plan. Each group counts its committed changes
+ * and a stored plan records the count it was computed at, so a recompute that
+ * finishes late never replaces a newer plan. Reads are served from the stored
+ * plan and may trail a write by the debounce window plus the compute time;
+ * the first read of a group computes its plan on the spot.
+ * <p>
+ * The entity tag is a digest of the plan's JSON, so it only changes when the
+ * plan itself does, including across restarts. User names are not part of a
+ * group's changes, so every read checks the stored names against the entity
+ * cache and stores a renamed plan, with its own entity tag, when a user was
+ * renamed or deleted since.
+ */
+@Component
+public class SettlementPlanPipeline implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementPlanPipeline.class);
+
+    private final EntityCache entityCache;
+    private final LedgerService ledgerService;
+    private final SettlementPlanner settlementPlanner;
+    private final ObjectMapper objectMapper;
+    private final long debounceMillis;
+    private final Cache<Long, GroupState> groups;
+    private final ScheduledExecutorService recomputer;
+    private final DistributionSummary planGroupSize;
+    private final Timer planTimer;
+    private final CommittedGroupChanges committedChanges = new CommittedGroupChanges(this::changed);
+
+    public SettlementPlanPipeline(EntityCache entityCache, LedgerService ledgerService,
+                                  SettlementPlanner settlementPlanner, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${smartexpense.settlement-plan.debounce-ms:250}") long debounceMillis,
+                                  @Value("${smartexpense.settlement-plan.max-groups:10000}") long maxGroups,
+                                  @Value("${smartexpense.settlement-plan.recompute-threads:2}") int threads) {
+        this.entityCache = entityCache;
+        this.ledgerService = ledgerService;
+        this.settlementPlanner = settlementPlanner;
+        this.objectMapper = objectMapper;
+        this.debounceMillis = debounceMillis;
+        this.groups = Caffeine.newBuilder().maximumSize(maxGroups).build();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "settlement-plan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.recomputer = executor;
+        this.planGroupSize = ReportService.groupSizeSummary(meterRegistry, "settlement-plan");
+        this.planTimer = Timer.builder("smartexpense.settlement.plan.compute")
+                .description("Settlement plan computation, excluding the ledger read")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The stored plan of an existing group, computed now if the group has none.
+     */
+    public StoredSettlementPlan getPlan(Long groupId) {
+        GroupState state = groups.get(groupId, id -> new GroupState());
+        StoredSettlementPlan plan = state.plan;
+        return plan != null ? withCurrentNames(state, plan) : state.offer(compute(groupId, state.changes.get()));
+    }
+
+    /**
+     * Collects the groups changed by the current transaction and hands them
+     * to the pipeline once it commits.
+     */
+    @EventListener
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        committedChanges.add(event.groupId());
+    }
+
+    @Override
+    public void destroy() {
+        recomputer.shutdownNow();
+    }
+
+    /**
+     * Groups without a stored plan are skipped; nobody has asked for their
+     * plan, and the first read computes it anyway.
+     */
+    private void changed(Set<Long> groupIds) {
+        for (Long groupId : groupIds) {
+            GroupState state = groups.getIfPresent(groupId);
+            if (state == null) {
+                continue;
+            }
+            state.changes.incrementAndGet();
+            if (state.scheduled.compareAndSet(false, true)) {
+                recomputer.schedule(() -> recompute(groupId, state), debounceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void recompute(Long groupId, GroupState state) {
+        state.scheduled.set(false);
+        long version = state.changes.get();
+        try {
+            if (entityCache.getGroup(groupId).isEmpty()) {
+                groups.invalidate(groupId);
+                return;
+            }
+            state.offer(compute(groupId, version));
+        } catch (RuntimeException ex) {
+            log.warn("Could not recompute the settlement plan of group {}", groupId, ex);
+        }
+    }
+
+    private StoredSettlementPlan compute(Long groupId, long version) {
+        Map<Long, Long> ledger = new TreeMap<>(ledgerService.getBalances(groupId));
+        planGroupSize.record(ledger.size());
+        long[] userIds = new long[ledger.size()];
+        long[] balances = new long[ledger.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : ledger.entrySet()) {
+            userIds[i] = entry.getKey();
+            balances[i] = entry.getValue();
+            i++;
+        }
+
+        Transfers transfers = planTimer.record(() -> settlementPlanner.plan(balances));
+        Map<Long, String> names = entityCache.getUserNames(ledger.keySet());
+        List<SettlementSuggestion> suggestions = new ArrayList<>(transfers.size());
+        for (int t = 0; t < transfers.size(); t++) {
+            long fromUserId = userIds[transfers.from(t)];
+            long toUserId = userIds[transfers.to(t)];
+            suggestions.add(new SettlementSuggestion(fromUserId, names.get(fromUserId),
+                    toUserId, names.get(toUserId), Money.toMajor(transfers.amount(t))));
+        }
+        SettlementPlan plan = new SettlementPlan(groupId, suggestions);
+        return new StoredSettlementPlan(version, etag(plan), plan);
+    }
+
+    private StoredSettlementPlan withCurrentNames(GroupState state, StoredSettlementPlan stored) {
+        List<SettlementSuggestion> suggestions = stored.plan().getSuggestions();
+        Set<Long> userIds = new HashSet<>();
+        for (SettlementSuggestion suggestion : suggestions) {
+            userIds.add(suggestion.getFromUserId());
+            userIds.add(suggestion.getToUserId());
+        }
+        Map<Long, String> names = entityCache.getUserNames(userIds);
+        boolean current = true;
+        for (SettlementSuggestion suggestion : suggestions) {
+            if (!Objects.equals(suggestion.getFromUserName(), names.get(suggestion.getFromUserId()))
+                    || !Objects.equals(suggestion.getToUserName(), names.get(suggestion.getToUserId()))) {
+                current = false;
+                break;
+            }
+        }
+        if (current) {
+            return stored;
+        }
+        List<SettlementSuggestion> renamed = new ArrayList<>(suggestions.size());
+        for (SettlementSuggestion suggestion : suggestions) {
+            renamed.add(new SettlementSuggestion(suggestion.getFromUserId(), names.get(suggestion.getFromUserId()),
+                    suggestion.getToUserId(), names.get(suggestion.getToUserId()), suggestion.getAmount()));
+        }
+        SettlementPlan plan = new SettlementPlan(stored.plan().getGroupId(), renamed);
+        return state.offer(new StoredSettlementPlan(stored.version(), etag(plan), plan));
+    }
+
+    private String etag(SettlementPlan plan) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(plan));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot compute the entity tag of a settlement plan", ex);
+        }
+    }
+
+    private static final class GroupState {
+
+        private final AtomicLong changes = new AtomicLong();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile StoredSettlementPlan plan;
+
+        /**
+         * Stores the plan unless a plan computed at a later change is already
+         * stored, and returns whichever is kept.
+         */
+        synchronized StoredSettlementPlan offer(StoredSettlementPlan candidate) {
+            if (plan == null || candidate.version() >= plan.version()) {
+                plan = candidate;
+            }
+            return plan;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.smartexpense.service;
+
+import com.smartexpense.concurrency.RetryOnConflict;
+import com.smartexpense.exception.BadRequestException;
+import com.smartexpense.exception.ResourceNotFoundException;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.Settlement;
+import com.smartexpense.model.Tombstone;
+import com.smartexpense.money.FxRates;
+import com.smartexpense.money.Money;
+import com.smartexpense.repository.SettlementRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class SettlementService {
+
+    private final SettlementRepository settlementRepository;
+    private final GroupService groupService;
+    private final LedgerService ledgerService;
+    private final GroupSyncService groupSyncService;
+    private final FxRateService fxRateService;
+
+    public SettlementService(SettlementRepository settlementRepository, GroupService groupService,
+                             LedgerService ledgerService, GroupSyncService groupSyncService,
+                             FxRateService fxRateService) {
+        this.settlementRepository = settlementRepository;
+        this.groupService = groupService;
+        this.ledgerService = ledgerService;
+        this.groupSyncService = groupSyncService;
+        this.fxRateService = fxRateService;
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public Settlement addSettlement(Settlement settlement) {
+        validate(settlement);
+        settlement.setId(null);
+        settlement.setVersion(null);
+        groupSyncService.stamp(settlement);
+        Settlement saved = settlementRepository.save(settlement);
+        ledgerService.applySettlement(saved);
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public Settlement getSettlementById(Long id) {
+        return settlementRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Settlement not found with id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Settlement> listSettlementsByGroup(Long groupId) {
+        return settlementRepository.findByGroupIdOrderByDateAscIdAsc(groupId);
+    }
+
+    /**
+     * The group's settlements from and/or to the given users, read through the
+     * {@code (groupId, fromUserId, toUserId)} index.
+     */
+    @Transactional(readOnly = true)
+    public List<Settlement> listSettlementsByGroup(Long groupId, Long fromUserId, Long toUserId) {
+        if (fromUserId == null && toUserId == null) {
+            return listSettlementsByGroup(groupId);
+        }
+        if (toUserId == null) {
+            return settlementRepository.findByGroupIdAndFromUserIdOrderByDateAscIdAsc(groupId, fromUserId);
+        }
+        if (fromUserId == null) {
+            return settlementRepository.findByGroupIdAndToUserIdOrderByDateAscIdAsc(groupId, toUserId);
+        }
+        return settlementRepository.findByGroupIdAndFromUserIdAndToUserIdOrderByDateAscIdAsc(groupId, fromUserId,
+                toUserId);
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public Settlement updateSettlement(Long id, Settlement update) {
+        validate(update);
+        Settlement settlement = getSettlementForUpdate(id, update.getGroupId());
+        ledgerService.revertSettlement(settlement);
+        if (!settlement.getGroupId().equals(update.getGroupId())) {
+            groupSyncService.recordRemoval(settlement.getGroupId(), Tombstone.Kind.SETTLEMENT, id);
+        }
+        settlement.setGroupId(update.getGroupId());
+        settlement.setFromUserId(update.getFromUserId());
+        settlement.setToUserId(update.getToUserId());
+        settlement.setAmount(update.getAmount());
+        settlement.setCurrency(update.getCurrency());
+        settlement.setFxRate(update.getFxRate());
+        settlement.setBaseAmountMinor(update.getBaseAmountMinor());
+        settlement.setDate(update.getDate());
+        settlement.setNote(update.getNote());
+        groupSyncService.stamp(settlement);
+        ledgerService.applySettlement(settlement);
+        return settlementRepository.save(settlement);
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public void deleteSettlement(Long id) {
+        Settlement settlement = getSettlementForUpdate(id, null);
+        ledgerService.revertSettlement(settlement);
+        groupSyncService.recordRemoval(settlement.getGroupId(), Tombstone.Kind.SETTLEMENT, id);
+        settlementRepository.delete(settlement);
+    }
+
+    /**
+     * Locks the ledgers a settlement write touches before the settlement is
+     * read; see {@code ExpenseService}.
+     */
+    private Settlement getSettlementForUpdate(Long id, Long targetGroupId) {
+        Long groupId = settlementRepository.findGroupIdById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Settlement not found with id: " + id));
+        ledgerService.lockGroups(targetGroupId == null ? List.of(groupId) : List.of(groupId, targetGroupId));
+        Settlement settlement = getSettlementById(id);
+        ledgerService.lockGroups(List.of(settlement.getGroupId()));
+        return settlement;
+    }
+
+    /**
+     * Checks the settlement against its group and converts its amount into
+     * the group's base currency at the rate on its date.
+     */
+    private void validate(Settlement settlement) {
+        if (settlement.getFromUserId().equals(settlement.getToUserId())) {
+            throw new BadRequestException("Payer and receiver must be different users");
+        }
+        Group group = groupService.getReferencedGroup(settlement.getGroupId());
+        if (!group.getMemberIds().contains(settlement.getFromUserId())
+                || !group.getMemberIds().contains(settlement.getToUserId())) {
+            throw new BadRequestException("Both users must be members of the group");
+        }
+        String baseCurrency = group.getBaseCurrency() != null
+                ? group.getBaseCurrency() : fxRateService.getDefaultBaseCurrency();
+        String currency = settlement.getCurrency() != null ? settlement.getCurrency() : baseCurrency;
+        double rate = fxRateService.rate(currency, baseCurrency, settlement.getDate());
+        settlement.setCurrency(currency);
+        settlement.setFxRate(rate);
+        settlement.setBaseAmountMinor(FxRates.convert(Money.toMinor(settlement.getAmount()), rate));
+    }
+}
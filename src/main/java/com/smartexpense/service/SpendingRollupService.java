@@ -0,0 +1,141 @@
+package com.smartexpense.service;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.MemberSpending;
+import com.smartexpense.model.SpendingBucket;
+import com.smartexpense.model.SpendingGranularity;
+import com.smartexpense.model.SpendingReport;
+import com.smartexpense.model.SpendingRollup;
+import com.smartexpense.money.Money;
+import com.smartexpense.repository.SpendingRollupRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the day, week and month spending rollups of every group.
+ * <p>
+ * Each expense write adjusts the one bucket per granularity that contains the
+ * expense date, inside the caller's transaction and under the group lock the
+ * ledger update already holds, so rollups always match the expenses. Updates
+ * revert the old contribution before applying the new one. A bucket whose
+ * last expense is removed is deleted.
+ * <p>
+ * Bulk inserts pass a {@link Batch} that keeps the buckets they touched, so
+ * each bucket is looked up once per batch and without flushing; otherwise
+ * every lookup would flush the batch's pending inserts one expense at a time.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class SpendingRollupService {
+
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final SpendingRollupRepository rollupRepository;
+
+    public SpendingRollupService(SpendingRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    public void applyExpense(Expense expense) {
+        adjust(expense, 1, null);
+    }
+
+    /**
+     * Applies an expense of a bulk insert, taking its buckets from
+     * {@code batch} where it already holds them.
+     */
+    public void applyExpense(Expense expense, Batch batch) {
+        adjust(expense, 1, batch);
+    }
+
+    public void revertExpense(Expense expense) {
+        adjust(expense, -1, null);
+    }
+
+    public void deleteRollups(Long groupId) {
+        rollupRepository.deleteAll(rollupRepository.findByGroupId(groupId));
+    }
+
+    /**
+     * The group's buckets of the given width from the one containing
+     * {@code from} up to {@code to}, both optional.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public SpendingReport getReport(Long groupId, SpendingGranularity granularity, LocalDate from, LocalDate to) {
+        List<SpendingRollup> rollups = rollupRepository
+                .findByGroupIdAndGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(groupId, granularity,
+                        from != null ? granularity.periodStart(from) : EARLIEST, to != null ? to : LATEST);
+        List<SpendingBucket> buckets = new ArrayList<>(rollups.size());
+        for (SpendingRollup rollup : rollups) {
+            buckets.add(new SpendingBucket(rollup.getPeriodStart(), Money.toMajor(rollup.getTotalMinor()),
+                    rollup.getExpenseCount(), members(rollup)));
+        }
+        return new SpendingReport(groupId, granularity, buckets);
+    }
+
+    private void adjust(Expense expense, int sign, Batch batch) {
+        for (SpendingGranularity granularity : SpendingGranularity.values()) {
+            LocalDate periodStart = granularity.periodStart(expense.getDate());
+            Bucket bucket = new Bucket(expense.getGroupId(), granularity, periodStart);
+            SpendingRollup rollup = batch != null ? batch.rollups.get(bucket) : null;
+            if (rollup == null) {
+                rollup = (batch != null
+                        ? rollupRepository.findUnflushedBucket(bucket.groupId(), granularity, periodStart)
+                        : rollupRepository.findByGroupIdAndGranularityAndPeriodStart(bucket.groupId(), granularity,
+                                periodStart))
+                        .orElseGet(() -> new SpendingRollup(bucket.groupId(), granularity, periodStart));
+            }
+            rollup.adjust(expense, sign);
+            if (rollup.isEmpty()) {
+                if (rollup.getId() != null) {
+                    rollupRepository.delete(rollup);
+                }
+                if (batch != null) {
+                    batch.rollups.remove(bucket);
+                }
+            } else {
+                SpendingRollup saved = rollupRepository.save(rollup);
+                if (batch != null) {
+                    batch.rollups.put(bucket, saved);
+                }
+            }
+        }
+    }
+
+    /**
+     * The buckets touched by one bulk insert transaction. Must not outlive the
+     * transaction.
+     */
+    public static final class Batch {
+
+        private final Map<Bucket, SpendingRollup> rollups = new HashMap<>();
+    }
+
+    private record Bucket(Long groupId, SpendingGranularity granularity, LocalDate periodStart) {
+    }
+
+    private static List<MemberSpending> members(SpendingRollup rollup) {
+        Map<Long, MemberSpending> members = new TreeMap<>();
+        for (Long userId : rollup.getPaidMinor().keySet()) {
+            members.put(userId, member(rollup, userId));
+        }
+        for (Long userId : rollup.getShareMinor().keySet()) {
+            members.computeIfAbsent(userId, id -> member(rollup, id));
+        }
+        return new ArrayList<>(members.values());
+    }
+
+    private static MemberSpending member(SpendingRollup rollup, Long userId) {
+        return new MemberSpending(userId, Money.toMajor(rollup.getPaidMinor().getOrDefault(userId, 0L)),
+                Money.toMajor(rollup.getShareMinor().getOrDefault(userId, 0L)));
+    }
+}
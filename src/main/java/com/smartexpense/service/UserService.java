@@ -0,0 +1,73 @@
+package com.smartexpense.service;
+
+import com.smartexpense.cache.EntityCache;
+import com.smartexpense.exception.ResourceNotFoundException;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.User;
+import com.smartexpense.repository.GroupRepository;
+import com.smartexpense.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
+    private final LedgerService ledgerService;
+    private final EntityCache entityCache;
+
+    public UserService(UserRepository userRepository, GroupRepository groupRepository,
+                       LedgerService ledgerService, EntityCache entityCache) {
+        this.userRepository = userRepository;
+        this.groupRepository = groupRepository;
+        this.ledgerService = ledgerService;
+        this.entityCache = entityCache;
+    }
+
+    @Transactional
+    public User addUser(User user) {
+        user.setId(null);
+        return userRepository.save(user);
+    }
+
+    @Transactional(readOnly = true)
+    public List<User> listAllUsers() {
+        return userRepository.findAll();
+    }
+
+    public User getUserById(Long id) {
+        return entityCache.getUser(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+
+    @Transactional
+    public User updateUser(Long id, User update) {
+        User user = loadUser(id);
+        user.setName(update.getName());
+        user.setEmail(update.getEmail());
+        user.setPhoneNumber(update.getPhoneNumber());
+        entityCache.evictUser(id);
+        return userRepository.save(user);
+    }
+
+    @Transactional
+    public void deleteUser(Long id) {
+        User user = loadUser(id);
+        for (Group group : groupRepository.findByMemberId(id)) {
+            group.getMemberIds().remove(id);
+            groupRepository.save(group);
+            ledgerService.removeMember(group.getId(), id);
+            entityCache.evictGroup(group.getId());
+        }
+        userRepository.delete(user);
+        entityCache.evictUser(id);
+    }
+
+    private User loadUser(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartexpense.settlement;
+
+/**
+ * Produces a settlement with the minimum possible number of transfers.
+ * <p>
+ * A set of {@code k} non-zero balances that splits into {@code g} disjoint
+ * zero-sum subsets can be settled with {@code k - g} transfers and no fewer,
+ * so the solver maximises {@code g} with a dynamic program over subsets and
+ * then settles each subset greedily. Time is O(2^k * k) and memory O(2^k), so
+ * it is only suitable for small groups.
+ */
+public final class ExactSettlementSolver {
+
+    /** Hard upper bound on the non-zero parties the subset table may cover. */
+    public static final int MAX_PARTIES = 20;
+
+    private ExactSettlementSolver() {
+    }
+
+    /**
+     * @param balances net balance of every party in minor units, summing to zero;
+     *                 positive means the party is owed money
+     */
+    public static Transfers solve(long[] balances) {
+        int[] parties = new int[balances.length];
+        int k = 0;
+        for (int i = 0; i < balances.length; i++) {
+            if (balances[i] != 0) {
+                parties[k++] = i;
+            }
+        }
+        if (k > MAX_PARTIES) {
+            throw new IllegalArgumentException("Exact solver supports at most " + MAX_PARTIES
+                    + " non-zero balances, got " + k);
+        }
+        Transfers transfers = new Transfers(k);
+        if (k == 0) {
+            return transfers;
+        }
+
+        int full = (1 << k) - 1;
+        long[] sum = new long[full + 1];
+        byte[] groups = new byte[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            int lowest = Integer.numberOfTrailingZeros(mask);
+            sum[mask] = sum[mask & (mask - 1)] + balances[parties[lowest]];
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                best = Math.max(best, groups[mask ^ Integer.lowestOneBit(rest)]);
+            }
+            groups[mask] = (byte) (sum[mask] == 0 ? best + 1 : best);
+        }
+
+        // Walk the table back from the full set to recover an insertion order in
+        // which every zero-sum prefix closes one of the optimal subsets.
+        int[] order = new int[k];
+        int pos = k;
+        for (int mask = full; mask != 0; ) {
+            int target = sum[mask] == 0 ? groups[mask] - 1 : groups[mask];
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = Integer.lowestOneBit(rest);
+                if (groups[mask ^ bit] == target) {
+                    order[--pos] = parties[Integer.numberOfTrailingZeros(bit)];
+                    mask ^= bit;
+                    break;
+                }
+            }
+        }
+
+        long prefix = 0;
+        int start = 0;
+        for (int i = 0; i < k; i++) {
+            prefix += balances[order[i]];
+            if (prefix == 0) {
+                GreedySettlementSolver.solve(balances, order, start, i + 1, transfers);
+                start = i + 1;
+            }
+        }
+        return transfers;
+    }
+}
@@ -0,0 +1,124 @@
+package com.smartexpense.settlement;
+
+/**
+ * Settles balances by repeatedly matching the largest remaining debtor with the
+ * largest remaining creditor.
+ * <p>
+ * Both sides are kept in binary max-heaps of party indexes keyed by the
+ * remaining amount, so a plan over {@code n} parties is produced in
+ * O(n log n) with at most {@code n - 1} transfers. It is not always minimal;
+ * see {@link ExactSettlementSolver} for small groups.
+ */
+public final class GreedySettlementSolver {
+
+    private GreedySettlementSolver() {
+    }
+
+    /**
+     * @param balances net balance of every party in minor units, summing to zero;
+     *                 positive means the party is owed money
+     */
+    public static Transfers solve(long[] balances) {
+        int[] parties = new int[balances.length];
+        for (int i = 0; i < parties.length; i++) {
+            parties[i] = i;
+        }
+        Transfers transfers = new Transfers(balances.length);
+        solve(balances, parties, 0, parties.length, transfers);
+        return transfers;
+    }
+
+    /**
+     * Settles the parties {@code parties[start..end)} among themselves. Their
+     * balances must sum to zero.
+     */
+    static void solve(long[] balances, int[] parties, int start, int end, Transfers out) {
+        int count = end - start;
+        long[] remaining = new long[balances.length];
+        IndexHeap creditors = new IndexHeap(count, remaining);
+        IndexHeap debtors = new IndexHeap(count, remaining);
+        for (int i = start; i < end; i++) {
+            int party = parties[i];
+            long balance = balances[party];
+            if (balance > 0) {
+                remaining[party] = balance;
+                creditors.push(party);
+            } else if (balance < 0) {
+                remaining[party] = -balance;
+                debtors.push(party);
+            }
+        }
+
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            int creditor = creditors.pop();
+            int debtor = debtors.pop();
+            long amount = Math.min(remaining[creditor], remaining[debtor]);
+            out.add(debtor, creditor, amount);
+            remaining[creditor] -= amount;
+            remaining[debtor] -= amount;
+            if (remaining[creditor] > 0) {
+                creditors.push(creditor);
+            }
+            if (remaining[debtor] > 0) {
+                debtors.push(debtor);
+            }
+        }
+    }
+
+    /**
+     * Max-heap of party indexes ordered by {@code keys[index]}, ties broken by
+     * the lower index so plans are deterministic.
+     */
+    private static final class IndexHeap {
+
+        private final int[] heap;
+        private final long[] keys;
+        private int size;
+
+        private IndexHeap(int capacity, long[] keys) {
+            this.heap = new int[Math.max(capacity, 1)];
+            this.keys = keys;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int index) {
+            int pos = size++;
+            while (pos > 0) {
+                int parent = (pos - 1) >>> 1;
+                if (!before(index, heap[parent])) {
+                    break;
+                }
+                heap[pos] = heap[parent];
+                pos = parent;
+            }
+            heap[pos] = index;
+        }
+
+        int pop() {
+            int top = heap[0];
+            int last = heap[--size];
+            int pos = 0;
+            int half = size >>> 1;
+            while (pos < half) {
+                int child = 2 * pos + 1;
+                if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], last)) {
+                    break;
+                }
+                heap[pos] = heap[child];
+                pos = child;
+            }
+            heap[pos] = last;
+            return top;
+        }
+
+        private boolean before(int a, int b) {
+            return keys[a] > keys[b] || (keys[a] == keys[b] && a < b);
+        }
+    }
+}
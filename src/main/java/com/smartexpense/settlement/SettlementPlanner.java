@@ -0,0 +1,40 @@
+package com.smartexpense.settlement;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses the settlement strategy for a group: the exact minimum-transfer
+ * solver while the number of non-zero balances is at or below the configured
+ * cutoff, the heap-based greedy matcher above it.
+ */
+@Component
+public class SettlementPlanner {
+
+    private final int exactMaxParties;
+
+    public SettlementPlanner(@Value("${smartexpense.settlement-plan.exact-max-parties:12}") int exactMaxParties) {
+        if (exactMaxParties < 0 || exactMaxParties > ExactSettlementSolver.MAX_PARTIES) {
+            throw new IllegalArgumentException("smartexpense.settlement-plan.exact-max-parties must be between 0 and "
+                    + ExactSettlementSolver.MAX_PARTIES);
+        }
+        this.exactMaxParties = exactMaxParties;
+    }
+
+    public Transfers plan(long[] balances) {
+        int nonZero = 0;
+        long total = 0;
+        for (long balance : balances) {
+            if (balance != 0) {
+                nonZero++;
+                total += balance;
+            }
+        }
+        if (total != 0) {
+            throw new IllegalStateException("Balances do not net to zero: " + total);
+        }
+        return nonZero <= exactMaxParties
+                ? ExactSettlementSolver.solve(balances)
+                : GreedySettlementSolver.solve(balances);
+    }
+}
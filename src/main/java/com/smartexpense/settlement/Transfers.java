@@ -0,0 +1,52 @@
+package com.smartexpense.settlement;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of payments produced by a settlement solver, stored as
+ * parallel primitive arrays. Parties are referred to by their index in the
+ * balance array the solver was given.
+ */
+public final class Transfers {
+
+    private int size;
+    private int[] from;
+    private int[] to;
+    private long[] amount;
+
+    public Transfers(int capacity) {
+        int initial = Math.max(capacity, 4);
+        from = new int[initial];
+        to = new int[initial];
+        amount = new long[initial];
+    }
+
+    public void add(int fromParty, int toParty, long value) {
+        if (size == from.length) {
+            int grown = size * 2;
+            from = Arrays.copyOf(from, grown);
+            to = Arrays.copyOf(to, grown);
+            amount = Arrays.copyOf(amount, grown);
+        }
+        from[size] = fromParty;
+        to[size] = toParty;
+        amount[size] = value;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int from(int i) {
+        return from[i];
+    }
+
+    public int to(int i) {
+        return to[i];
+    }
+
+    public long amount(int i) {
+        return amount[i];
+    }
+}
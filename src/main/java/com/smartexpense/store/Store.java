@@ -0,0 +1,37 @@
+package com.smartexpense.store;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.RecurringExpense;
+import com.smartexpense.model.Settlement;
+import com.smartexpense.model.SpendingRollup;
+import com.smartexpense.model.Tombstone;
+import com.smartexpense.model.User;
+
+/**
+ * A storage backend that keeps its own tables instead of going through JPA,
+ * such as the event log and in-memory stores. The repositories in this
+ * package adapt its tables to the Spring Data interfaces the services use.
+ * <p>
+ * Write transactions are serialized by the store itself, and a commit becomes
+ * visible to other readers all at once.
+ */
+public interface Store {
+
+    StoreTable<User> users();
+
+    StoreTable<Group> groups();
+
+    StoreTable<Expense> expenses();
+
+    StoreTable<Settlement> settlements();
+
+    StoreTable<GroupLedger> ledgers();
+
+    StoreTable<Tombstone> tombstones();
+
+    StoreTable<SpendingRollup> spendingRollups();
+
+    StoreTable<RecurringExpense> recurringExpenses();
+}
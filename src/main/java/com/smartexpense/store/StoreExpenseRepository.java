@@ -0,0 +1,80 @@
+package com.smartexpense.store;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseCursor;
+import com.smartexpense.model.ExpenseFilter;
+import com.smartexpense.model.ExpenseSummary;
+import com.smartexpense.repository.ExpenseRepository;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class StoreExpenseRepository extends StoreRepository<Expense> implements ExpenseRepository {
+
+    private static final Comparator<Expense> DATE_ID =
+            Comparator.comparing(Expense::getDate).thenComparing(Expense::getId);
+
+    public StoreExpenseRepository(Store store) {
+        super(store.expenses());
+    }
+
+    @Override
+    public List<Expense> findByGroupIdOrderByDateAscIdAsc(Long groupId) {
+        return streamByGroupId(groupId).toList();
+    }
+
+    @Override
+    public List<Expense> findByGroupIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(Long groupId,
+                                                                                         Long changeVersion) {
+        return table.findByGroup(groupId).stream()
+                .filter(expense -> expense.getChangeVersion() != null && expense.getChangeVersion() > changeVersion)
+                .sorted(Comparator.comparing(Expense::getChangeVersion))
+                .toList();
+    }
+
+    @Override
+    public Optional<Long> findGroupIdById(Long id) {
+        return table.find(id).map(Expense::getGroupId);
+    }
+
+    @Override
+    public List<Expense> findByGroupIdOrderByDateAscIdAsc(Long groupId, Limit limit) {
+        return limit(streamByGroupId(groupId), limit).toList();
+    }
+
+    @Override
+    public List<Expense> findPageAfter(Long groupId, LocalDate date, Long id, Limit limit) {
+        return limit(streamByGroupIdAfter(groupId, date, id), limit).toList();
+    }
+
+    @Override
+    public Stream<Expense> streamByGroupId(Long groupId) {
+        return table.findByGroup(groupId).stream().sorted(DATE_ID);
+    }
+
+    @Override
+    public Stream<Expense> streamByGroupIdAfter(Long groupId, LocalDate date, Long id) {
+        return streamByGroupId(groupId).filter(expense -> expense.getDate().isAfter(date)
+                || (expense.getDate().isEqual(date) && expense.getId() > id));
+    }
+
+    @Override
+    public List<ExpenseSummary> findSummaries(Long groupId, ExpenseFilter filter, ExpenseCursor after, Limit limit) {
+        Stream<Expense> expenses = after == null
+                ? streamByGroupId(groupId)
+                : streamByGroupIdAfter(groupId, after.date(), after.id());
+        return limit(expenses.filter(filter::matches), limit).map(ExpenseSummary::of).toList();
+    }
+
+    @Override
+    public void detach(Expense expense) {
+    }
+
+    private static Stream<Expense> limit(Stream<Expense> expenses, Limit limit) {
+        return limit.isLimited() ? expenses.limit(limit.max()) : expenses;
+    }
+}
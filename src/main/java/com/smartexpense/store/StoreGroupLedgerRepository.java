@@ -0,0 +1,21 @@
+package com.smartexpense.store;
+
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.LedgerPosition;
+import com.smartexpense.repository.GroupLedgerRepository;
+
+import java.util.List;
+
+public class StoreGroupLedgerRepository extends StoreRepository<GroupLedger> implements GroupLedgerRepository {
+
+    public StoreGroupLedgerRepository(Store store) {
+        super(store.ledgers());
+    }
+
+    @Override
+    public List<LedgerPosition> findPositionsByUserId(Long userId) {
+        return table.findByMember(userId).stream()
+                .map(ledger -> new LedgerPosition(ledger.getGroupId(), ledger.getBalances().get(userId)))
+                .toList();
+    }
+}
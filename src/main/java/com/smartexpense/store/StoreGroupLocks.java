@@ -0,0 +1,16 @@
+package com.smartexpense.store;
+
+import com.smartexpense.concurrency.GroupLocks;
+
+import java.util.Collection;
+
+/**
+ * A {@link Store} already runs write transactions one at a time under its own
+ * lock, so per-group locks would add nothing but a second lock order.
+ */
+public class StoreGroupLocks implements GroupLocks {
+
+    @Override
+    public void lock(Collection<Long> groupIds) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.smartexpense.store;
+
+import com.smartexpense.model.Group;
+import com.smartexpense.repository.GroupRepository;
+
+import java.util.List;
+
+public class StoreGroupRepository extends StoreRepository<Group> implements GroupRepository {
+
+    public StoreGroupRepository(Store store) {
+        super(store.groups());
+    }
+
+    @Override
+    public List<Group> findByMemberId(Long userId) {
+        return table.findByMember(userId);
+    }
+
+    @Override
+    public List<Long> findAllIds() {
+        return table.findAll().stream().map(Group::getId).sorted().toList();
+    }
+}
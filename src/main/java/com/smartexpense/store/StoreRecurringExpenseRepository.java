@@ -0,0 +1,48 @@
+package com.smartexpense.store;
+
+import com.smartexpense.model.DueTemplate;
+import com.smartexpense.model.RecurringExpense;
+import com.smartexpense.repository.RecurringExpenseRepository;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+public class StoreRecurringExpenseRepository extends StoreRepository<RecurringExpense>
+        implements RecurringExpenseRepository {
+
+    private static final Comparator<DueTemplate> NEXT_RUN_ORDER =
+            Comparator.comparing(DueTemplate::nextRunDate).thenComparing(DueTemplate::id);
+
+    public StoreRecurringExpenseRepository(Store store) {
+        super(store.recurringExpenses());
+    }
+
+    @Override
+    public List<RecurringExpense> findByGroupIdOrderByIdAsc(Long groupId) {
+        return table.findByGroup(groupId);
+    }
+
+    @Override
+    public List<DueTemplate> findDue(LocalDate date, Limit limit) {
+        return due(date, template -> true, limit);
+    }
+
+    @Override
+    public List<DueTemplate> findDueAfter(LocalDate date, LocalDate afterDate, Long afterId, Limit limit) {
+        DueTemplate after = new DueTemplate(afterId, afterDate);
+        return due(date, template -> NEXT_RUN_ORDER.compare(template, after) > 0, limit);
+    }
+
+    private List<DueTemplate> due(LocalDate date, Predicate<DueTemplate> filter, Limit limit) {
+        Stream<DueTemplate> due = table.findAll().stream()
+                .filter(template -> template.isDue(date))
+                .map(template -> new DueTemplate(template.getId(), template.getNextRunDate()))
+                .filter(filter)
+                .sorted(NEXT_RUN_ORDER);
+        return (limit.isLimited() ? due.limit(limit.max()) : due).toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartexpense.store;
+
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link ListCrudRepository} implementation over one {@link Store} table, so
+ * the services run unchanged on any storage backend. The repository
+ * interfaces only extend the CRUD contract, which every backend implements in
+ * full.
+ * <p>
+ * Entities are returned as detached copies: a change is only stored when the
+ * entity is passed back to {@code save}.
+ */
+public abstract class StoreRepository<T> implements ListCrudRepository<T, Long> {
+
+    protected final StoreTable<T> table;
+
+    protected StoreRepository(StoreTable<T> table) {
+        this.table = table;
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        return table.save(entity);
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S entity : entities) {
+            saved.add(table.save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return table.find(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return table.exists(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return table.findAll();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<Long> ids) {
+        List<T> found = new ArrayList<>();
+        for (Long id : ids) {
+            table.find(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return table.count();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        table.delete(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        table.delete(table.idOf(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        for (Long id : ids) {
+            table.delete(id);
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        for (T entity : entities) {
+            delete(entity);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteAll(findAll());
+    }
+}
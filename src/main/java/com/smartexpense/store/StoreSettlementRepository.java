@@ -0,0 +1,74 @@
+package com.smartexpense.store;
+
+import com.smartexpense.model.Settlement;
+import com.smartexpense.repository.SettlementRepository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class StoreSettlementRepository extends StoreRepository<Settlement> implements SettlementRepository {
+
+    private static final Comparator<Settlement> DATE_ID =
+            Comparator.comparing(Settlement::getDate).thenComparing(Settlement::getId);
+
+    public StoreSettlementRepository(Store store) {
+        super(store.settlements());
+    }
+
+    @Override
+    public List<Settlement> findByGroupIdOrderByDateAscIdAsc(Long groupId) {
+        return table.findByGroup(groupId).stream().sorted(DATE_ID).toList();
+    }
+
+    @Override
+    public List<Settlement> findByGroupIdAndFromUserIdOrderByDateAscIdAsc(Long groupId, Long fromUserId) {
+        return table.findByGroup(groupId).stream()
+                .filter(settlement -> settlement.getFromUserId().equals(fromUserId))
+                .sorted(DATE_ID)
+                .toList();
+    }
+
+    @Override
+    public List<Settlement> findByGroupIdAndToUserIdOrderByDateAscIdAsc(Long groupId, Long toUserId) {
+        return table.findByGroup(groupId).stream()
+                .filter(settlement -> settlement.getToUserId().equals(toUserId))
+                .sorted(DATE_ID)
+                .toList();
+    }
+
+    @Override
+    public List<Settlement> findByGroupIdAndFromUserIdAndToUserIdOrderByDateAscIdAsc(Long groupId, Long fromUserId,
+                                                                                   Long toUserId) {
+        return table.findByGroup(groupId).stream()
+                .filter(settlement -> settlement.getFromUserId().equals(fromUserId)
+                        && settlement.getToUserId().equals(toUserId))
+                .sorted(DATE_ID)
+                .toList();
+    }
+
+    @Override
+    public List<Settlement> findByGroupIdAndChangeVersionGreaterThanOrderByChangeVersionAsc(Long groupId,
+                                                                                            Long changeVersion) {
+        return table.findByGroup(groupId).stream()
+                .filter(settlement -> settlement.getChangeVersion() != null
+                        && settlement.getChangeVersion() > changeVersion)
+                .sorted(Comparator.comparing(Settlement::getChangeVersion))
+                .toList();
+    }
+
+    @Override
+    public Optional<Long> findGroupIdById(Long id) {
+        return table.find(id).map(Settlement::getGroupId);
+    }
+
+    @Override
+    public Stream<Settlement> streamByGroupId(Long groupId) {
+        return table.findByGroup(groupId).stream().sorted(DATE_ID);
+    }
+
+    @Override
+    public void detach(Settlement settlement) {
+    }
+}
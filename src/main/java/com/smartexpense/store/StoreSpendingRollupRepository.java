@@ -0,0 +1,49 @@
+package com.smartexpense.store;
+
+import com.smartexpense.model.SpendingGranularity;
+import com.smartexpense.model.SpendingRollup;
+import com.smartexpense.repository.SpendingRollupRepository;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+public class StoreSpendingRollupRepository extends StoreRepository<SpendingRollup>
+        implements SpendingRollupRepository {
+
+    public StoreSpendingRollupRepository(Store store) {
+        super(store.spendingRollups());
+    }
+
+    @Override
+    public Optional<SpendingRollup> findByGroupIdAndGranularityAndPeriodStart(Long groupId,
+                                                                              SpendingGranularity granularity,
+                                                                              LocalDate periodStart) {
+        return table.findByGroup(groupId).stream()
+                .filter(rollup -> rollup.getGranularity() == granularity
+                        && rollup.getPeriodStart().isEqual(periodStart))
+                .findFirst();
+    }
+
+    @Override
+    public Optional<SpendingRollup> findUnflushedBucket(Long groupId, SpendingGranularity granularity,
+                                                        LocalDate periodStart) {
+        return findByGroupIdAndGranularityAndPeriodStart(groupId, granularity, periodStart);
+    }
+
+    @Override
+    public List<SpendingRollup> findByGroupIdAndGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(
+            Long groupId, SpendingGranularity granularity, LocalDate from, LocalDate to) {
+        return table.findByGroup(groupId).stream()
+                .filter(rollup -> rollup.getGranularity() == granularity
+                        && !rollup.getPeriodStart().isBefore(from) && !rollup.getPeriodStart().isAfter(to))
+                .sorted(Comparator.comparing(SpendingRollup::getPeriodStart))
+                .toList();
+    }
+
+    @Override
+    public List<SpendingRollup> findByGroupId(Long groupId) {
+        return table.findByGroup(groupId);
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartexpense.store;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One entity type of a {@link Store}. Reads return private copies, and a
+ * change is only stored when the entity is passed back to {@code save}.
+ * Inside a read-write transaction reads include the transaction's own
+ * buffered writes; outside one they see committed rows only.
+ */
+public interface StoreTable<T> {
+
+    Optional<T> find(Long id);
+
+    boolean exists(Long id);
+
+    /**
+     * Every row, in id order.
+     */
+    List<T> findAll();
+
+    /**
+     * Rows whose group id equals {@code groupId}, in id order.
+     */
+    List<T> findByGroup(Long groupId);
+
+    /**
+     * Rows that list {@code userId} as a member, in id order.
+     */
+    List<T> findByMember(Long userId);
+
+    long count();
+
+    /**
+     * Stores the entity, assigning the next id first when it has none.
+     */
+    <S extends T> S save(S entity);
+
+    void delete(Long id);
+
+    Long idOf(T entity);
+}
@@ -0,0 +1,25 @@
+package com.smartexpense.store;
+
+import com.smartexpense.model.Tombstone;
+import com.smartexpense.repository.TombstoneRepository;
+
+import java.util.List;
+
+public class StoreTombstoneRepository extends StoreRepository<Tombstone> implements TombstoneRepository {
+
+    public StoreTombstoneRepository(Store store) {
+        super(store.tombstones());
+    }
+
+    @Override
+    public List<Tombstone> findByGroupIdAndChangeVersionGreaterThan(Long groupId, Long changeVersion) {
+        return table.findByGroup(groupId).stream()
+                .filter(tombstone -> tombstone.getChangeVersion() > changeVersion)
+                .toList();
+    }
+
+    @Override
+    public List<Tombstone> findByGroupId(Long groupId) {
+        return table.findByGroup(groupId);
+    }
+}
@@ -0,0 +1,18 @@
+package com.smartexpense.store;
+
+import com.smartexpense.model.User;
+import com.smartexpense.repository.UserRepository;
+
+import java.util.Collection;
+
+public class StoreUserRepository extends StoreRepository<User> implements UserRepository {
+
+    public StoreUserRepository(Store store) {
+        super(store.users());
+    }
+
+    @Override
+    public long countByIdIn(Collection<Long> ids) {
+        return ids.stream().distinct().filter(this::existsById).count();
+    }
+}
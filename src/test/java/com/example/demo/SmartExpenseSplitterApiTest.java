@@ -28,14 +28,16 @@ import static org.testng.Assert.*;
  * 
  * Test File: src/test/java/com/smartexpense/SmartExpenseSplitterApiTest.java
  * Test Class: SmartExpenseSplitterApiTest
- * Total Test Cases: 50
+ * Total Test Cases: 72
  * 
  * Coverage:
  * - User Management APIs (10 tests)
- * - Group Management APIs (12 tests)
- * - Expense Management APIs (15 tests)
- * - Settlement Management APIs (8 tests)
- * - Balance & Reporting APIs (5 tests)
+ * - Group Management APIs (18 tests)
+ * - Expense Management APIs (17 tests)
+ * - Settlement Management APIs (9 tests)
+ * - Balance & Reporting APIs (12 tests)
+ * - Recurring Expense APIs (3 tests)
+ * - Currency APIs (3 tests)
  */
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -54,6 +56,8 @@ public class SmartExpenseSplitterApiTest extends AbstractTestNGSpringContextTest
     private Long groupId1, groupId2;
     private Long expenseId1, expenseId2;
     private Long settlementId1;
+    private Long bulkGroupId;
+    private final List<Long> bulkUserIds = new ArrayList<>();
 
     @BeforeClass
     public void setUp() {
@@ -816,5 +820,666 @@ public class SmartExpenseSplitterApiTest extends AbstractTestNGSpringContextTest
             assertTrue(suggestion.getAmount() > 0, "Amount should be positive");
         }
     }
+
+    @Test(priority = 51, description = "TC051: GET /reports/users/{userId}/summary - Get User Summary Success - API Method: getUserSummary, Expected Status: 200 OK")
+    public void testGetUserSummarySuccess() throws Exception {
+        assertNotNull(groupId1, "Group ID should be set");
+        assertNotNull(userId1, "User ID should be set");
+
+        MvcResult balancesResult = mockMvc.perform(get("/reports/groups/" + groupId1 + "/balances"))
+                .andExpect(status().isOk())
+                .andReturn();
+        MemberBalance[] balances = objectMapper.readValue(balancesResult.getResponse().getContentAsString(), MemberBalance[].class);
+        Double expected = null;
+        for (MemberBalance balance : balances) {
+            if (balance.getUserId().equals(userId1)) {
+                expected = balance.getNetBalance();
+            }
+        }
+        assertNotNull(expected, "User should have a balance in the group");
+
+        MvcResult result = mockMvc.perform(get("/reports/users/" + userId1 + "/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(userId1))
+                .andExpect(jsonPath("$.userName").exists())
+                .andExpect(jsonPath("$.groups").isArray())
+                .andReturn();
+
+        UserBalanceSummary summary = objectMapper.readValue(result.getResponse().getContentAsString(), UserBalanceSummary.class);
+        double total = 0;
+        boolean found = false;
+        for (UserGroupBalance group : summary.getGroups()) {
+            total += group.getNetBalance();
+            if (group.getGroupId().equals(groupId1)) {
+                found = true;
+                assertEquals(group.getNetBalance(), expected, 0.001, "Summary should match the group balance report");
+            }
+        }
+        assertTrue(found, "Summary should include the group");
+        assertEquals(summary.getTotalBalance(), total, 0.001, "Total should be the sum of the group balances");
+    }
+
+    @Test(priority = 52, description = "TC052: GET /reports/users/{userId}/summary - Get Summary for Non-Existent User - API Method: getUserSummary, Expected Status: 404 NOT FOUND")
+    public void testGetUserSummaryNotFound() throws Exception {
+        mockMvc.perform(get("/reports/users/99999/summary"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test(priority = 53, description = "TC053: GET /reports/groups/{groupId}/settlement-plan - Conditional Request with ETag - API Method: getSettlementPlan, Expected Status: 304 NOT MODIFIED")
+    public void testSettlementPlanNotModified() throws Exception {
+        assertNotNull(groupId1, "Group ID should be set");
+
+        MvcResult result = mockMvc.perform(get("/reports/groups/" + groupId1 + "/settlement-plan"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/reports/groups/" + groupId1 + "/settlement-plan")
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/reports/groups/" + groupId1 + "/settlement-plan")
+                .header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag));
+    }
+
+    @Test(priority = 54, description = "TC054: GET /groups/{groupId}/changes - Get Changes Since Version - API Method: getChanges, Expected Status: 200 OK")
+    public void testGetGroupChangesSinceVersion() throws Exception {
+        assertNotNull(groupId1, "Group ID should be set");
+        assertNotNull(userId1, "User ID should be set");
+
+        MvcResult full = mockMvc.perform(get("/groups/" + groupId1 + "/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groupId").value(groupId1))
+                .andExpect(jsonPath("$.memberIds").isArray())
+                .andReturn();
+        long since = objectMapper.readTree(full.getResponse().getContentAsString()).get("version").asLong();
+        assertTrue(since > 0, "Version should count the changes made so far");
+
+        Expense expense = new Expense();
+        expense.setGroupId(groupId1);
+        expense.setDescription("Taxi");
+        expense.setAmount(30.00);
+        expense.setPaidByUserId(userId1);
+        expense.setDate(LocalDate.now());
+        expense.setSplitType("EQUAL");
+        MvcResult created = mockMvc.perform(post("/expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(expense)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long expenseId = objectMapper.readValue(created.getResponse().getContentAsString(), Expense.class).getId();
+
+        mockMvc.perform(get("/groups/" + groupId1 + "/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(greaterThanOrEqualTo((int) since + 1)))
+                .andExpect(jsonPath("$.memberIds").doesNotExist())
+                .andExpect(jsonPath("$.expenses.length()").value(1))
+                .andExpect(jsonPath("$.expenses[0].id").value(expenseId))
+                .andExpect(jsonPath("$.settlements.length()").value(0))
+                .andExpect(jsonPath("$.deletedExpenseIds.length()").value(0));
+
+        mockMvc.perform(delete("/expenses/" + expenseId))
+                .andExpect(status().isNoContent());
+
+        MvcResult afterDelete = mockMvc.perform(get("/groups/" + groupId1 + "/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expenses.length()").value(0))
+                .andExpect(jsonPath("$.deletedExpenseIds[0]").value(expenseId))
+                .andReturn();
+        long latest = objectMapper.readTree(afterDelete.getResponse().getContentAsString()).get("version").asLong();
+
+        mockMvc.perform(get("/groups/" + groupId1 + "/changes").param("since", String.valueOf(latest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(latest))
+                .andExpect(jsonPath("$.expenses.length()").value(0))
+                .andExpect(jsonPath("$.deletedExpenseIds.length()").value(0));
+    }
+
+    @Test(priority = 55, description = "TC055: GET /groups/{groupId}/changes - Get Changes with Invalid Version or Group - API Method: getChanges, Expected Status: 400 BAD REQUEST / 404 NOT FOUND")
+    public void testGetGroupChangesInvalid() throws Exception {
+        assertNotNull(groupId1, "Group ID should be set");
+
+        mockMvc.perform(get("/groups/" + groupId1 + "/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/groups/99999/changes"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test(priority = 56, description = "TC056: GET /expenses/group/{groupId}/summaries - Filter Expenses by Date Range, Payer and Amount - API Method: listExpenseSummariesByGroup, Expected Status: 200 OK")
+    public void testListExpensesByGroupFiltered() throws Exception {
+        assertNotNull(groupId1, "Group ID should be set");
+        assertNotNull(userId1, "User ID should be set");
+        assertNotNull(userId2, "User ID should be set");
+
+        LocalDate start = LocalDate.of(2001, 3, 1);
+        Long[] payers = {userId1, userId2, userId1, userId2};
+        double[] amounts = {10.00, 20.00, 30.00, 40.00};
+        for (int i = 0; i < payers.length; i++) {
+            Expense expense = new Expense();
+            expense.setGroupId(groupId1);
+            expense.setDescription("Filtered " + i);
+            expense.setAmount(amounts[i]);
+            expense.setPaidByUserId(payers[i]);
+            expense.setDate(start.plusDays(i));
+            expense.setSplitType("EQUAL");
+            mockMvc.perform(post("/expenses")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(expense)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/expenses/group/" + groupId1 + "/summaries")
+                .param("from", "2001-03-01")
+                .param("to", "2001-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].description").value("Filtered 0"))
+                .andExpect(jsonPath("$[0].shares").doesNotExist());
+
+        mockMvc.perform(get("/expenses/group/" + groupId1 + "/summaries")
+                .param("from", "2001-03-01")
+                .param("to", "2001-03-31")
+                .param("paidBy", String.valueOf(userId1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].amount").value(10.00))
+                .andExpect(jsonPath("$[1].amount").value(30.00));
+
+        mockMvc.perform(get("/expenses/group/" + groupId1 + "/summaries")
+                .param("from", "2001-03-02")
+                .param("to", "2001-03-31")
+                .param("minAmount", "15")
+                .param("maxAmount", "35"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].description").value("Filtered 1"))
+                .andExpect(jsonPath("$[1].description").value("Filtered 2"));
+
+        MvcResult firstPage = mockMvc.perform(get("/expenses/group/" + groupId1 + "/summaries")
+                .param("from", "2001-03-01")
+                .param("to", "2001-03-31")
+                .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+        mockMvc.perform(get("/expenses/group/" + groupId1 + "/summaries")
+                .param("from", "2001-03-01")
+                .param("to", "2001-03-31")
+                .param("limit", "3")
+                .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].description").value("Filtered 3"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test(priority = 57, description = "TC057: GET /expenses/group/{groupId}/summaries - Filter Expenses with Inverted Range - API Method: listExpenseSummariesByGroup, Expected Status: 400 BAD REQUEST")
+    public void testListExpensesByGroupInvalidFilter() throws Exception {
+        assertNotNull(groupId1, "Group ID should be set");
+
+        mockMvc.perform(get("/expenses/group/" + groupId1 + "/summaries")
+                .param("from", "2001-03-31")
+                .param("to", "2001-03-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/expenses/group/" + groupId1 + "/summaries")
+                .param("minAmount", "50")
+                .param("maxAmount", "10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test(priority = 58, description = "TC058: GET /settlements/group/{groupId} - Filter Settlements by Payer and Receiver - API Method: listSettlementsByGroup, Expected Status: 200 OK")
+    public void testListSettlementsByGroupFiltered() throws Exception {
+        assertNotNull(groupId1, "Group ID should be set");
+        assertNotNull(userId1, "User ID should be set");
+        assertNotNull(userId2, "User ID should be set");
+
+        Settlement settlement = new Settlement();
+        settlement.setGroupId(groupId1);
+        settlement.setFromUserId(userId1);
+        settlement.setToUserId(userId2);
+        settlement.setAmount(5.00);
+        settlement.setDate(LocalDate.now());
+        MvcResult created = mockMvc.perform(post("/settlements")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(settlement)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long settlementId = objectMapper.readValue(created.getResponse().getContentAsString(), Settlement.class).getId();
+
+        MvcResult result = mockMvc.perform(get("/settlements/group/" + groupId1)
+                .param("fromUserId", String.valueOf(userId1))
+                .param("toUserId", String.valueOf(userId2)))
+                .andExpect(status().isOk())
+                .andReturn();
+        Settlement[] settlements = objectMapper.readValue(result.getResponse().getContentAsString(), Settlement[].class);
+        boolean found = false;
+        for (Settlement s : settlements) {
+            assertEquals(s.getFromUserId(), userId1, "Only settlements from the payer should be returned");
+            assertEquals(s.getToUserId(), userId2, "Only settlements to the receiver should be returned");
+            found |= s.getId().equals(settlementId);
+        }
+        assertTrue(found, "The new settlement should be returned");
+
+        mockMvc.perform(get("/settlements/group/" + groupId1)
+                .param("fromUserId", String.valueOf(userId2))
+                .param("toUserId", String.valueOf(userId1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + settlementId + ")]").isEmpty());
+    }
+
+    @Test(priority = 59, description = "TC059: GET /reports/groups/{groupId}/spending - Get Spending by Month and Week - API Method: getSpending, Expected Status: 200 OK")
+    public void testGetSpendingRollups() throws Exception {
+        assertNotNull(groupId1, "Group ID should be set");
+        assertNotNull(userId1, "User ID should be set");
+        assertNotNull(userId2, "User ID should be set");
+
+        Long first = createExpense(groupId1, userId1, 40.00, LocalDate.of(2002, 5, 6));
+        Long second = createExpense(groupId1, userId2, 60.00, LocalDate.of(2002, 5, 8));
+        createExpense(groupId1, userId1, 20.00, LocalDate.of(2002, 6, 3));
+
+        mockMvc.perform(get("/reports/groups/" + groupId1 + "/spending")
+                .param("granularity", "month")
+                .param("from", "2002-05-15")
+                .param("to", "2002-06-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("MONTH"))
+                .andExpect(jsonPath("$.buckets.length()").value(2))
+                .andExpect(jsonPath("$.buckets[0].periodStart").value("2002-05-01"))
+                .andExpect(jsonPath("$.buckets[0].total").value(100.00))
+                .andExpect(jsonPath("$.buckets[0].expenseCount").value(2))
+                .andExpect(jsonPath("$.buckets[0].members[?(@.userId == " + userId1 + ")].paid").value(40.00))
+                .andExpect(jsonPath("$.buckets[0].members[?(@.userId == " + userId2 + ")].paid").value(60.00))
+                .andExpect(jsonPath("$.buckets[1].periodStart").value("2002-06-01"))
+                .andExpect(jsonPath("$.buckets[1].total").value(20.00));
+
+        Expense update = new Expense();
+        update.setGroupId(groupId1);
+        update.setDescription("Moved");
+        update.setAmount(30.00);
+        update.setPaidByUserId(userId2);
+        update.setDate(LocalDate.of(2002, 6, 4));
+        update.setSplitType("EQUAL");
+        mockMvc.perform(put("/expenses/" + second)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/expenses/" + first))
+                .andExpect(status().isNoContent());
+
+        MvcResult result = mockMvc.perform(get("/reports/groups/" + groupId1 + "/spending")
+                .param("granularity", "week")
+                .param("from", "2002-05-01")
+                .param("to", "2002-06-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets.length()").value(1))
+                .andExpect(jsonPath("$.buckets[0].periodStart").value("2002-06-03"))
+                .andExpect(jsonPath("$.buckets[0].total").value(50.00))
+                .andExpect(jsonPath("$.buckets[0].expenseCount").value(2))
+                .andReturn();
+        double shares = 0;
+        for (com.fasterxml.jackson.databind.JsonNode member
+                : objectMapper.readTree(result.getResponse().getContentAsString()).get("buckets").get(0).get("members")) {
+            shares += member.get("share").asDouble();
+        }
+        assertEquals(shares, 50.00, 0.001, "Member shares should add up to the bucket total");
+    }
+
+    @Test(priority = 60, description = "TC060: GET /reports/groups/{groupId}/spending - Get Spending with Invalid Granularity or Group - API Method: getSpending, Expected Status: 400 BAD REQUEST / 404 NOT FOUND")
+    public void testGetSpendingInvalid() throws Exception {
+        assertNotNull(groupId1, "Group ID should be set");
+
+        mockMvc.perform(get("/reports/groups/" + groupId1 + "/spending").param("granularity", "year"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/reports/groups/99999/spending"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test(priority = 61, description = "TC061: POST /groups/{groupId}/members - Add Members in Bulk - API Method: addMembers, Expected Status: 200 OK")
+    public void testAddMembersInBulk() throws Exception {
+        assertNotNull(userId1, "User ID should be set");
+        bulkGroupId = createGroup("Bulk members", List.of(userId1));
+        for (int i = 0; i < 3; i++) {
+            bulkUserIds.add(createUser("Bulk Member " + i, "bulk-" + i + "-" + System.nanoTime() + "@example.com"));
+        }
+        List<Long> request = new ArrayList<>(bulkUserIds);
+        request.add(userId1);
+        request.add(bulkUserIds.get(0));
+
+        mockMvc.perform(post("/groups/" + bulkGroupId + "/members")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Members added successfully"));
+
+        mockMvc.perform(get("/groups/" + bulkGroupId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.memberIds.length()").value(4));
+        mockMvc.perform(get("/reports/groups/" + bulkGroupId + "/balances"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4));
+    }
+
+    @Test(priority = 62, description = "TC062: POST /groups/{groupId}/members - Add Members with Non-Existent User - API Method: addMembers, Expected Status: 400 BAD REQUEST")
+    public void testAddMembersWithUnknownUser() throws Exception {
+        assertNotNull(bulkGroupId, "Bulk group ID should be set");
+        Long newUser = createUser("Bulk Late", "bulk-late-" + System.nanoTime() + "@example.com");
+
+        mockMvc.perform(post("/groups/" + bulkGroupId + "/members")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(newUser, 99999L))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/groups/" + bulkGroupId + "/members")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/groups/" + bulkGroupId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.memberIds.length()").value(4));
+    }
+
+    @Test(priority = 63, description = "TC063: DELETE /groups/{groupId}/members - Remove Members in Bulk - API Method: removeMembers, Expected Status: 200 OK")
+    public void testRemoveMembersInBulk() throws Exception {
+        assertNotNull(bulkGroupId, "Bulk group ID should be set");
+
+        mockMvc.perform(delete("/groups/" + bulkGroupId + "/members")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bulkUserIds.subList(0, 2))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Members removed successfully"));
+
+        mockMvc.perform(get("/groups/" + bulkGroupId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.memberIds.length()").value(2))
+                .andExpect(jsonPath("$.memberIds[?(@ == " + bulkUserIds.get(2) + ")]").isNotEmpty());
+        mockMvc.perform(get("/reports/groups/" + bulkGroupId + "/balances"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test(priority = 64, description = "TC064: DELETE /groups/{groupId}/members - Remove Members Including Non-Member - API Method: removeMembers, Expected Status: 404 NOT FOUND")
+    public void testRemoveMembersIncludingNonMember() throws Exception {
+        assertNotNull(bulkGroupId, "Bulk group ID should be set");
+
+        mockMvc.perform(delete("/groups/" + bulkGroupId + "/members")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(bulkUserIds.get(2), bulkUserIds.get(0)))))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/groups/" + bulkGroupId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.memberIds.length()").value(2));
+    }
+
+    @Test(priority = 65, description = "TC065: GET /groups/{groupId}/balances/stream - Stream Balance Updates - API Method: streamBalances, Expected Status: 200 OK")
+    public void testStreamGroupBalances() throws Exception {
+        Long payer = createUser("Stream Payer", "stream-payer-" + System.nanoTime() + "@example.com");
+        Long member = createUser("Stream Member", "stream-member-" + System.nanoTime() + "@example.com");
+        Long groupId = createGroup("Stream group", List.of(payer, member));
+
+        MvcResult stream = mockMvc.perform(get("/groups/" + groupId + "/balances/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String snapshot = awaitEvent(stream, "event:snapshot");
+        assertTrue(snapshot.contains("\"userId\":" + payer), snapshot);
+        assertTrue(snapshot.contains("\"netBalance\":0.0"), snapshot);
+
+        createExpense(groupId, payer, 30.00, LocalDate.of(2003, 1, 10));
+        String update = awaitEvent(stream, "event:balances");
+        assertTrue(update.contains("\"netBalance\":15.0"), update);
+        assertTrue(update.contains("\"netBalance\":-15.0"), update);
+    }
+
+    @Test(priority = 66, description = "TC066: GET /groups/{groupId}/balances/stream - Stream Non-Existent Group - API Method: streamBalances, Expected Status: 404 NOT FOUND")
+    public void testStreamBalancesGroupNotFound() throws Exception {
+        mockMvc.perform(get("/groups/999999/balances/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test(priority = 67, description = "TC067: POST /recurring-expenses - Create Recurring Expense - API Method: createTemplate, Expected Status: 201 CREATED")
+    public void testCreateRecurringExpense() throws Exception {
+        Long payer = createUser("Rent Payer", "rent-payer-" + System.nanoTime() + "@example.com");
+        Long member = createUser("Rent Member", "rent-member-" + System.nanoTime() + "@example.com");
+        Long groupId = createGroup("Rent group", List.of(payer, member));
+        LocalDate start = LocalDate.now().plusDays(7);
+
+        mockMvc.perform(post("/recurring-expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recurringExpense(groupId, payer, start))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").exists())
+                .andExpect(jsonPath("$.frequency").value("MONTHLY"))
+                .andExpect(jsonPath("$.nextRunDate").value(start.toString()))
+                .andExpect(jsonPath("$.occurrences").value(0));
+
+        mockMvc.perform(get("/recurring-expenses/group/" + groupId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test(priority = 68, description = "TC068: POST /recurring-expenses/run - Materialize Due Occurrences Once - API Method: runDue, Expected Status: 200 OK")
+    public void testRunRecurringExpenses() throws Exception {
+        Long payer = createUser("Subscription Payer", "sub-payer-" + System.nanoTime() + "@example.com");
+        Long member = createUser("Subscription Member", "sub-member-" + System.nanoTime() + "@example.com");
+        Long groupId = createGroup("Subscription group", List.of(payer, member));
+        LocalDate start = LocalDate.now().minusMonths(2);
+        MvcResult created = mockMvc.perform(post("/recurring-expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recurringExpense(groupId, payer, start))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long templateId = objectMapper.readValue(created.getResponse().getContentAsString(),
+                RecurringExpense.class).getId();
+
+        for (int run = 0; run < 2; run++) {
+            mockMvc.perform(post("/recurring-expenses/run"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.failed").value(0));
+
+            mockMvc.perform(get("/recurring-expenses/" + templateId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.occurrences").value(3))
+                    .andExpect(jsonPath("$.nextRunDate").value(start.plusMonths(3).toString()));
+            mockMvc.perform(get("/expenses/group/" + groupId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(3))
+                    .andExpect(jsonPath("$[0].date").value(start.toString()));
+        }
+        mockMvc.perform(get("/reports/groups/" + groupId + "/balances"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.userId == " + payer + ")].netBalance").value(30.0));
+    }
+
+    @Test(priority = 69, description = "TC069: POST /recurring-expenses - Payer Not In Group - API Method: createTemplate, Expected Status: 400 BAD REQUEST")
+    public void testCreateRecurringExpensePayerNotMember() throws Exception {
+        Long member = createUser("Recurring Member", "rec-member-" + System.nanoTime() + "@example.com");
+        Long outsider = createUser("Recurring Outsider", "rec-outsider-" + System.nanoTime() + "@example.com");
+        Long groupId = createGroup("Recurring group", List.of(member));
+
+        mockMvc.perform(post("/recurring-expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recurringExpense(groupId, outsider, LocalDate.now()))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/recurring-expenses/group/" + groupId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test(priority = 70, description = "TC070: POST /groups - Create Group With Base Currency - API Method: createGroup, Expected Status: 201 CREATED")
+    public void testCreateGroupWithBaseCurrency() throws Exception {
+        Group group = new Group();
+        group.setName("Euro group");
+        group.setBaseCurrency("EUR");
+        mockMvc.perform(post("/groups")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(group)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.baseCurrency").value("EUR"));
+
+        Long defaultGroupId = createGroup("Default currency group", List.of());
+        mockMvc.perform(get("/groups/" + defaultGroupId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.baseCurrency").value("USD"));
+
+        group.setBaseCurrency("XYZ");
+        mockMvc.perform(post("/groups")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(group)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test(priority = 71, description = "TC071: POST /expenses - Expense In Foreign Currency - API Method: addExpense, Expected Status: 201 CREATED")
+    public void testCreateExpenseInForeignCurrency() throws Exception {
+        Long payer = createUser("Travel Payer", "travel-payer-" + System.nanoTime() + "@example.com");
+        Long member = createUser("Travel Member", "travel-member-" + System.nanoTime() + "@example.com");
+        Long groupId = createGroup("Travel group", List.of(payer, member));
+
+        Expense expense = new Expense();
+        expense.setGroupId(groupId);
+        expense.setDescription("Hotel in London");
+        expense.setAmount(100.00);
+        expense.setCurrency("GBP");
+        expense.setPaidByUserId(payer);
+        expense.setDate(LocalDate.of(2024, 3, 1));
+        expense.setSplitType("EQUAL");
+        mockMvc.perform(post("/expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(expense)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.amount").value(100.0))
+                .andExpect(jsonPath("$.currency").value("GBP"))
+                .andExpect(jsonPath("$.fxRate").value(1.27))
+                .andExpect(jsonPath("$.baseAmount").value(127.0))
+                .andExpect(jsonPath("$.shares[0].amount").value(50.0))
+                .andExpect(jsonPath("$.shares[0].owedAmount").value(63.5));
+
+        mockMvc.perform(get("/expenses/group/" + groupId + "/summaries")
+                .param("minAmount", "120"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].description").value("Hotel in London"));
+        mockMvc.perform(get("/expenses/group/" + groupId + "/summaries")
+                .param("maxAmount", "110"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        Settlement settlement = new Settlement();
+        settlement.setGroupId(groupId);
+        settlement.setFromUserId(member);
+        settlement.setToUserId(payer);
+        settlement.setAmount(50.00);
+        settlement.setCurrency("EUR");
+        settlement.setDate(LocalDate.of(2024, 3, 2));
+        mockMvc.perform(post("/settlements")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(settlement)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.baseAmount").value(55.0));
+
+        mockMvc.perform(get("/reports/groups/" + groupId + "/balances"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.userId == " + payer + ")].netBalance").value(8.5))
+                .andExpect(jsonPath("$[?(@.userId == " + member + ")].netBalance").value(-8.5));
+    }
+
+    @Test(priority = 72, description = "TC072: POST /expenses - Currency Without Exchange Rate - API Method: addExpense, Expected Status: 400 BAD REQUEST")
+    public void testCreateExpenseUnknownCurrency() throws Exception {
+        Long payer = createUser("Rate Payer", "rate-payer-" + System.nanoTime() + "@example.com");
+        Long groupId = createGroup("Rate group", List.of(payer));
+
+        Expense expense = new Expense();
+        expense.setGroupId(groupId);
+        expense.setAmount(10.00);
+        expense.setCurrency("XYZ");
+        expense.setPaidByUserId(payer);
+        expense.setDate(LocalDate.of(2024, 3, 1));
+        expense.setSplitType("EQUAL");
+        mockMvc.perform(post("/expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(expense)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("No exchange rate from XYZ to USD on 2024-03-01"));
+
+        expense.setCurrency("usd");
+        mockMvc.perform(post("/expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(expense)))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Waits for the stream to carry {@code marker} and returns the text from
+     * its first occurrence on.
+     */
+    private String awaitEvent(MvcResult stream, String marker) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String content = stream.getResponse().getContentAsString();
+            int start = content.indexOf(marker);
+            if (start >= 0) {
+                return content.substring(start);
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No " + marker + " in " + stream.getResponse().getContentAsString());
+    }
+
+    private Long createUser(String name, String email) throws Exception {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        MvcResult result = mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), User.class).getId();
+    }
+
+    private Long createGroup(String name, List<Long> memberIds) throws Exception {
+        Group group = new Group();
+        group.setName(name);
+        group.setMemberIds(new ArrayList<>(memberIds));
+        MvcResult result = mockMvc.perform(post("/groups")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(group)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), Group.class).getId();
+    }
+
+    private RecurringExpense recurringExpense(Long groupId, Long payerId, LocalDate start) {
+        RecurringExpense template = new RecurringExpense();
+        template.setGroupId(groupId);
+        template.setDescription("Monthly subscription");
+        template.setAmount(20.00);
+        template.setPaidByUserId(payerId);
+        template.setSplitType("EQUAL");
+        template.setFrequency(RecurrenceFrequency.MONTHLY);
+        template.setStartDate(start);
+        return template;
+    }
+
+    private Long createExpense(Long groupId, Long payerId, double amount, LocalDate date) throws Exception {
+        Expense expense = new Expense();
+        expense.setGroupId(groupId);
+        expense.setDescription("Spending " + date);
+        expense.setAmount(amount);
+        expense.setPaidByUserId(payerId);
+        expense.setDate(date);
+        expense.setSplitType("EQUAL");
+        MvcResult result = mockMvc.perform(post("/expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(expense)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), Expense.class).getId();
+    }
 }
 
@@ -0,0 +1,105 @@
+package com.smartexpense.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.MemberBalance;
+import com.smartexpense.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for CBOR and Smile content negotiation.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class WireFormatTest extends AbstractTestNGSpringContextTests {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper cbor = CBORMapper.builder().findAndAddModules().build();
+    private final ObjectMapper smile = SmileMapper.builder().findAndAddModules().build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test(description = "Resources round-trip through CBOR and Smile, and JSON stays the default")
+    public void testBinaryRoundTrip() throws Exception {
+        User user = new User();
+        user.setName("Binary");
+        user.setEmail("binary-" + UUID.randomUUID() + "@example.com");
+        byte[] created = mockMvc.perform(post("/users").contentType(CBOR).accept(CBOR).content(cbor.writeValueAsBytes(user)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Long userId = cbor.readValue(created, User.class).getId();
+
+        Group group = new Group();
+        group.setName("Binary group");
+        group.setMemberIds(List.of(userId));
+        byte[] groupBody = mockMvc.perform(post("/groups").contentType(SMILE).accept(SMILE).content(smile.writeValueAsBytes(group)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        Long groupId = smile.readValue(groupBody, Group.class).getId();
+
+        Expense expense = new Expense();
+        expense.setGroupId(groupId);
+        expense.setAmount(42.50);
+        expense.setPaidByUserId(userId);
+        expense.setDate(LocalDate.of(2024, 3, 1));
+        expense.setSplitType("EQUAL");
+        mockMvc.perform(post("/expenses").contentType(SMILE).accept(CBOR).content(smile.writeValueAsBytes(expense)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(CBOR));
+
+        byte[] expenses = mockMvc.perform(get("/expenses/group/" + groupId).accept(CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        Expense[] listed = cbor.readValue(expenses, Expense[].class);
+        assertEquals(listed.length, 1);
+        assertEquals(listed[0].getDate(), LocalDate.of(2024, 3, 1));
+        assertEquals(listed[0].getShares().get(0).getAmount(), 42.50, 0.001);
+
+        byte[] balances = mockMvc.perform(get("/reports/groups/" + groupId + "/balances").accept(SMILE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(smile.readValue(balances, MemberBalance[].class)[0].getUserId(), userId);
+
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.name").value("Binary"));
+    }
+
+    @Test(description = "Errors are sent as JSON even when a binary format was requested")
+    public void testErrorsStayJson() throws Exception {
+        byte[] body = mockMvc.perform(get("/users/99999").accept(CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertTrue(new String(body).contains("User not found"));
+    }
+}
@@ -0,0 +1,15 @@
+package com.smartexpense.eventlog;
+
+import com.smartexpense.SmartExpenseSplitterApiTest;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the full API contract suite against the event log storage backend.
+ */
+@TestPropertySource(properties = {
+        "smartexpense.storage=eventlog",
+        "smartexpense.eventlog.directory=target/eventlog-contract-${random.uuid}",
+        "smartexpense.eventlog.snapshot-interval=25"
+})
+public class EventLogContractTest extends SmartExpenseSplitterApiTest {
+}
@@ -0,0 +1,201 @@
+package com.smartexpense.eventlog;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseShare;
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.User;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for persistence and recovery of the event log store.
+ */
+public class EventLogStoreTest {
+
+    private final TransactionTemplate transaction = new TransactionTemplate(new NoOpTransactionManager());
+
+    @Test(description = "Committed rows survive a restart and ids continue from the last one")
+    public void testReplayAfterRestart() throws Exception {
+        Path directory = Files.createTempDirectory("eventlog");
+        EventLogStore store = open(directory, 1000);
+        User user = store.users().save(user("Alice"));
+        store.expenses().save(expense(7L, 12_50));
+        GroupLedger ledger = new GroupLedger(7L);
+        ledger.adjust(user.getId(), 12_50);
+        store.ledgers().save(ledger);
+        store.destroy();
+        Files.delete(directory.resolve("snapshot.bin"));
+
+        EventLogStore reopened = open(directory, 1000);
+        assertEquals(reopened.users().find(user.getId()).orElseThrow().getName(), "Alice");
+        Expense expense = reopened.expenses().findByGroup(7L).get(0);
+        assertEquals(expense.getShares().get(0).getOwedMinor(), Long.valueOf(12_50));
+        assertEquals(reopened.ledgers().find(7L).orElseThrow().getBalances().get(user.getId()), Long.valueOf(12_50));
+        assertEquals(reopened.users().save(user("Bob")).getId(), Long.valueOf(user.getId() + 1));
+        reopened.destroy();
+    }
+
+    @Test(description = "State is rebuilt from the snapshot plus the log tail written after it")
+    public void testSnapshotPlusTail() throws Exception {
+        Path directory = Files.createTempDirectory("eventlog");
+        EventLogStore store = open(directory, 3);
+        for (int i = 0; i < 5; i++) {
+            store.expenses().save(expense(1L, 1_00 + i));
+        }
+        store.expenses().delete(2L);
+        Expense moved = store.expenses().find(3L).orElseThrow();
+        moved.setGroupId(2L);
+        store.expenses().save(moved);
+        simulateCrash(store, directory);
+
+        EventLogStore reopened = open(directory, 3);
+        assertEquals(reopened.expenses().findByGroup(1L).stream().map(Expense::getId).toList(), List.of(1L, 4L, 5L));
+        assertEquals(reopened.expenses().findByGroup(2L).size(), 1);
+        assertEquals(reopened.expenses().count(), 4);
+        reopened.destroy();
+    }
+
+    @Test(description = "A torn record and an uncommitted transaction at the tail are discarded")
+    public void testTornTailDiscarded() throws Exception {
+        Path directory = Files.createTempDirectory("eventlog");
+        EventLogStore store = open(directory, 1000);
+        store.users().save(user("Alice"));
+        simulateCrash(store, directory);
+
+        try (EventLog log = EventLog.open(directory.resolve("events.log"))) {
+            ByteBuffer uncommitted = ByteBuffer.allocate(18).put((byte) 1).put((byte) 1).putLong(99).putLong(0);
+            log.append(uncommitted.flip());
+        }
+        Files.write(directory.resolve("events.log"), new byte[] {0, 0, 0, 40, 1, 2, 3},
+                StandardOpenOption.APPEND);
+
+        EventLogStore reopened = open(directory, 1000);
+        assertEquals(reopened.users().count(), 1);
+        assertFalse(reopened.users().find(99L).isPresent());
+        reopened.users().save(user("Bob"));
+        reopened.destroy();
+
+        EventLogStore again = open(directory, 1000);
+        assertEquals(again.users().count(), 2);
+        again.destroy();
+    }
+
+    @Test(description = "Writes become visible on commit and are dropped on rollback")
+    public void testTransactionalWrites() throws Exception {
+        EventLogStore store = open(Files.createTempDirectory("eventlog"), 1000);
+        Long committed = transaction.execute(status -> {
+            User user = store.users().save(user("Alice"));
+            assertTrue(store.users().find(user.getId()).isPresent());
+            return user.getId();
+        });
+        transaction.executeWithoutResult(status -> {
+            store.users().save(user("Bob"));
+            store.users().delete(committed);
+            assertEquals(store.users().count(), 1);
+            status.setRollbackOnly();
+        });
+        assertEquals(store.users().findAll().stream().map(User::getName).toList(), List.of("Alice"));
+        store.destroy();
+    }
+
+    @Test(description = "A forced commit whose records cross a mapping window boundary is replayed whole")
+    public void testForcedCommitAcrossWindows() throws Exception {
+        Path directory = Files.createTempDirectory("eventlog");
+        EventLogStore store = new EventLogStore(directory.toString(), true, 1000);
+        String name = "x".repeat(EventLog.WINDOW_BYTES / 8);
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < 10; i++) {
+                store.users().save(user(name + i));
+            }
+        });
+        simulateCrash(store, directory);
+
+        EventLogStore reopened = open(directory, 1000);
+        assertEquals(reopened.users().count(), 10);
+        assertEquals(reopened.users().findAll().get(9).getName(), name + 9);
+        reopened.destroy();
+    }
+
+    private static EventLogStore open(Path directory, int snapshotInterval) {
+        return new EventLogStore(directory.toString(), false, snapshotInterval);
+    }
+
+    /**
+     * Stops the store without the final snapshot a clean shutdown writes.
+     */
+    private static void simulateCrash(EventLogStore store, Path directory) throws IOException {
+        Path log = directory.resolve("events.log");
+        byte[] contents = Files.readAllBytes(log);
+        Path snapshot = directory.resolve("snapshot.bin");
+        byte[] snapshotContents = Files.exists(snapshot) ? Files.readAllBytes(snapshot) : null;
+        try {
+            store.destroy();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+        Files.write(log, contents);
+        if (snapshotContents != null) {
+            Files.write(snapshot, snapshotContents);
+        } else {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "@example.com");
+        return user;
+    }
+
+    private static Expense expense(Long groupId, long minor) {
+        Expense expense = new Expense();
+        expense.setGroupId(groupId);
+        expense.setAmount(minor / 100.0);
+        expense.setPaidByUserId(1L);
+        expense.setDate(LocalDate.of(2024, 1, 1));
+        expense.setSplitType("EXACT");
+        ExpenseShare share = new ExpenseShare(1L, minor / 100.0);
+        share.setOwedMinor(minor);
+        expense.getShares().add(share);
+        return expense;
+    }
+
+    /**
+     * Drives transaction synchronization without a resource to commit.
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
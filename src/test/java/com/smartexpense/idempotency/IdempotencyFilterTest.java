@@ -0,0 +1,180 @@
+package com.smartexpense.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.Settlement;
+import com.smartexpense.model.User;
+import com.smartexpense.service.ExpenseService;
+import com.smartexpense.service.GroupService;
+import com.smartexpense.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for Idempotency-Key handling on the create endpoints.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class IdempotencyFilterTest extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    private Long payerId;
+    private Long receiverId;
+    private Long groupId;
+
+    @BeforeClass
+    public void createGroup() {
+        String run = UUID.randomUUID().toString();
+        payerId = userService.addUser(user("Payer", run)).getId();
+        receiverId = userService.addUser(user("Receiver", run)).getId();
+        Group group = new Group();
+        group.setName("Idempotency");
+        group.setMemberIds(List.of(payerId, receiverId));
+        groupId = groupService.createGroup(group).getId();
+    }
+
+    @Test(description = "A retried POST /expenses returns the original 201 body and creates nothing new")
+    public void testExpenseReplay() throws Exception {
+        String key = UUID.randomUUID().toString();
+        MvcResult first = postExpense(key, expense(30.00))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+        MvcResult retry = postExpense(key, expense(30.00))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        assertEquals(retry.getResponse().getContentAsString(), first.getResponse().getContentAsString());
+        assertEquals(expenseService.listExpensesByGroup(groupId).stream()
+                .filter(expense -> "Idempotent".equals(expense.getDescription())).count(), 1L);
+    }
+
+    @Test(description = "The same key on POST /settlements is independent of POST /expenses")
+    public void testKeysAreScopedByPath() throws Exception {
+        String key = UUID.randomUUID().toString();
+        postExpense(key, expense(12.00)).andExpect(status().isCreated());
+
+        Settlement settlement = new Settlement();
+        settlement.setGroupId(groupId);
+        settlement.setFromUserId(receiverId);
+        settlement.setToUserId(payerId);
+        settlement.setAmount(5.00);
+        settlement.setDate(LocalDate.now());
+        mockMvc.perform(post("/settlements")
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(settlement)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test(description = "A rejected request is not stored, so a corrected retry with the same key succeeds")
+    public void testFailureIsNotStored() throws Exception {
+        String key = UUID.randomUUID().toString();
+        Expense invalid = expense(20.00);
+        invalid.setPaidByUserId(99999L);
+        postExpense(key, invalid).andExpect(status().isBadRequest());
+        postExpense(key, expense(20.00))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test(description = "Reusing a key with a different body is rejected and the original response is kept")
+    public void testBodyMismatch() throws Exception {
+        String key = UUID.randomUUID().toString();
+        MvcResult first = postExpense(key, expense(8.00)).andExpect(status().isCreated()).andReturn();
+        postExpense(key, expense(9.00))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        MvcResult retry = postExpense(key, expense(8.00))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+        assertEquals(retry.getResponse().getContentAsString(), first.getResponse().getContentAsString());
+    }
+
+    @Test(description = "An oversized key is rejected")
+    public void testKeyTooLong() throws Exception {
+        postExpense("k".repeat(256), expense(1.00)).andExpect(status().isBadRequest());
+    }
+
+    @Test(description = "A key is owned by its first request until that request completes or gives up")
+    public void testClaimLifecycle() {
+        IdempotencyStore store = new IdempotencyStore(10, Duration.ofMinutes(1));
+        byte[] digest = {1, 2, 3};
+        assertNull(store.claim("a", digest));
+        StoredResponse claimed = store.claim("a", digest);
+        assertTrue(claimed.inProgress());
+        assertTrue(claimed.matches(digest));
+        assertFalse(claimed.matches(new byte[] {4, 5, 6}));
+        store.release("a");
+        assertNull(store.claim("a", digest));
+        store.complete("a", new StoredResponse(digest, 201, "application/json", new byte[] {'{', '}'}));
+        store.release("a");
+        assertEquals(store.claim("a", digest).status(), 201);
+    }
+
+    private ResultActions postExpense(String key, Expense expense) throws Exception {
+        return mockMvc.perform(post("/expenses")
+                .header(IdempotencyFilter.KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(expense)));
+    }
+
+    private Expense expense(double amount) {
+        Expense expense = new Expense();
+        expense.setGroupId(groupId);
+        expense.setDescription(amount == 30.00 ? "Idempotent" : "Other");
+        expense.setAmount(amount);
+        expense.setPaidByUserId(payerId);
+        expense.setDate(LocalDate.now());
+        expense.setSplitType("EQUAL");
+        return expense;
+    }
+
+    private static User user(String name, String run) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "-" + run + "@example.com");
+        return user;
+    }
+}
@@ -0,0 +1,11 @@
+package com.smartexpense.memory;
+
+import com.smartexpense.SmartExpenseSplitterApiTest;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the full API contract suite against the in-memory storage backend.
+ */
+@TestPropertySource(properties = "smartexpense.storage=memory")
+public class MemoryContractTest extends SmartExpenseSplitterApiTest {
+}
@@ -0,0 +1,61 @@
+package com.smartexpense.money;
+
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for the date-versioned lookups in {@link FxRates}.
+ */
+public class FxRatesTest {
+
+    private static final String RATES = """
+            # date,currency,rate
+            2024-01-01,USD,1.0
+            2024-01-01,EUR,1.1
+            2024-02-01,USD,1.0
+            2024-02-01,EUR,1.2
+            2024-02-01,GBP,1.25
+            """;
+
+    @Test(description = "A conversion uses the latest version on or before its date")
+    public void testRateFromLatestVersion() throws IOException {
+        FxRates rates = parse(RATES);
+        assertEquals(rates.getVersionCount(), 2);
+        assertEquals(rates.getCurrencies(), Set.of("EUR", "GBP", "USD"));
+        assertEquals(rates.rate("EUR", "USD", LocalDate.of(2024, 1, 31)), 1.1);
+        assertEquals(rates.rate("EUR", "USD", LocalDate.of(2024, 2, 1)), 1.2);
+        assertEquals(rates.rate("EUR", "USD", LocalDate.of(2030, 1, 1)), 1.2);
+        assertEquals(rates.rate("GBP", "EUR", LocalDate.of(2024, 2, 15)), 1.25 / 1.2);
+        assertEquals(FxRates.convert(100_00, 1.1), 110_00);
+    }
+
+    @Test(description = "Pairs without a rate on the date are NaN, except the same currency")
+    public void testMissingRates() throws IOException {
+        FxRates rates = parse(RATES);
+        assertTrue(Double.isNaN(rates.rate("EUR", "USD", LocalDate.of(2023, 12, 31))));
+        assertTrue(Double.isNaN(rates.rate("GBP", "USD", LocalDate.of(2024, 1, 15))));
+        assertTrue(Double.isNaN(rates.rate("JPY", "USD", LocalDate.of(2024, 2, 15))));
+        assertEquals(rates.rate("JPY", "JPY", LocalDate.of(2023, 1, 1)), 1.0);
+    }
+
+    @Test(description = "Malformed lines are rejected with their line number")
+    public void testMalformedLinesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> parse("2024-01-01,EUR"));
+        assertThrows(IllegalArgumentException.class, () -> parse("2024-01-01,eur,1.1"));
+        assertThrows(IllegalArgumentException.class, () -> parse("2024-01-01,EUR,-1"));
+        assertThrows(IllegalArgumentException.class, () -> parse("2024-01-01,EUR,1.1\\n2024-01-01,EUR,1.2"));
+    }
+
+    private static FxRates parse(String text) throws IOException {
+        return FxRates.parse(new BufferedReader(new StringReader(text)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.smartexpense.money;
+
+import com.smartexpense.exception.InvalidSplitException;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+/**
+ * Unit tests for the fixed-point split rules in {@link SplitEngine}.
+ */
+public class SplitEngineTest {
+
+    @Test(description = "EQUAL split hands leftover cents to the first participants")
+    public void testEqualSplitLeftoverGoesToFirstParticipants() {
+        long[] owed = new long[3];
+        SplitEngine.splitEqual(10_00, owed);
+        assertEquals(owed, new long[]{3_34, 3_33, 3_33});
+        assertEquals(Arrays.stream(owed).sum(), 10_00);
+    }
+
+    @Test(description = "EXACT split accepts shares that add up to the amount")
+    public void testExactSplitMatchingTotal() {
+        long[] owed = new long[2];
+        SplitEngine.splitExact(100_00, new long[]{60_00, 40_00}, owed);
+        assertEquals(owed, new long[]{60_00, 40_00});
+    }
+
+    @Test(description = "EXACT split rejects shares that do not add up to the amount")
+    public void testExactSplitMismatchRejected() {
+        assertThrows(InvalidSplitException.class,
+                () -> SplitEngine.splitExact(100_00, new long[]{60_00, 30_00}, new long[2]));
+    }
+
+    @Test(description = "PERCENT split distributes leftover cents by largest remainder")
+    public void testPercentSplitLargestRemainder() {
+        long[] owed = new long[3];
+        // 33.33% / 33.33% / 33.34% of 1.00 -> 33.33, 33.33, 33.34 cents before rounding
+        SplitEngine.splitPercent(1_00, new long[]{33_33, 33_33, 33_34}, owed);
+        assertEquals(owed, new long[]{33, 33, 34});
+
+        SplitEngine.splitPercent(10_01, new long[]{50_00, 50_00, 0}, owed);
+        assertEquals(owed, new long[]{5_01, 5_00, 0});
+    }
+
+    @Test(description = "PERCENT split hands every leftover cent to a distinct largest remainder")
+    public void testPercentSplitManyLeftoverUnits() {
+        long[] owed = new long[6];
+        // Two leftover cents, three participants tied on the largest half-cent remainder
+        SplitEngine.splitPercent(1_00, new long[]{10_50, 20_50, 30_00, 10_50, 9_25, 19_25}, owed);
+        assertEquals(owed, new long[]{11, 21, 30, 10, 9, 19});
+        assertEquals(Arrays.stream(owed).sum(), 1_00);
+    }
+
+    @Test(description = "PERCENT split rejects percentages that do not add up to 100")
+    public void testPercentSplitInvalidTotalRejected() {
+        assertThrows(InvalidSplitException.class,
+                () -> SplitEngine.splitPercent(100_00, new long[]{70_00, 20_00}, new long[2]));
+    }
+
+    @Test(description = "Proportional split keeps the ratio of the weights and the exact total")
+    public void testProportionalSplitLargestRemainder() {
+        long[] owed = new long[3];
+        // 100.01 converted at 1.27 and carried over a 33.34 / 33.34 / 33.33 split
+        SplitEngine.splitProportional(127_01, new long[]{33_34, 33_34, 33_33}, owed);
+        assertEquals(owed, new long[]{42_34, 42_34, 42_33});
+        assertEquals(Arrays.stream(owed).sum(), 127_01);
+
+        SplitEngine.splitProportional(0, new long[]{0, 0}, owed);
+        assertEquals(owed, new long[]{0, 0, 0});
+    }
+
+    @Test(description = "Proportional split of an amount whose products with the weights overflow a long")
+    public void testProportionalSplitLargeAmount() {
+        long[] owed = new long[2];
+        long amount = Long.MAX_VALUE / 1_000_000;
+        SplitEngine.splitProportional(amount, new long[]{1_000_000, 3_000_000}, owed);
+        assertEquals(owed, new long[]{2_305_843_009_214L, 6_917_529_027_640L});
+        assertEquals(Arrays.stream(owed).sum(), amount);
+    }
+
+    @Test(description = "Decimal amounts round half-up to minor units")
+    public void testMoneyConversion() {
+        assertEquals(Money.toMinor(0.29), 29);
+        assertEquals(Money.toMinor(150.00), 150_00);
+        assertEquals(Money.toMajor(17_505), 175.05);
+    }
+}
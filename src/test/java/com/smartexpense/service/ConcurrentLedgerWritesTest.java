@@ -0,0 +1,213 @@
+package com.smartexpense.service;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.ExpenseShare;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.Settlement;
+import com.smartexpense.model.User;
+import com.smartexpense.money.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Stress test for concurrent expense and settlement writes: however the
+ * writes interleave, every group ledger must net to zero and match a
+ * recomputation over the group history.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class ConcurrentLedgerWritesTest extends AbstractTestNGSpringContextTests {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 60;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> memberIds = new ArrayList<>();
+    private final List<Long> groupIds = new ArrayList<>();
+
+    @BeforeClass
+    public void createGroups() {
+        String run = UUID.randomUUID().toString();
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setName("Member " + i);
+            user.setEmail("member" + i + "-" + run + "@example.com");
+            memberIds.add(userService.addUser(user).getId());
+        }
+        for (int i = 0; i < 3; i++) {
+            Group group = new Group();
+            group.setName("Stress group " + i);
+            group.setMemberIds(new ArrayList<>(memberIds));
+            groupIds.add(groupService.createGroup(group).getId());
+        }
+    }
+
+    @Test(description = "Concurrent adds, updates, moves and deletes leave every ledger netting to zero")
+    public void testConcurrentWritesNetToZero() throws Exception {
+        List<Long> expenseIds = new CopyOnWriteArrayList<>();
+        List<Long> settlementIds = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            expenseIds.add(expenseService.addExpense(expense(ThreadLocalRandom.current())).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int op = 0; op < OPERATIONS_PER_THREAD; op++) {
+                    switch (random.nextInt(5)) {
+                        case 0 -> expenseIds.add(expenseService.addExpense(expense(random)).getId());
+                        case 1 -> expenseService.updateExpense(pick(expenseIds, random), expense(random));
+                        case 2 -> settlementIds.add(settlementService.addSettlement(settlement(random)).getId());
+                        case 3 -> {
+                            if (!settlementIds.isEmpty()) {
+                                settlementService.updateSettlement(pick(settlementIds, random), settlement(random));
+                            }
+                        }
+                        default -> {
+                            Long id = expenseService.addExpense(expense(random)).getId();
+                            expenseService.deleteExpense(id);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+
+        for (Long groupId : groupIds) {
+            Map<Long, Long> balances = nonZero(ledgerService.getBalances(groupId));
+            assertEquals(balances.values().stream().mapToLong(Long::longValue).sum(), 0L,
+                    "Ledger of group " + groupId + " should net to zero");
+            assertEquals(balances, recompute(groupId), "Ledger of group " + groupId + " should match its history");
+        }
+    }
+
+    @Test(description = "A transaction holding one group's ledger lock does not block writes to another group")
+    public void testDifferentGroupsDoNotContend() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ledgerService.lockGroups(List.of(groupIds.get(0)));
+            locked.countDown();
+            try {
+                release.await(1, TimeUnit.MINUTES);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            ExecutorService other = Executors.newSingleThreadExecutor();
+            Settlement settlement = settlement(ThreadLocalRandom.current());
+            settlement.setGroupId(groupIds.get(1));
+            Future<Settlement> write = other.submit(() -> settlementService.addSettlement(settlement));
+            assertTrue(write.get(10, TimeUnit.SECONDS).getId() != null);
+            other.shutdown();
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    private Expense expense(ThreadLocalRandom random) {
+        Expense expense = new Expense();
+        expense.setGroupId(pick(groupIds, random));
+        expense.setDescription("Stress");
+        expense.setAmount(Money.toMajor(1 + random.nextInt(100_00)));
+        expense.setPaidByUserId(pick(memberIds, random));
+        expense.setDate(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(30)));
+        expense.setSplitType("EQUAL");
+        return expense;
+    }
+
+    private Settlement settlement(ThreadLocalRandom random) {
+        int from = random.nextInt(memberIds.size());
+        int to = (from + 1 + random.nextInt(memberIds.size() - 1)) % memberIds.size();
+        Settlement settlement = new Settlement();
+        settlement.setGroupId(pick(groupIds, random));
+        settlement.setFromUserId(memberIds.get(from));
+        settlement.setToUserId(memberIds.get(to));
+        settlement.setAmount(Money.toMajor(1 + random.nextInt(50_00)));
+        settlement.setDate(LocalDate.of(2024, 2, 1));
+        return settlement;
+    }
+
+    private Map<Long, Long> recompute(Long groupId) {
+        Map<Long, Long> balances = new HashMap<>();
+        for (Expense expense : expenseService.listExpensesByGroup(groupId)) {
+            balances.merge(expense.getPaidByUserId(), expense.getBaseAmountMinor(), Long::sum);
+            for (ExpenseShare share : expense.getShares()) {
+                balances.merge(share.getUserId(), -share.getOwedMinor(), Long::sum);
+            }
+        }
+        for (Settlement settlement : settlementService.listSettlementsByGroup(groupId)) {
+            long amount = Money.toMinor(settlement.getAmount());
+            balances.merge(settlement.getFromUserId(), amount, Long::sum);
+            balances.merge(settlement.getToUserId(), -amount, Long::sum);
+        }
+        return nonZero(balances);
+    }
+
+    private static Map<Long, Long> nonZero(Map<Long, Long> balances) {
+        Map<Long, Long> result = new HashMap<>();
+        balances.forEach((userId, balance) -> {
+            if (balance != 0) {
+                result.put(userId, balance);
+            }
+        });
+        return result;
+    }
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,208 @@
+package com.smartexpense.service;
+
+import com.smartexpense.concurrency.GroupLocks;
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.GroupLedger;
+import com.smartexpense.model.LedgerAuditStatus;
+import com.smartexpense.model.LedgerDrift;
+import com.smartexpense.model.User;
+import com.smartexpense.repository.ExpenseRepository;
+import com.smartexpense.repository.GroupLedgerRepository;
+import com.smartexpense.repository.GroupRepository;
+import com.smartexpense.repository.SettlementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the ledger audit against the expense and settlement history.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class LedgerAuditJobTest extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private LedgerAuditJob auditJob;
+
+    @Autowired
+    private GroupLedgerRepository ledgerRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private SettlementRepository settlementRepository;
+
+    @Autowired
+    private GroupLocks groupLocks;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test(description = "A report-only audit finds drift and leaves the ledger unchanged")
+    public void testAuditReportsDrift() throws Exception {
+        Long[] ids = createGroupWithExpenses();
+        Long groupId = ids[0];
+        corruptLedger(groupId, ids[1], ids[2]);
+        Map<Long, Long> corrupted = balances(groupId);
+
+        LedgerAuditStatus status = runAudit(false);
+        assertEquals(status.state(), LedgerAuditStatus.State.COMPLETED);
+        assertEquals(status.auditedGroups(), status.totalGroups());
+        assertTrue(status.expensesScanned() >= 3);
+        List<LedgerDrift> drift = driftOf(status, groupId);
+        assertEquals(drift.size(), 2);
+        for (LedgerDrift entry : drift) {
+            assertEquals(entry.stored() - entry.expected(), entry.userId().equals(ids[1]) ? 12.34 : -12.34, 0.001);
+        }
+        assertEquals(status.repairedGroups(), 0);
+        assertEquals(balances(groupId), corrupted);
+    }
+
+    @Test(description = "A repairing audit resets a drifted ledger to its recomputed balances")
+    public void testAuditRepairsDrift() throws Exception {
+        Long[] ids = createGroupWithExpenses();
+        Long groupId = ids[0];
+        Map<Long, Long> correct = balances(groupId);
+        corruptLedger(groupId, ids[1], ids[2]);
+
+        LedgerAuditStatus repaired = runAudit(true);
+        assertEquals(repaired.state(), LedgerAuditStatus.State.COMPLETED);
+        assertFalse(driftOf(repaired, groupId).isEmpty());
+        assertTrue(repaired.repairedGroups() >= 1);
+        assertEquals(balances(groupId), correct);
+
+        LedgerAuditStatus clean = runAudit(false);
+        assertTrue(driftOf(clean, groupId).isEmpty());
+    }
+
+    @Test(description = "A group whose confirm pass fails is counted as failed and the other groups still finish")
+    public void testFailedGroupDoesNotFailRun() throws Exception {
+        Long[] failing = createGroupWithExpenses();
+        Long[] other = createGroupWithExpenses();
+        Map<Long, Long> correct = balances(other[0]);
+        corruptLedger(failing[0], failing[1], failing[2]);
+        corruptLedger(other[0], other[1], other[2]);
+        Map<Long, Long> corrupted = balances(failing[0]);
+
+        GroupLocks failingLocks = groupIds -> {
+            if (groupIds.contains(failing[0])) {
+                throw new CannotAcquireLockException("Timed out waiting for the ledger lock of a group");
+            }
+            groupLocks.lock(groupIds);
+        };
+        LedgerAuditJob job = new LedgerAuditJob(groupRepository, expenseRepository, settlementRepository,
+                new LedgerService(ledgerRepository, failingLocks, eventPublisher), transactionManager,
+                new SimpleMeterRegistry(), 2, 1, 100, false);
+        try {
+            LedgerAuditStatus status = runAudit(job, true);
+            assertEquals(status.state(), LedgerAuditStatus.State.COMPLETED);
+            assertEquals(status.failedGroups(), 1);
+            assertEquals(status.auditedGroups(), status.totalGroups());
+            assertTrue(driftOf(status, failing[0]).isEmpty());
+            assertFalse(driftOf(status, other[0]).isEmpty());
+            assertEquals(balances(other[0]), correct);
+            assertEquals(balances(failing[0]), corrupted);
+        } finally {
+            job.destroy();
+        }
+    }
+
+    private LedgerAuditStatus runAudit(boolean repair) throws InterruptedException {
+        return runAudit(auditJob, repair);
+    }
+
+    private static LedgerAuditStatus runAudit(LedgerAuditJob job, boolean repair) throws InterruptedException {
+        assertTrue(job.start(repair), "No other audit should be running");
+        for (int i = 0; i < 400; i++) {
+            LedgerAuditStatus status = job.getStatus();
+            if (status.state() != LedgerAuditStatus.State.RUNNING) {
+                return status;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("Ledger audit did not finish");
+    }
+
+    private static List<LedgerDrift> driftOf(LedgerAuditStatus status, Long groupId) {
+        return status.drift().stream().filter(entry -> entry.groupId().equals(groupId)).toList();
+    }
+
+    private void corruptLedger(Long groupId, Long creditedId, Long debitedId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            GroupLedger ledger = ledgerRepository.findById(groupId).orElseThrow();
+            ledger.adjust(creditedId, 1234);
+            ledger.adjust(debitedId, -1234);
+            ledgerRepository.save(ledger);
+        });
+    }
+
+    private Map<Long, Long> balances(Long groupId) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                Map.copyOf(ledgerRepository.findById(groupId).orElseThrow().getBalances()));
+    }
+
+    private Long[] createGroupWithExpenses() {
+        String run = UUID.randomUUID().toString();
+        Long first = userService.addUser(user("First", run)).getId();
+        Long second = userService.addUser(user("Second", run)).getId();
+        Long third = userService.addUser(user("Third", run)).getId();
+        Group group = new Group();
+        group.setName("Ledger audit");
+        group.setMemberIds(List.of(first, second, third));
+        Long groupId = groupService.createGroup(group).getId();
+        expenseService.addExpense(expense(groupId, first, 90.00));
+        expenseService.addExpense(expense(groupId, second, 10.00));
+        expenseService.addExpense(expense(groupId, third, 33.33));
+        return new Long[] {groupId, first, second, third};
+    }
+
+    private static Expense expense(Long groupId, Long payerId, double amount) {
+        Expense expense = new Expense();
+        expense.setGroupId(groupId);
+        expense.setAmount(amount);
+        expense.setPaidByUserId(payerId);
+        expense.setDate(LocalDate.now());
+        expense.setSplitType("EQUAL");
+        return expense;
+    }
+
+    private static User user(String name, String run) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "-" + run + "@example.com");
+        return user;
+    }
+}
@@ -0,0 +1,162 @@
+package com.smartexpense.service;
+
+import com.smartexpense.model.Expense;
+import com.smartexpense.model.Group;
+import com.smartexpense.model.StoredSettlementPlan;
+import com.smartexpense.model.User;
+import com.smartexpense.repository.GroupLedgerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the background settlement plan recompute.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class SettlementPlanPipelineTest extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private SettlementPlanPipeline pipeline;
+
+    @Autowired
+    private GroupLedgerRepository ledgerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test(description = "A burst of separately committed writes is folded into fewer recomputes")
+    public void testBurstIsDebounced() throws Exception {
+        Long[] ids = createGroup();
+        Long groupId = ids[0];
+        StoredSettlementPlan initial = pipeline.getPlan(groupId);
+        assertTrue(initial.plan().getSuggestions().isEmpty());
+        long computes = planComputes();
+
+        int writes = 10;
+        for (int i = 0; i < writes; i++) {
+            expenseService.addExpense(expense(groupId, ids[1], 10.00));
+        }
+
+        StoredSettlementPlan updated = awaitVersion(groupId, writes);
+        assertTrue(planComputes() - computes < writes, "Writes in one debounce window should share a recompute");
+        assertNotEquals(updated.etag(), initial.etag());
+        assertEquals(updated.plan().getTransactionCount(), Integer.valueOf(1));
+        assertEquals(updated.plan().getSuggestions().get(0).getAmount(), 50.00, 0.001);
+    }
+
+    @Test(description = "A write that leaves the plan unchanged keeps its entity tag")
+    public void testUnchangedPlanKeepsEtag() throws Exception {
+        Long[] ids = createGroup();
+        Long groupId = ids[0];
+        StoredSettlementPlan initial = pipeline.getPlan(groupId);
+
+        Expense expense = expenseService.addExpense(expense(groupId, ids[1], 10.00));
+        StoredSettlementPlan changed = awaitChange(groupId, initial);
+        expenseService.deleteExpense(expense.getId());
+        StoredSettlementPlan reverted = awaitChange(groupId, changed);
+        assertEquals(reverted.etag(), initial.etag());
+    }
+
+    @Test(description = "Renaming a user updates the names and entity tag of a stored plan")
+    public void testRenamedUserRefreshesPlan() throws Exception {
+        Long[] ids = createGroup();
+        Long groupId = ids[0];
+        StoredSettlementPlan initial = pipeline.getPlan(groupId);
+        expenseService.addExpense(expense(groupId, ids[1], 10.00));
+        StoredSettlementPlan planned = awaitChange(groupId, initial);
+        assertEquals(planned.plan().getSuggestions().get(0).getFromUserName(), "Second");
+
+        userService.updateUser(ids[2], user("Renamed", UUID.randomUUID().toString()));
+
+        StoredSettlementPlan current = pipeline.getPlan(groupId);
+        assertEquals(current.plan().getSuggestions().get(0).getFromUserName(), "Renamed");
+        assertEquals(current.version(), planned.version());
+        assertNotEquals(current.etag(), planned.etag());
+        assertEquals(pipeline.getPlan(groupId).etag(), current.etag());
+    }
+
+    @Test(description = "Adding users who are already members changes nothing and keeps the stored plan")
+    public void testReaddingMembersKeepsPlan() throws Exception {
+        Long[] ids = createGroup();
+        Long groupId = ids[0];
+        StoredSettlementPlan initial = pipeline.getPlan(groupId);
+        expenseService.addExpense(expense(groupId, ids[1], 10.00));
+        StoredSettlementPlan planned = awaitChange(groupId, initial);
+        long changeVersion = ledgerRepository.findById(groupId).orElseThrow().getChangeVersion();
+
+        groupService.addMember(groupId, ids[2]);
+        groupService.addMembers(groupId, List.of(ids[1], ids[2]));
+
+        assertEquals(ledgerRepository.findById(groupId).orElseThrow().getChangeVersion(), changeVersion);
+        StoredSettlementPlan current = pipeline.getPlan(groupId);
+        assertEquals(current.version(), planned.version());
+        assertEquals(current.etag(), planned.etag());
+    }
+
+    private StoredSettlementPlan awaitChange(Long groupId, StoredSettlementPlan previous) throws InterruptedException {
+        return awaitVersion(groupId, previous.version() + 1);
+    }
+
+    private StoredSettlementPlan awaitVersion(Long groupId, long version) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            StoredSettlementPlan current = pipeline.getPlan(groupId);
+            if (current.version() >= version) {
+                return current;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("Settlement plan of group " + groupId + " was not recomputed");
+    }
+
+    private long planComputes() {
+        return meterRegistry.get("smartexpense.settlement.plan.compute").timer().count();
+    }
+
+    private Long[] createGroup() {
+        String run = UUID.randomUUID().toString();
+        Long first = userService.addUser(user("First", run)).getId();
+        Long second = userService.addUser(user("Second", run)).getId();
+        Group group = new Group();
+        group.setName("Plan pipeline");
+        group.setMemberIds(List.of(first, second));
+        return new Long[] {groupService.createGroup(group).getId(), first, second};
+    }
+
+    private static Expense expense(Long groupId, Long payerId, double amount) {
+        Expense expense = new Expense();
+        expense.setGroupId(groupId);
+        expense.setAmount(amount);
+        expense.setPaidByUserId(payerId);
+        expense.setDate(LocalDate.now());
+        expense.setSplitType("EQUAL");
+        return expense;
+    }
+
+    private static User user(String name, String run) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "-" + run + "@example.com");
+        return user;
+    }
+}
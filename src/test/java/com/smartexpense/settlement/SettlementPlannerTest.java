@@ -0,0 +1,62 @@
+package com.smartexpense.settlement;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for the greedy and exact settlement solvers.
+ */
+public class SettlementPlannerTest {
+
+    private static final long[] SPLITTABLE = {10_00, 4_00, 3_00, -7_00, -6_00, -4_00};
+
+    @Test(description = "Exact solver finds the minimum number of transfers")
+    public void testExactSolverIsMinimal() {
+        // {4, -4} and {10, 3, -7, -6} net to zero independently: 6 parties - 2 subsets = 4 transfers
+        Transfers exact = ExactSettlementSolver.solve(SPLITTABLE);
+        assertEquals(exact.size(), 4);
+        assertSettles(SPLITTABLE, exact);
+
+        Transfers greedy = GreedySettlementSolver.solve(SPLITTABLE);
+        assertEquals(greedy.size(), 5);
+        assertSettles(SPLITTABLE, greedy);
+    }
+
+    @Test(description = "Greedy solver settles large groups in at most n - 1 transfers")
+    public void testGreedySolverLargeGroup() {
+        Random random = new Random(42);
+        long[] balances = new long[2_000];
+        long total = 0;
+        for (int i = 0; i < balances.length - 1; i++) {
+            balances[i] = random.nextInt(200_00) - 100_00;
+            total += balances[i];
+        }
+        balances[balances.length - 1] = -total;
+
+        Transfers transfers = GreedySettlementSolver.solve(balances);
+        assertTrue(transfers.size() <= balances.length - 1);
+        assertSettles(balances, transfers);
+    }
+
+    @Test(description = "Planner switches strategy at the configured cutoff")
+    public void testPlannerCutoff() {
+        assertEquals(new SettlementPlanner(6).plan(SPLITTABLE).size(), 4);
+        assertEquals(new SettlementPlanner(5).plan(SPLITTABLE).size(), 5);
+        assertEquals(new SettlementPlanner(12).plan(new long[]{0, 0}).size(), 0);
+    }
+
+    private static void assertSettles(long[] balances, Transfers transfers) {
+        long[] remaining = Arrays.copyOf(balances, balances.length);
+        for (int i = 0; i < transfers.size(); i++) {
+            assertTrue(transfers.amount(i) > 0);
+            remaining[transfers.from(i)] += transfers.amount(i);
+            remaining[transfers.to(i)] -= transfers.amount(i);
+        }
+        assertEquals(remaining, new long[balances.length]);
+    }
+}